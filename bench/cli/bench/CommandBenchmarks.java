@@ -0,0 +1,494 @@
+package cli.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import cli.ActionBindings;
+import cli.CommandHandler;
+import cli.CommandRegistry;
+import cli.CommandSet;
+import cli.CommandTree;
+import cli.Diagnostics;
+import cli.DoubleFlag;
+import cli.ExpandingParser;
+import cli.Flag;
+import cli.FlagIndex;
+import cli.IntFlag;
+import cli.LongArrayFlag;
+import cli.ParseContext;
+import cli.ParseResult;
+import cli.Parser;
+import cli.completion.CompletionIndex;
+
+/**
+ * Benchmarks of the Hot Paths of the {@link cli} Package.<br/>
+ * Varies the Amount of {@link cli.Flag Flags}, the Amount of Arguments,
+ * the valueSeparator, whether multiple Occurences are allowed
+ * and the Nesting Depth of {@link cli.Parser Parsers},
+ * including worst Cases like deeply nested Parsers
+ * and Arguments, that almost match a Flag.<br/>
+ * Usage: <em>java cli.bench.CommandBenchmarks [filter]</em>,
+ * the Durations can be set by the System Properties
+ * <em>bench.warmup</em> and <em>bench.measure</em> in Milliseconds
+ * and the Amount of forked JVMs running each Benchmark by
+ * <em>bench.forks</em>, which defaults to 1, with 0 running all
+ * Benchmarks in the current JVM.
+ * @author Mario Schäper
+ */
+public class CommandBenchmarks {
+	protected static final int[] FLAG_COUNTS = {10, 100, 1000};
+	protected static final int[] ARG_COUNTS = {10, 100, 1000};
+	protected static final int[] DEPTHS = {1, 10, 100, 1000};
+	protected static final String PREFIX = "--a-rather-long-common-prefix-";
+
+	/**
+	 * Runs all Benchmarks, whose Name contains the first Argument.
+	 * @param args the Arguments
+	 */
+	public static void main(final String...args) {
+		final Harness harness = new Harness(
+				Long.getLong("bench.warmup", 500),
+				Long.getLong("bench.measure", 1000),
+				args.length == 0 ? null : args[0],
+				Integer.getInteger("bench.forks", 1),
+				CommandBenchmarks.class);
+		harness.printHeader();
+		CommandBenchmarks.handleArguments(harness);
+		CommandBenchmarks.parseArguments(harness);
+		CommandBenchmarks.lookups(harness);
+		CommandBenchmarks.typedValues(harness);
+		CommandBenchmarks.parseResult(harness);
+		CommandBenchmarks.subcommands(harness);
+		CommandBenchmarks.completion(harness);
+		CommandBenchmarks.diagnostics(harness);
+		CommandBenchmarks.responseFiles(harness);
+		CommandBenchmarks.registry(harness);
+	}
+
+	protected static void handleArguments(final Harness harness) {
+		final ParseContext context = new ParseContext();
+		for (String separator : new String[] {" ", "-"}) {
+			for (boolean allowMultiple : new boolean[] {false, true}) {
+				for (int flagCount : CommandBenchmarks.FLAG_COUNTS) {
+					final List<Flag> flags = CommandBenchmarks.flags(
+							flagCount, "--flag", separator, 2, allowMultiple);
+					final CommandSet set = CommandSet.builder()
+							.addFlags(flags)
+							.build();
+					final FlagIndex index = set.getFlagIndex();
+					for (int argCount : CommandBenchmarks.ARG_COUNTS) {
+						final String[] args = CommandBenchmarks.arguments(
+								flags, argCount, allowMultiple);
+						final String params = "flags=" + flagCount
+								+ ",args=" + argCount
+								+ ",sep=" + (separator.equals(" ") ? "space" : "inline")
+								+ ",multiple=" + allowMultiple;
+						harness.run("handleArguments.set[" + params + "]",
+								i -> set.handleArguments(args));
+						harness.run("handleArguments.context[" + params + "]",
+								i -> set.handleArguments(context, args));
+						harness.run("handleArguments.static[" + params + "]",
+								i -> CommandHandler.handleArguments(flags, args));
+						harness.run("handleArguments.index[" + params + "]",
+								i -> CommandHandler.handleArguments(index, args));
+						CommandHandler.setFlags(flags);
+						harness.run("handleArguments.default[" + params + "]",
+								i -> CommandHandler.handleArguments(args));
+					}
+				}
+			}
+		}
+	}
+
+	protected static void parseArguments(final Harness harness) {
+		final List<Parser> parsers = Arrays.asList(
+				new Parser("[", values -> values.length == 0 ? "" : values[0], 1, "]"),
+				new Parser("(", values -> values[0], 2, null));
+		final List<Flag> flags = CommandBenchmarks.flags(
+				100, "--flag", " ", 1, true);
+		final CommandSet set = CommandSet.builder()
+				.addFlags(flags)
+				.addParsers(parsers)
+				.build();
+		final ParseContext context = new ParseContext();
+		for (int depth : CommandBenchmarks.DEPTHS) {
+			final String[] nested = new String[depth * 2 + 1];
+			for (int i = 0; i < depth; i++) {
+				nested[i] = "[";
+				nested[nested.length - 1 - i] = "]";
+			}
+			nested[depth] = "value";
+			harness.run("parseArguments.set[nested,depth=" + depth + "]",
+					i -> set.parseArguments(nested));
+			harness.run("parseArguments.static[nested,depth=" + depth + "]",
+					i -> CommandHandler.parseArguments(parsers, flags, nested));
+			final List<String> flat = new ArrayList<>();
+			for (int i = 0; i < depth; i++) {
+				flat.addAll(Arrays.asList("[", "--flag" + (i % 100), "x", "a", "b", "]"));
+				flat.addAll(Arrays.asList("(", "c", "d"));
+			}
+			final String[] regions = flat.toArray(new String[flat.size()]);
+			harness.run("parseArguments.set[flat,regions=" + depth * 2 + "]",
+					i -> set.parseArguments(regions));
+			harness.run("parseArguments.context[flat,regions=" + depth * 2 + "]",
+					i -> set.parseArguments(context, regions));
+			harness.run("parseArguments.static[flat,regions=" + depth * 2 + "]",
+					i -> CommandHandler.parseArguments(parsers, flags, regions));
+		}
+		final String[] expansion = new String[200];
+		for (int i = 0; i < expansion.length; i += 2) {
+			expansion[i] = "--flag" + (i / 2);
+			expansion[i + 1] = "v" + i;
+		}
+		final CommandSet joined = CommandSet.builder()
+				.addFlags(flags)
+				.addParser(new Parser(
+						"@alias", values -> String.join(" ", expansion), 0, null))
+				.build();
+		final CommandSet expanding = CommandSet.builder()
+				.addFlags(flags)
+				.addParser(new ExpandingParser("@alias", (values, output) -> {
+					for (String arg : expansion) {
+						output.accept(arg);
+					}
+				}, 0, null))
+				.build();
+		final String[] alias = {"@alias", "file"};
+		harness.run("parseArguments.joined[tokens=" + expansion.length + "]", i -> {
+			final List<String> args = new ArrayList<>();
+			for (String arg : joined.parseArguments(alias)) {
+				args.addAll(Arrays.asList(arg.split(" ")));
+			}
+			return joined.handleArguments(args.toArray(new String[args.size()]));
+		});
+		harness.run("parseArguments.expanding[tokens=" + expansion.length + "]",
+				i -> expanding.handleArguments(expanding.parseArguments(alias)));
+	}
+
+	protected static void lookups(final Harness harness) {
+		for (int flagCount : CommandBenchmarks.FLAG_COUNTS) {
+			final List<Flag> flags = new ArrayList<>();
+			flags.addAll(CommandBenchmarks.flags(
+					flagCount / 2, CommandBenchmarks.PREFIX + "s", " ", 1, false));
+			flags.addAll(CommandBenchmarks.flags(
+					flagCount / 2, CommandBenchmarks.PREFIX + "i", "=", 1, false));
+			final List<Parser> parsers = new ArrayList<>();
+			for (int i = 0; i < flagCount; i++) {
+				parsers.add(new Parser("-p" + i, values -> "", 1, null));
+			}
+			final CommandSet set = CommandSet.builder()
+					.addFlags(flags)
+					.addParsers(parsers)
+					.build();
+			final String[] tokens = {
+				CommandBenchmarks.PREFIX + "s" + (flagCount / 2 - 1),
+				CommandBenchmarks.PREFIX + "i" + (flagCount / 2 - 1) + "=value",
+				CommandBenchmarks.PREFIX + "s" + (flagCount / 2 - 1) + "x",
+				CommandBenchmarks.PREFIX + "i" + (flagCount / 2 - 1) + "-value"
+			};
+			final String[] kinds = {"exact", "inline", "nearMissExact", "nearMissInline"};
+			for (int k = 0; k < tokens.length; k++) {
+				final String token = tokens[k];
+				final String params = "[" + kinds[k] + ",flags=" + flagCount + "]";
+				harness.run("getFlagByString.set" + params,
+						i -> set.getFlagByString(token));
+				harness.run("getFlagByString.static" + params,
+						i -> CommandHandler.getFlagByString(token, flags));
+				CommandHandler.setFlags(flags);
+				harness.run("getFlagByString.default" + params,
+						i -> CommandHandler.getFlagByString(token));
+			}
+			final String typo = CommandBenchmarks.PREFIX.replace("common", "comon")
+					+ "s" + (flagCount / 2 - 1);
+			set.getSuggestionIndex();
+			harness.run("suggestFlags[flags=" + flagCount + "]",
+					i -> set.suggestFlags(typo));
+			final String parser = "-p" + (flagCount - 1);
+			harness.run("getParserByString.set[flags=" + flagCount + "]",
+					i -> set.getParserByString(parser));
+			harness.run("getParserByString.static[flags=" + flagCount + "]",
+					i -> CommandHandler.getParserByString(parser, parsers));
+		}
+		final Flag inline = new Flag(CommandBenchmarks.PREFIX, values -> {}, "=", 1);
+		final String nearMiss = CommandBenchmarks.PREFIX.substring(
+				0, CommandBenchmarks.PREFIX.length() - 1) + "x=value";
+		harness.run("Flag.isThis[hit]",
+				i -> inline.isThis(CommandBenchmarks.PREFIX + "=value"));
+		harness.run("Flag.isThis[nearMiss]", i -> inline.isThis(nearMiss));
+	}
+
+	protected static void typedValues(final Harness harness) {
+		final long[] sum = new long[1];
+		final String[] longs = new String[1000];
+		final String[] doubles = new String[longs.length * 2 - 2];
+		longs[0] = "--longs";
+		for (int i = 1; i < longs.length; i++) {
+			longs[i] = Long.toString(i * 7919L - 500000L);
+			doubles[i * 2 - 2] = "--double";
+			doubles[i * 2 - 1] = (i * 31 % 1000) + "." + (i % 100);
+		}
+		final CommandSet strings = CommandSet.builder()
+				.addFlag(new Flag("--longs", values -> {
+					for (String value : values) {
+						sum[0] += Long.valueOf(value);
+					}
+				}, " ", longs.length - 1))
+				.build();
+		final CommandSet typed = CommandSet.builder()
+				.addFlag(new LongArrayFlag("--longs", values -> {
+					for (long value : values) {
+						sum[0] += value;
+					}
+				}, " ", longs.length - 1))
+				.build();
+		final CommandSet typedDoubles = CommandSet.builder()
+				.addFlag(new DoubleFlag("--double",
+						value -> sum[0] += (long)value, " ", true))
+				.build();
+		final CommandSet stringDoubles = CommandSet.builder()
+				.addFlag(new Flag("--double",
+						values -> sum[0] += Double.valueOf(values[0]).longValue(),
+						" ", 1, true))
+				.build();
+		harness.run("typedValues.strings[longs=999]",
+				i -> strings.handleArguments(longs));
+		harness.run("typedValues.typed[longs=999]",
+				i -> typed.handleArguments(longs));
+		harness.run("typedValues.strings[doubles=999]",
+				i -> stringDoubles.handleArguments(doubles));
+		harness.run("typedValues.typed[doubles=999]",
+				i -> typedDoubles.handleArguments(doubles));
+	}
+
+	protected static void parseResult(final Harness harness) {
+		final List<Flag> flags = CommandBenchmarks.flags(
+				100, "--flag", " ", 1, true);
+		final CommandSet set = CommandSet.builder().addFlags(flags).build();
+		for (int argCount : CommandBenchmarks.ARG_COUNTS) {
+			final String[] args = CommandBenchmarks.arguments(
+					flags, argCount, true);
+			final ParseResult result = set.resolveArguments(args);
+			harness.run("parseResult.resolve[args=" + argCount + "]",
+					i -> set.resolveArguments(args));
+			harness.run("parseResult.count[args=" + argCount + ",flags=100]", i -> {
+				int count = 0;
+				for (Flag flag : flags) {
+					count += result.count(flag);
+				}
+				return count;
+			});
+		}
+	}
+
+	protected static void subcommands(final Harness harness) {
+		final int subcommands = 80;
+		final int flagCount = 20;
+		final List<Flag> globals = CommandBenchmarks.flags(
+				5, "--global", " ", 1, false);
+		final String[] args = {
+				"--global0", "v", "commit" + (subcommands / 2),
+				"--commit" + (subcommands / 2) + "-flag3-v-v", "file"};
+		final String[] flatArgs = Arrays.copyOf(args, args.length);
+		flatArgs[2] = "file";
+		harness.run("subcommands.flat[subcommands=" + subcommands + "]", i -> {
+			final CommandSet.Builder builder = CommandSet.builder().addFlags(globals);
+			for (int j = 0; j < subcommands; j++) {
+				builder.addFlags(CommandBenchmarks.flags(
+						flagCount, "--commit" + j + "-flag", "-", 2, false));
+			}
+			return builder.build().handleArguments(flatArgs);
+		});
+		harness.run("subcommands.tree[subcommands=" + subcommands + "]", i -> {
+			final CommandTree.Builder builder = CommandTree.builder()
+					.setDefinition(set -> set.addFlags(globals));
+			for (int j = 0; j < subcommands; j++) {
+				final int subcommand = j;
+				builder.addSubcommand("commit" + j, set -> set.addFlags(
+						CommandBenchmarks.flags(flagCount,
+								"--commit" + subcommand + "-flag", "-", 2, false)));
+			}
+			return builder.build().handleArguments(args);
+		});
+	}
+
+	protected static void completion(final Harness harness) {
+		for (int flagCount : new int[] {100, 1000, 10000}) {
+			final List<Flag> flags = CommandBenchmarks.flags(
+					flagCount, CommandBenchmarks.PREFIX, " ", 1, false);
+			final CommandSet set = CommandSet.builder().addFlags(flags).build();
+			final CompletionIndex index = CompletionIndex.of(set);
+			final String prefix = CommandBenchmarks.PREFIX + (flagCount / 10 - 1);
+			harness.run("completion.index[flags=" + flagCount + "]",
+					i -> index.complete("--verbose", prefix));
+			harness.run("completion.scan[flags=" + flagCount + "]", i -> {
+				final List<String> candidates = new ArrayList<>();
+				for (Flag flag : flags) {
+					if (flag.getName().startsWith(prefix)) {
+						candidates.add(flag.getName());
+					}
+				}
+				return candidates;
+			});
+		}
+	}
+
+	protected static void diagnostics(final Harness harness) {
+		final int invalid = 100;
+		final CommandSet set = CommandSet.builder()
+				.addFlags(CommandBenchmarks.flags(invalid, "--flag", "-", 2, true))
+				.build();
+		final String[] args = new String[invalid];
+		for (int i = 0; i < invalid; i++) {
+			args[i] = "--flag" + i + "-v";
+		}
+		harness.run("diagnostics.exceptions[invalid=" + invalid + "]", i -> {
+			int errors = 0;
+			for (String arg : args) {
+				try {
+					set.handleArguments(arg);
+				} catch (final IllegalArgumentException e) {
+					errors++;
+				}
+			}
+			return errors;
+		});
+		final ParseContext context = new ParseContext();
+		final Diagnostics diagnostics = new Diagnostics(invalid);
+		context.setDiagnostics(diagnostics);
+		harness.run("diagnostics.collected[invalid=" + invalid + "]", i -> {
+			diagnostics.clear();
+			set.handleArguments(context, args);
+			return diagnostics.getCount();
+		});
+		final CommandSet typed = CommandSet.builder()
+				.addFlag(new IntFlag("--int", value -> { }, "=", true))
+				.build();
+		final String[] values = new String[invalid];
+		for (int i = 0; i < invalid; i++) {
+			values[i] = "--int=v" + i;
+		}
+		harness.run("diagnostics.valueExceptions[invalid=" + invalid + "]", i -> {
+			int errors = 0;
+			for (String value : values) {
+				try {
+					typed.handleArguments(value);
+				} catch (final IllegalArgumentException e) {
+					errors++;
+				}
+			}
+			return errors;
+		});
+		harness.run("diagnostics.valuesCollected[invalid=" + invalid + "]", i -> {
+			diagnostics.clear();
+			typed.handleArguments(context, values);
+			return diagnostics.getCount();
+		});
+	}
+
+	protected static void responseFiles(final Harness harness) {
+		final List<Flag> flags = CommandBenchmarks.flags(
+				100, "--flag", " ", 1, true);
+		final CommandSet set = CommandSet.builder().addFlags(flags).build();
+		final CommandSet files = CommandSet.builder()
+				.addFlags(flags)
+				.setResponseFiles(1)
+				.build();
+		try {
+			for (int argCount : new int[] {1000, 100000}) {
+				final String[] args = CommandBenchmarks.arguments(
+						flags, argCount, true);
+				final Path file = Files.createTempFile("cli-bench", ".args");
+				file.toFile().deleteOnExit();
+				Files.write(file, Arrays.asList(args), StandardCharsets.UTF_8);
+				final String responseFile = "@" + file;
+				harness.run("responseFiles.array[args=" + argCount + "]",
+						i -> set.handleArguments(args));
+				harness.run("responseFiles.handle[args=" + argCount + "]",
+						i -> files.handleArguments(responseFile));
+				harness.run("responseFiles.parse[args=" + argCount + "]",
+						i -> files.parseArguments(responseFile));
+			}
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	protected static void registry(final Harness harness) {
+		final int flagCount = 100;
+		final List<Flag> flags = CommandBenchmarks.flags(
+				flagCount, "--flag", " ", 1, false);
+		final ActionBindings bindings = new ActionBindings();
+		final List<String> definitions = new ArrayList<>(flagCount);
+		for (Flag flag : flags) {
+			bindings.bindFlag(flag.getName(), flag.getAction());
+			definitions.add("flag " + flag.getName() + " 1 space");
+		}
+		final String[] args = CommandBenchmarks.arguments(flags, 100, false);
+		final CommandSet set = CommandSet.builder().addFlags(flags).build();
+		try {
+			final Path file = Files.createTempFile("cli-bench", ".txt");
+			file.toFile().deleteOnExit();
+			Files.write(file, definitions, StandardCharsets.UTF_8);
+			try (CommandRegistry registry =
+					new CommandRegistry(file, bindings).start()) {
+				harness.run("registry.set[flags=" + flagCount + "]",
+						i -> set.handleArguments(args));
+				harness.run("registry.registry[flags=" + flagCount + "]",
+						i -> registry.handleArguments(args));
+				harness.run("registry.reload[flags=" + flagCount + "]", i -> {
+					try {
+						return registry.reload();
+					} catch (final IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	protected static List<Flag> flags(
+			final int count,
+			final String prefix,
+			final String separator,
+			final int values,
+			final boolean allowMultiple) {
+		final List<Flag> flags = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			flags.add(new Flag(
+					prefix + i, args -> {}, separator, values, allowMultiple));
+		}
+		return flags;
+	}
+
+	protected static String[] arguments(
+			final List<Flag> flags,
+			final int count,
+			final boolean allowMultiple) {
+		final List<String> args = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			if (!allowMultiple && i >= flags.size()) {
+				args.add("file" + i);
+				continue;
+			}
+			final Flag flag = flags.get(i % flags.size());
+			final String[] values = new String[flag.getValues()];
+			Arrays.fill(values, "v" + i);
+			if (flag.getValueSeparator().equals(" ")) {
+				args.add(flag.getName());
+				args.addAll(Arrays.asList(values));
+			} else {
+				args.add(flag.getName() + flag.getValueSeparator()
+						+ String.join(flag.getValueSeparator(), values));
+			}
+		}
+		return args.toArray(new String[args.size()]);
+	}
+}
@@ -0,0 +1,233 @@
+package cli.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntFunction;
+
+/**
+ * A minimal Harness for Microbenchmarks without external Dependencies.<br/>
+ * Every Benchmark is warmed up, then run for a fixed Time,
+ * reporting its Throughput and the Bytes allocated per Operation.
+ * The Allocation Rate is only available on JVMs exposing
+ * <em>com.sun.management.ThreadMXBean</em>.<br/>
+ * Each Benchmark is run in its own forked JVM with the same Classpath
+ * and JVM Arguments, so the Profile and Heap of one Benchmark do not
+ * affect the next ones, and the Results of multiple Forks are averaged.
+ * A forked JVM runs the Main Class with the System Property
+ * <em>bench.fork</em> set to the Name of the Benchmark, so it only
+ * measures that one and reports its raw Result to the Harness.
+ * @author Mario Schäper
+ */
+public class Harness {
+	protected static final String RESULT = "result ";
+	protected final long warmupMillis;
+	protected final long measureMillis;
+	protected final String filter;
+	protected final int forks;
+	protected final Class<?> main;
+	protected final String fork;
+	protected long sink;
+
+	/**
+	 * Runs all Benchmarks in the current JVM.
+	 * @param warmupMillis the Duration of the Warmup of each Benchmark
+	 * @param measureMillis the Duration of the Measurement of each Benchmark
+	 * @param filter only Benchmarks containing this are run,
+	 * all if <b>null</b>
+	 */
+	public Harness(
+			final long warmupMillis,
+			final long measureMillis,
+			final String filter) {
+		this(warmupMillis, measureMillis, filter, 0, null);
+	}
+
+	/**
+	 * @param warmupMillis the Duration of the Warmup of each Benchmark
+	 * @param measureMillis the Duration of the Measurement of each Benchmark
+	 * @param filter only Benchmarks containing this are run,
+	 * all if <b>null</b>
+	 * @param forks the Amount of forked JVMs running each Benchmark
+	 * or <b>0</b> to run them in the current JVM
+	 * @param main the Main Class registering the Benchmarks,
+	 * that is run by the forked JVMs
+	 */
+	public Harness(
+			final long warmupMillis,
+			final long measureMillis,
+			final String filter,
+			final int forks,
+			final Class<?> main) {
+		if (forks < 0 || (forks > 0 && main == null)) {
+			throw new IllegalArgumentException(
+					"Invalid forks \"" + forks + "\"");
+		}
+		this.warmupMillis = warmupMillis;
+		this.measureMillis = measureMillis;
+		this.filter = filter;
+		this.forks = forks;
+		this.main = main;
+		this.fork = System.getProperty("bench.fork");
+	}
+
+	/**
+	 * Prints the Header of the Result Table,
+	 * unless this is a forked JVM.
+	 */
+	public void printHeader() {
+		if (this.fork != null) {
+			return;
+		}
+		System.out.println(String.format(Locale.ROOT, "%-64s %14s %12s %12s",
+				"benchmark", "ops/s", "ns/op", "B/op"));
+	}
+
+	/**
+	 * Runs the given Operation as Benchmark and prints its Result.<br/>
+	 * The Operation is invoked with the Number of the Invocation
+	 * and its Result is consumed, so it can not be eliminated.<br/>
+	 * In a forked JVM only the Benchmark, it was forked for, is run
+	 * and the JVM exits after reporting its Result.
+	 * @param name the Name of the Benchmark
+	 * @param operation the Operation
+	 */
+	public void run(final String name, final IntFunction<Object> operation) {
+		if (this.fork != null) {
+			if (name.equals(this.fork)) {
+				final long[] result = this.measure(operation);
+				System.out.println(Harness.RESULT + result[0]
+						+ " " + result[1] + " " + result[2]);
+				System.out.flush();
+				System.exit(0);
+			}
+			return;
+		}
+		if (this.filter != null && !name.contains(this.filter)) {
+			return;
+		}
+		final long[] result = this.forks == 0
+				? this.measure(operation)
+				: new long[3];
+		for (int i = 0; i < this.forks; i++) {
+			final long[] forked = this.fork(name);
+			result[0] += forked[0];
+			result[1] += forked[1];
+			result[2] = result[2] < 0 || forked[2] < 0
+					? -1
+					: result[2] + forked[2];
+		}
+		System.out.println(String.format(Locale.ROOT, "%-64s %14.1f %12.1f %12s",
+				name,
+				result[0] * 1e9 / result[1],
+				(double)result[1] / result[0],
+				result[2] < 0 ? "n/a" : String.format(
+						Locale.ROOT, "%.1f", (double)result[2] / result[0])));
+	}
+
+	/**
+	 * Warms up and measures the given Operation in the current JVM.
+	 * @param operation the Operation
+	 * @return the Amount of Operations, the elapsed Nanoseconds
+	 * and the allocated Bytes or <b>-1</b> if they are not available
+	 */
+	protected long[] measure(final IntFunction<Object> operation) {
+		this.measure(operation, this.warmupMillis * 1_000_000L);
+		final long allocated = Harness.allocatedBytes();
+		final long start = System.nanoTime();
+		final long ops = this.measure(operation, this.measureMillis * 1_000_000L);
+		final long elapsed = System.nanoTime() - start;
+		final long bytes = Harness.allocatedBytes() - allocated;
+		return new long[] {ops, elapsed, allocated < 0 ? -1 : bytes};
+	}
+
+	protected long measure(
+			final IntFunction<Object> operation,
+			final long nanos) {
+		final long end = System.nanoTime() + nanos;
+		long ops = 0;
+		long sink = 0;
+		do {
+			for (int i = 0; i < 64; i++) {
+				final Object result = operation.apply((int)ops++);
+				sink += result == null ? 0 : System.identityHashCode(result);
+			}
+		} while (System.nanoTime() < end);
+		this.sink += sink;
+		return ops;
+	}
+
+	/**
+	 * Runs the Benchmark with the given Name in a forked JVM.
+	 * @param name the Name of the Benchmark
+	 * @return the Result reported by the forked JVM
+	 * @throws UncheckedIOException if the JVM can not be started
+	 * @throws IllegalStateException if the JVM reports no Result
+	 */
+	protected long[] fork(final String name)
+			throws UncheckedIOException, IllegalStateException {
+		final List<String> command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java")
+				.toString());
+		command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		command.add("-Dbench.warmup=" + this.warmupMillis);
+		command.add("-Dbench.measure=" + this.measureMillis);
+		command.add("-Dbench.fork=" + name);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(this.main.getName());
+		try {
+			final Process process = new ProcessBuilder(command)
+					.redirectError(ProcessBuilder.Redirect.INHERIT)
+					.start();
+			long[] result = null;
+			try (BufferedReader out = new BufferedReader(new InputStreamReader(
+					process.getInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = out.readLine()) != null) {
+					if (line.startsWith(Harness.RESULT)) {
+						final String[] values = line.split(" ");
+						result = new long[] {
+								Long.parseLong(values[1]),
+								Long.parseLong(values[2]),
+								Long.parseLong(values[3])};
+					}
+				}
+			}
+			process.waitFor();
+			if (result == null) {
+				throw new IllegalStateException(
+						"Fork of \"" + name + "\" exited with "
+								+ process.exitValue() + " without a result");
+			}
+			return result;
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted fork of \"" + name + "\"");
+		}
+	}
+
+	protected static long allocatedBytes() {
+		final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			final com.sun.management.ThreadMXBean sunBean =
+					(com.sun.management.ThreadMXBean)bean;
+			if (sunBean.isThreadAllocatedMemorySupported()
+					&& sunBean.isThreadAllocatedMemoryEnabled()) {
+				return sunBean.getThreadAllocatedBytes(
+						Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,203 @@
+package cli;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Binds Actions to the Names of {@link cli.Flag Flags}
+ * and {@link cli.Parser Parsers}, which are restored without their Actions,
+ * such as from a {@link cli.CommandSetSnapshot CommandSetSnapshot}.<br/>
+ * The Expansions of {@link cli.ExpandingParser ExpandingParsers}
+ * are bound separately, so they are restored without joining
+ * their resulting Arguments. Other Subclasses of Flags and Parsers,
+ * such as {@link cli.IntFlag IntFlags}, are bound as a whole and restored
+ * as Clones of them, so they keep their Class and typed Actions.<br/>
+ * Flags with the same Name share their Action.
+ * @author Mario Schäper
+ */
+public class ActionBindings {
+	protected final Map<String, Consumer<String[]>> flagActions = new HashMap<>();
+	protected final Map<String, Function<String[], String>> parserActions =
+			new HashMap<>();
+	protected final Map<String, BiConsumer<String[], Consumer<String>>>
+			expansions = new HashMap<>();
+	protected final Map<String, Flag> flags = new HashMap<>();
+	protected final Map<String, Parser> parsers = new HashMap<>();
+
+	/**
+	 * Binds the Actions of all {@link cli.Flag Flags}
+	 * and {@link cli.Parser Parsers} of the given CommandSet to their Names.
+	 * <br/>
+	 * Subclasses and Parsers with a {@link cli.ParserCache ParserCache}
+	 * are bound as a whole, so their Clones share the Cache.
+	 * @param commands the CommandSet
+	 * @return the ActionBindings
+	 */
+	public static ActionBindings of(final CommandSet commands) {
+		final ActionBindings bindings = new ActionBindings();
+		for (Flag flag : commands.getFlags()) {
+			if (flag.getClass() == Flag.class) {
+				bindings.flagActions.putIfAbsent(flag.getName(), flag.getAction());
+			} else {
+				bindings.flags.putIfAbsent(flag.getName(), flag);
+			}
+		}
+		for (Parser parser : commands.getParsers()) {
+			if (parser instanceof ExpandingParser) {
+				bindings.expansions.putIfAbsent(parser.getName(),
+						((ExpandingParser)parser).getExpansion());
+			} else if (parser.getClass() == Parser.class
+					&& parser.getCache() == null) {
+				bindings.parserActions.putIfAbsent(
+						parser.getName(), parser.getAction());
+			} else {
+				bindings.parsers.putIfAbsent(parser.getName(), parser);
+			}
+		}
+		return bindings;
+	}
+
+	/**
+	 * Binds the given Action to the {@link cli.Flag Flags}
+	 * with the given Name.
+	 * @param name the Name of the Flags
+	 * @param action the Action
+	 * @return these ActionBindings
+	 */
+	public ActionBindings bindFlag(
+			final String name,
+			final Consumer<String[]> action) {
+		if (name == null) {
+			throw new IllegalArgumentException("Invalid name \"" + name + "\"");
+		}
+		if (action == null) {
+			throw new IllegalArgumentException("Invalid action");
+		}
+		this.flagActions.put(name, action);
+		return this;
+	}
+
+	/**
+	 * Binds the given Action to the {@link cli.Parser Parser}
+	 * with the given Name.
+	 * @param name the Name of the Parser
+	 * @param action the Action
+	 * @return these ActionBindings
+	 */
+	public ActionBindings bindParser(
+			final String name,
+			final Function<String[], String> action) {
+		if (name == null) {
+			throw new IllegalArgumentException("Invalid name \"" + name + "\"");
+		}
+		if (action == null) {
+			throw new IllegalArgumentException("Invalid action");
+		}
+		this.parserActions.put(name, action);
+		return this;
+	}
+
+	/**
+	 * Binds the given {@link cli.Flag Flag} to its Name, so the Flags
+	 * with its Name and Class are restored as Clones of it.
+	 * @param flag the Flag
+	 * @return these ActionBindings
+	 */
+	public ActionBindings bindFlag(final Flag flag) {
+		if (flag == null) {
+			throw new IllegalArgumentException("Invalid flag");
+		}
+		this.flags.put(flag.getName(), flag);
+		return this;
+	}
+
+	/**
+	 * Binds the given {@link cli.Parser Parser} to its Name, so the Parser
+	 * with its Name and Class is restored as a Clone of it,
+	 * which shares its {@link cli.ParserCache ParserCache}.
+	 * @param parser the Parser
+	 * @return these ActionBindings
+	 */
+	public ActionBindings bindParser(final Parser parser) {
+		if (parser == null) {
+			throw new IllegalArgumentException("Invalid parser");
+		}
+		this.parsers.put(parser.getName(), parser);
+		return this;
+	}
+
+	/**
+	 * Binds the given Expansion to the
+	 * {@link cli.ExpandingParser ExpandingParser} with the given Name.
+	 * @param name the Name of the Parser
+	 * @param expansion the Expansion
+	 * @return these ActionBindings
+	 */
+	public ActionBindings bindExpansion(
+			final String name,
+			final BiConsumer<String[], Consumer<String>> expansion) {
+		if (name == null) {
+			throw new IllegalArgumentException("Invalid name \"" + name + "\"");
+		}
+		if (expansion == null) {
+			throw new IllegalArgumentException("Invalid expansion");
+		}
+		this.expansions.put(name, expansion);
+		return this;
+	}
+
+	/**
+	 * Returns the Action bound to the {@link cli.Flag Flags}
+	 * with the given Name or <b>null</b> if there is none.
+	 * @param name the Name of the Flags
+	 * @return the Action or null
+	 */
+	public Consumer<String[]> getFlagAction(final String name) {
+		return this.flagActions.get(name);
+	}
+
+	/**
+	 * Returns the Action bound to the {@link cli.Parser Parser}
+	 * with the given Name or <b>null</b> if there is none.
+	 * @param name the Name of the Parser
+	 * @return the Action or null
+	 */
+	public Function<String[], String> getParserAction(final String name) {
+		return this.parserActions.get(name);
+	}
+
+	/**
+	 * Returns the Expansion bound to the
+	 * {@link cli.ExpandingParser ExpandingParser} with the given Name
+	 * or <b>null</b> if there is none.
+	 * @param name the Name of the Parser
+	 * @return the Expansion or null
+	 */
+	public BiConsumer<String[], Consumer<String>> getExpansion(
+			final String name) {
+		return this.expansions.get(name);
+	}
+
+	/**
+	 * Returns the {@link cli.Flag Flag} bound to the given Name
+	 * or <b>null</b> if there is none.
+	 * @param name the Name of the Flag
+	 * @return the Flag or null
+	 */
+	public Flag getFlag(final String name) {
+		return this.flags.get(name);
+	}
+
+	/**
+	 * Returns the {@link cli.Parser Parser} bound to the given Name
+	 * or <b>null</b> if there is none.
+	 * @param name the Name of the Parser
+	 * @return the Parser or null
+	 */
+	public Parser getParser(final String name) {
+		return this.parsers.get(name);
+	}
+}
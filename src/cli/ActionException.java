@@ -0,0 +1,34 @@
+package cli;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown, if Actions of {@link cli.Flag Flags} failed,
+ * while they were called deferred.<br/>
+ * Every Failure is contained and also added as suppressed Exception.
+ * @author Mario Schäper
+ */
+public class ActionException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+	protected final List<Throwable> failures;
+
+	/**
+	 * @param failures the Failures of the Actions
+	 */
+	public ActionException(final List<Throwable> failures) {
+		super(failures.size() + " flag actions failed");
+		this.failures = Collections.unmodifiableList(failures);
+		for (Throwable failure : failures) {
+			this.addSuppressed(failure);
+		}
+	}
+
+	/**
+	 * Returns the Failures of the Actions.
+	 * @return the unmodifiable Failures
+	 */
+	public List<Throwable> getFailures() {
+		return this.failures;
+	}
+}
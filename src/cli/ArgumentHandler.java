@@ -0,0 +1,19 @@
+package cli;
+
+/**
+ * Resolves Flags and their Values in Arguments of a CLI Input.<br/>
+ * Implemented by {@link cli.CommandSet CommandSet} and by the Classes,
+ * that are generated from {@link cli.Options Options} Classes.
+ * @author Mario Schäper
+ */
+public interface ArgumentHandler {
+	/**
+	 * Resolves all Flags and their Values in the given Arguments.<br/>
+	 * Returns the leftover Arguments.
+	 * @param args the Arguments
+	 * @return the Arguments, that could not be resolved
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	String[] handleArguments(String...args) throws IllegalArgumentException;
+}
@@ -0,0 +1,141 @@
+package cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads Arguments of a CLI Input incrementally from a Stream of Characters.
+ * <br/>
+ * Arguments are separated by Whitespace. Whitespace is kept within
+ * single or double Quotes and a Backslash escapes the following Character,
+ * except within single Quotes.<br/>
+ * Only the Argument being read is held in Memory,
+ * so it can be passed to the streaming Methods of a
+ * {@link cli.CommandSet CommandSet} regardless of the Size of the Input.
+ * @author Mario Schäper
+ */
+public class ArgumentReader implements Iterator<String>, Closeable {
+	protected final Reader reader;
+	protected final char[] buffer = new char[8192];
+	protected final StringBuilder token = new StringBuilder();
+	protected int position;
+	protected int limit;
+	protected String next;
+	protected boolean done;
+
+	/**
+	 * @param reader the Reader of the Characters
+	 */
+	public ArgumentReader(final Reader reader) {
+		if (reader == null) {
+			throw new IllegalArgumentException("Invalid reader");
+		}
+		this.reader = reader;
+	}
+
+	/**
+	 * @param channel the Channel of the Bytes
+	 * @param charset the Charset decoding the Bytes
+	 */
+	public ArgumentReader(
+			final ReadableByteChannel channel,
+			final Charset charset) {
+		this(Channels.newReader(channel, charset.newDecoder(), -1));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws UncheckedIOException if the Input can not be read
+	 * @throws IllegalArgumentException if a Quote is not closed
+	 */
+	@Override
+	public boolean hasNext()
+			throws UncheckedIOException, IllegalArgumentException {
+		if (this.next == null && !this.done) {
+			try {
+				this.next = this.read();
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			this.done = this.next == null;
+		}
+		return this.next != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws UncheckedIOException if the Input can not be read
+	 * @throws IllegalArgumentException if a Quote is not closed
+	 */
+	@Override
+	public String next()
+			throws UncheckedIOException, IllegalArgumentException {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final String next = this.next;
+		this.next = null;
+		return next;
+	}
+
+	/**
+	 * Closes the underlying Reader.
+	 */
+	@Override
+	public void close() throws IOException {
+		this.done = true;
+		this.reader.close();
+	}
+
+	protected String read() throws IOException, IllegalArgumentException {
+		int c = this.nextChar();
+		while (c != -1 && Character.isWhitespace(c)) {
+			c = this.nextChar();
+		}
+		if (c == -1) {
+			return null;
+		}
+		this.token.setLength(0);
+		char quote = 0;
+		for (; c != -1; c = this.nextChar()) {
+			if (quote == 0 && Character.isWhitespace(c)) {
+				break;
+			} else if (c == quote) {
+				quote = 0;
+			} else if (quote == 0 && (c == '"' || c == '\'')) {
+				quote = (char)c;
+			} else if (c == '\\' && quote != '\'') {
+				c = this.nextChar();
+				if (c == -1) {
+					break;
+				}
+				this.token.append((char)c);
+			} else {
+				this.token.append((char)c);
+			}
+		}
+		if (quote != 0) {
+			throw new IllegalArgumentException("Unterminated quote " + quote);
+		}
+		return this.token.toString();
+	}
+
+	protected int nextChar() throws IOException {
+		if (this.position == this.limit) {
+			this.limit = this.reader.read(this.buffer);
+			this.position = 0;
+			if (this.limit <= 0) {
+				this.limit = 0;
+				return -1;
+			}
+		}
+		return this.buffer[this.position++];
+	}
+}
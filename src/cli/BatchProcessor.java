@@ -0,0 +1,174 @@
+package cli;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Parses and handles many Vectors of Arguments in parallel
+ * with a shared {@link cli.CommandSet CommandSet}.<br/>
+ * Each Vector is resolved by
+ * {@link cli.CommandSet#parseArguments(String...) parseArguments}
+ * followed by {@link cli.CommandSet#handleArguments(String...) handleArguments}.
+ * The Vectors are read in Chunks, which are processed by a
+ * {@link java.util.concurrent.ForkJoinPool ForkJoinPool},
+ * while only a bounded Amount of Chunks is held at once.
+ * Errors are collected for each Vector separately,
+ * so an invalid Vector does not abort the Batch.<br/>
+ * The Actions of the Flags and Parsers are called concurrently
+ * and have to be thread-safe.
+ * @author Mario Schäper
+ */
+public class BatchProcessor {
+	protected static final int DEFAULT_CHUNK_SIZE = 256;
+	protected final CommandSet commands;
+	protected final ForkJoinPool pool;
+	protected final int chunkSize;
+
+	/**
+	 * @param commands the Flags and Parsers
+	 * @param pool the Pool processing the Chunks
+	 * @param chunkSize the Amount of Vectors processed by a single Task
+	 */
+	public BatchProcessor(
+			final CommandSet commands,
+			final ForkJoinPool pool,
+			final int chunkSize) {
+		if (commands == null) {
+			throw new IllegalArgumentException("Invalid commands");
+		}
+		if (pool == null) {
+			throw new IllegalArgumentException("Invalid pool");
+		}
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException(
+					"Invalid chunk size \"" + chunkSize + "\"");
+		}
+		this.commands = commands;
+		this.pool = pool;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Uses the common {@link java.util.concurrent.ForkJoinPool ForkJoinPool}
+	 * and Chunks of 256 Vectors.
+	 * @param commands the Flags and Parsers
+	 */
+	public BatchProcessor(final CommandSet commands) {
+		this(commands, ForkJoinPool.commonPool(), BatchProcessor.DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Processes the given Vectors of Arguments in parallel
+	 * and passes their {@link cli.BatchResult Results} to the given Consumer.
+	 * <br/>
+	 * The Consumer is only called by the calling Thread,
+	 * either in the Order of the Input or as soon as a Chunk is finished.
+	 * @param vectors the Vectors of Arguments
+	 * @param results the Consumer of the Results
+	 * @param ordered whether the Results are passed in the Order of the Input
+	 * @throws InterruptedException if the calling Thread is interrupted
+	 */
+	public void process(
+			final Iterator<String[]> vectors,
+			final Consumer<BatchResult> results,
+			final boolean ordered)
+			throws InterruptedException {
+		final ExecutorCompletionService<BatchResult[]> completion =
+				new ExecutorCompletionService<>(this.pool);
+		final ArrayDeque<Future<BatchResult[]>> running = new ArrayDeque<>();
+		final int window = this.pool.getParallelism() * 2;
+		long index = 0;
+		try {
+			while (vectors.hasNext() || !running.isEmpty()) {
+				while (running.size() < window && vectors.hasNext()) {
+					final List<String[]> chunk = new ArrayList<>(this.chunkSize);
+					while (chunk.size() < this.chunkSize && vectors.hasNext()) {
+						chunk.add(vectors.next());
+					}
+					final long first = index;
+					index += chunk.size();
+					running.add(ordered
+							? this.pool.submit(() -> this.process(chunk, first))
+							: completion.submit(() -> this.process(chunk, first)));
+				}
+				final Future<BatchResult[]> finished;
+				if (ordered) {
+					finished = running.poll();
+				} else {
+					finished = completion.take();
+					running.remove(finished);
+				}
+				for (BatchResult result : BatchProcessor.get(finished)) {
+					results.accept(result);
+				}
+			}
+		} finally {
+			for (Future<BatchResult[]> future : running) {
+				future.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Processes the given Vectors of Arguments in parallel
+	 * and returns their {@link cli.BatchResult Results}
+	 * in the Order of the Input.
+	 * @param vectors the Vectors of Arguments
+	 * @return the Results
+	 * @throws InterruptedException if the calling Thread is interrupted
+	 */
+	public List<BatchResult> process(final List<String[]> vectors)
+			throws InterruptedException {
+		final List<BatchResult> results = new ArrayList<>(vectors.size());
+		this.process(vectors.iterator(), results::add, true);
+		return results;
+	}
+
+	/**
+	 * Parses and handles a single Vector of Arguments.
+	 * @param index the Position of the Vector in the Input
+	 * @param args the Arguments
+	 * @return the Result
+	 */
+	public BatchResult process(final long index, final String[] args) {
+		try {
+			return new BatchResult(
+					index,
+					args,
+					this.commands.handleArguments(
+							this.commands.parseArguments(args)),
+					null);
+		} catch (final RuntimeException e) {
+			return new BatchResult(index, args, null, e);
+		}
+	}
+
+	protected BatchResult[] process(
+			final List<String[]> chunk,
+			final long first) {
+		final BatchResult[] results = new BatchResult[chunk.size()];
+		for (int i = 0; i < results.length; i++) {
+			results[i] = this.process(first + i, chunk.get(i));
+		}
+		return results;
+	}
+
+	protected static BatchResult[] get(final Future<BatchResult[]> future)
+			throws InterruptedException {
+		try {
+			return future.get();
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof Error) {
+				throw (Error)e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+}
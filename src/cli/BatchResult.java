@@ -0,0 +1,75 @@
+package cli;
+
+/**
+ * The Result of Parsing and Handling a single Vector of Arguments
+ * by a {@link cli.BatchProcessor BatchProcessor}.<br/>
+ * Contains either the Arguments, that could not be resolved,
+ * or the Exception, that aborted the Vector.
+ * @author Mario Schäper
+ */
+public class BatchResult {
+	protected final long index;
+	protected final String[] args;
+	protected final String[] ignoredArgs;
+	protected final RuntimeException error;
+
+	/**
+	 * @param index the Position of the Vector in the Input
+	 * @param args the Arguments
+	 * @param ignoredArgs the Arguments, that could not be resolved,
+	 * or <b>null</b> if an Error occured
+	 * @param error the Error or <b>null</b> if there was none
+	 */
+	public BatchResult(
+			final long index,
+			final String[] args,
+			final String[] ignoredArgs,
+			final RuntimeException error) {
+		this.index = index;
+		this.args = args;
+		this.ignoredArgs = ignoredArgs;
+		this.error = error;
+	}
+
+	/**
+	 * Returns the Position of the Vector in the Input.
+	 * @return the Position
+	 */
+	public long getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * Returns the Arguments of the Vector.
+	 * @return the Arguments
+	 */
+	public String[] getArgs() {
+		return this.args;
+	}
+
+	/**
+	 * Returns the Arguments, that could not be resolved,
+	 * or <b>null</b> if an Error occured.
+	 * @return the leftover Arguments or null
+	 */
+	public String[] getIgnoredArgs() {
+		return this.ignoredArgs;
+	}
+
+	/**
+	 * Returns the Error, that aborted the Vector,
+	 * or <b>null</b> if there was none.
+	 * @return the Error or null
+	 */
+	public RuntimeException getError() {
+		return this.error;
+	}
+
+	/**
+	 * Returns, whether the Vector was handled without an Error.
+	 * @return whether there was no Error
+	 */
+	public boolean isSuccess() {
+		return this.error == null;
+	}
+}
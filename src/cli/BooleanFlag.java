@@ -0,0 +1,127 @@
+package cli;
+
+/**
+ * A {@link cli.TypedFlag TypedFlag}, whose Action is invoked
+ * with its single Value converted into a boolean.<br/>
+ * Accepts the Values described by
+ * {@link cli.Values#parseBoolean(String, int, int) Values.parseBoolean}.
+ * @author Mario Schäper
+ */
+public class BooleanFlag extends TypedFlag<BooleanFlag.BooleanConsumer> {
+
+	/**
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 * @param valueSeparator separation of Key and Value
+	 * (e.g. "=" -> "--options=value")
+	 * @param allowMultiple whether multiple Occurences should be possible
+	 */
+	public BooleanFlag(
+			final String name,
+			final BooleanConsumer action,
+			final String valueSeparator,
+			final boolean allowMultiple) {
+		super(name, action, valueSeparator, allowMultiple);
+	}
+
+	/**
+	 * Uses the default Value for<ul style="list-style:none;">
+	 * <li><b>allowMultiple</b> whether multiple Occurences
+	 * should be possible</li>
+	 * </ul>
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 * @param valueSeparator separation of Key and Value
+	 * (e.g. "=" -> "--options=value")
+	 */
+	public BooleanFlag(
+			final String name,
+			final BooleanConsumer action,
+			final String valueSeparator) {
+		this(name, action, valueSeparator, Flag.defaultAllowMultiple);
+	}
+
+	/**
+	 * Uses the default Value for<ul style="list-style:none;">
+	 * <li><b>allowMultiple</b> whether multiple Occurences
+	 * should be possible</li>
+	 * <li><b>valueSeparator</b> separation of Key and Value
+	 * (e.g. "=" -> "--options=value")</li>
+	 * </ul>
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 */
+	public BooleanFlag(final String name, final BooleanConsumer action) {
+		this(name, action, Flag.defaultValueSeparator);
+	}
+
+	/**
+	 * Determines the Action, that is called with the converted Value,
+	 * when a Occurence of this Flag is handled.
+	 * @param action the Action
+	 */
+	public void setBooleanAction(final BooleanConsumer action) {
+		this.setTypedAction(action);
+	}
+
+	/**
+	 * Returns the Action, that is called with the converted Value,
+	 * when a Occurence of this Flag is handled.
+	 * @return the Action
+	 */
+	public BooleanConsumer getBooleanAction() {
+		return this.typedAction;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws ValueFormatException if the Value is not a boolean
+	 */
+	@Override
+	protected void accept(final String source, final int start, final int end) {
+		this.typedAction.accept(Values.parseBoolean(source, start, end));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int checkValue(
+			final String source,
+			final int start,
+			final int end) {
+		return Values.checkBoolean(source, start, end);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected String getValueType() {
+		return "boolean";
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Object clone() {
+		return new BooleanFlag(
+				this.name,
+				this.typedAction,
+				this.valueSeparator,
+				this.allowMultiple);
+	}
+
+	/**
+	 * An Action, that accepts a boolean without boxing it.
+	 */
+	@FunctionalInterface
+	public static interface BooleanConsumer {
+		/**
+		 * Performs this Action on the given Value.
+		 * @param value the Value
+		 */
+		void accept(boolean value);
+	}
+}
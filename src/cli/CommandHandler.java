@@ -2,41 +2,70 @@ package cli;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.ServiceConfigurationError;
 
 /**
- * Static Class for Parsing and Handling Arguments of a CLI Input.
+ * Static Class for Parsing and Handling Arguments of a CLI Input.<br/>
+ * Its Methods are Adapters to {@link cli.CommandSet CommandSet},
+ * which should be preferred, when Arguments are handled
+ * by multiple Threads or with different Flags and Parsers,
+ * and to {@link cli.CommandRegistry CommandRegistry},
+ * when the Flags and Parsers change at Runtime.<br/>
+ * <b>Breaking Change:</b> the default Flags and Parsers are copied
+ * and indexed, when they are set, so {@link #getFlags()} and
+ * {@link #getParsers()} return unmodifiable Lists. Earlier Versions
+ * returned the set Lists themselves, so Code like
+ * <em>CommandHandler.getFlags().add(flag)</em> now throws an
+ * UnsupportedOperationException and has to pass the extended List
+ * to {@link #setFlags(List)} instead.
  * @author Mario Schäper
  */
 public class CommandHandler {
-	protected static List<Flag> flags = new ArrayList<>();
-	protected static List<Parser> parsers = new ArrayList<>();
+	protected static volatile List<Flag> flags = Collections.emptyList();
+	protected static volatile List<Parser> parsers = Collections.emptyList();
+	protected static volatile int responseFiles = -1;
+	protected static volatile CommandSet commands = CommandSet.of(
+			CommandHandler.flags, CommandHandler.parsers);
 
 	/**
 	 * Sets the {@link cli.Flag Flags}, that are defaultly
-	 * used for Parsing and Handling.
+	 * used for Parsing and Handling.<br/>
+	 * They are copied and indexed once here, so later Changes to the List
+	 * are not taken into Account.
 	 * @param flags the Flags
+	 * @throws IllegalArgumentException if the Flags are invalid
+	 * or ambiguous
 	 */
-	public static void setFlags(final List<Flag> flags) {
+	public static synchronized void setFlags(final List<Flag> flags)
+			throws IllegalArgumentException {
 		if (flags == null) {
 			throw new IllegalArgumentException("Invalid flags");
 		}
-		CommandHandler.flags = flags;
+		final List<Flag> copy =
+				Collections.unmodifiableList(new ArrayList<>(flags));
+		CommandHandler.commands = CommandSet.of(
+				copy, CommandHandler.parsers, CommandHandler.builder());
+		CommandHandler.flags = copy;
 	}
 
 	/**
 	 * Sets the {@link cli.Flag Flags}, that are defaultly
 	 * used for Parsing and Handling.
 	 * @param flags the Flags
+	 * @throws IllegalArgumentException if the Flags are invalid
+	 * or ambiguous
 	 */
-	public static void setFlags(final Flag...flags) {
-		CommandHandler.flags = Arrays.asList(flags);
+	public static void setFlags(final Flag...flags)
+			throws IllegalArgumentException {
+		CommandHandler.setFlags(Arrays.asList(flags));
 	}
 
 	/**
 	 * Returns the {@link cli.Flag Flags}, that are defaultly
 	 * used for Parsing and Handling.
-	 * @return the default Flags
+	 * @return the unmodifiable default Flags
 	 */
 	public static List<Flag> getFlags() {
 		return CommandHandler.flags;
@@ -44,35 +73,106 @@ public class CommandHandler {
 
 	/**
 	 * Sets the {@link cli.Parser Parsers}, that are defaultly used for Parsing.
+	 * <br/>
+	 * They are copied and indexed once here, so later Changes to the List
+	 * are not taken into Account.
 	 * @param parsers the Parser
+	 * @throws IllegalArgumentException if a Parser is invalid
 	 */
-	public static void setParsers(final List<Parser> parsers) {
+	public static synchronized void setParsers(final List<Parser> parsers)
+			throws IllegalArgumentException {
 		if (parsers == null) {
 			throw new IllegalArgumentException("Invalid parser");
 		}
-		CommandHandler.parsers = parsers;
+		final List<Parser> copy =
+				Collections.unmodifiableList(new ArrayList<>(parsers));
+		CommandHandler.commands = CommandSet.of(
+				CommandHandler.flags, copy, CommandHandler.builder());
+		CommandHandler.parsers = copy;
 	}
 
 	/**
 	 * Sets the {@link cli.Parser Parsers}, that are defaultly used for Parsing.
 	 * @param parsers the Parser
+	 * @throws IllegalArgumentException if a Parser is invalid
 	 */
-	public static void setParsers(final Parser...parsers) {
-		CommandHandler.parsers = Arrays.asList(parsers);
+	public static void setParsers(final Parser...parsers)
+			throws IllegalArgumentException {
+		CommandHandler.setParsers(Arrays.asList(parsers));
 	}
 
 	/**
 	 * Returns the {@link cli.Parser Parsers}, that are defaultly
 	 * used for Parsing.
-	 * @return the default Parsers
+	 * @return the unmodifiable default Parsers
 	 */
 	public static List<Parser> getParsers() {
 		return CommandHandler.parsers;
 	}
 
+	/**
+	 * Sets the {@link cli.Flag Flags} and {@link cli.Parser Parsers},
+	 * that are defaultly used for Parsing and Handling,
+	 * to those of all {@link cli.CommandPlugin CommandPlugins},
+	 * that are provided to the ClassLoader of the current Thread.
+	 * @throws ServiceConfigurationError if a Plugin can not be loaded
+	 * @throws IllegalArgumentException if two Flags or two Parsers
+	 * of the Plugins are ambiguous
+	 */
+	public static synchronized void loadPlugins()
+			throws ServiceConfigurationError, IllegalArgumentException {
+		final CommandSet commands =
+				CommandHandler.builder().addPlugins().build();
+		CommandHandler.commands = commands;
+		CommandHandler.flags = commands.getFlags();
+		CommandHandler.parsers = commands.getParsers();
+	}
+
+	/**
+	 * Determines, whether Response Files (e.g. "@args.txt") are expanded
+	 * in the Arguments of all Methods of this Class.
+	 * @param maxDepth the maximum Depth of nested Response Files
+	 * or <b>-1</b> to not expand them, which is the Default
+	 * @throws IllegalArgumentException if the Depth is invalid
+	 * @see cli.CommandSet.Builder#setResponseFiles(int)
+	 */
+	public static synchronized void setResponseFiles(final int maxDepth)
+			throws IllegalArgumentException {
+		if (maxDepth < -1) {
+			throw new IllegalArgumentException(
+					"Invalid maximum depth \"" + maxDepth + "\"");
+		}
+		CommandHandler.commands =
+				CommandHandler.commands.withResponseFiles(maxDepth);
+		CommandHandler.responseFiles = maxDepth;
+	}
+
+	/**
+	 * Returns the maximum Depth of nested Response Files, that are expanded
+	 * in the Arguments, or <b>-1</b> if they are not expanded.
+	 * @return the maximum Depth or -1
+	 */
+	public static int getResponseFiles() {
+		return CommandHandler.responseFiles;
+	}
+
+	/**
+	 * Returns a {@link cli.CommandSet.Builder Builder}
+	 * with the Settings of this Class.
+	 * @return the Builder
+	 */
+	protected static CommandSet.Builder builder() {
+		return CommandSet.builder().setResponseFiles(CommandHandler.responseFiles);
+	}
+
 	/**
 	 * Resolves all {@link cli.Flag Flags} and their Values
 	 * in the given Arguments.<br/>
+	 * The Flags are indexed at every Call, so Callers handling Arguments
+	 * repeatedly with the same Flags should build a
+	 * {@link cli.FlagIndex FlagIndex} once and use
+	 * {@link #handleArguments(FlagIndex, String...)}
+	 * or {@link cli.CommandSet#of(FlagIndex)}.<br/>
 	 * Returns the leftover Arguments.
 	 * @param flags the Flags
 	 * @param args the Arguments
@@ -84,58 +184,70 @@ public class CommandHandler {
 			final List<Flag> flags,
 			final String...args)
 			throws IllegalArgumentException {
-		final ArrayList<String> ignoredArgs = new ArrayList<>();
-		final ArrayList<Flag> unusedFlags = new ArrayList<>();
-		unusedFlags.addAll(flags);
-		for (int i = 0;i < args.length; i++) {
-			String arg = args[i];
-			final Flag flag = CommandHandler.getFlagByString(arg, unusedFlags);
-			if (flag != null) {
-				final String separator = flag.getValueSeparator();
-				final String[] values = new String[flag.getValues()];
-				for (int j = 0; j < flag.getValues(); j++) {
-					if (separator.equals(" ")) {
-						if (args.length > ++i) {
-							values[j] = args[i];
-						} else {
-							throw new IllegalArgumentException(
-									flag.getName() + " expects " + flag.getValues() + " parameters");
-						}
-					} else {
-						if (!arg.contains(separator)) {
-							throw new IllegalArgumentException(
-									flag.getName() + " expects " + flag.getValues() + " parameters");
-						}
-						arg = arg.substring(1 + (j == 0
-								? flag.getName().length()
-								: arg.indexOf(separator)));
-						final int index = arg.indexOf(separator);
-						if (index == -1) {
-							values[j] = arg;
-						} else {
-							values[j] = arg.substring(0, index);
-							if (j + 1 == flag.getValues()) {
-								throw new IllegalArgumentException(
-										"Invalid amount of values supplied for the flag \""
-												+ flag.getName() + "\"");
-							}
-						}
-					}
-				}
-				if (!flag.allowMultiple()) {
-					unusedFlags.remove(flag);
-				}
-				flag.getAction().accept(values);
-			} else {
-				ignoredArgs.add(arg);
-			}
+		return CommandSet.of(flags, Collections.<Parser>emptyList(),
+				CommandHandler.builder())
+				.handleArguments(args);
+	}
+
+	/**
+	 * Resolves all {@link cli.Flag Flags} of the given
+	 * {@link cli.FlagIndex FlagIndex} and their Values
+	 * in the given Arguments.<br/>
+	 * Uses the CommandSet kept by the FlagIndex
+	 * (see {@link cli.CommandSet#of(FlagIndex)}), so the Flags
+	 * are only prepared once for all Calls with the same FlagIndex.<br/>
+	 * Returns the leftover Arguments.
+	 * @param index the indexed Flags
+	 * @param args the Arguments
+	 * @return the Arguments, that could not be resolved
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	public static String[] handleArguments(
+			final FlagIndex index,
+			final String...args)
+			throws IllegalArgumentException {
+		final CommandSet commands = CommandSet.of(index);
+		final int responseFiles = CommandHandler.responseFiles;
+		if (responseFiles < 0) {
+			return commands.handleArguments(args);
 		}
+		final List<String> ignoredArgs = new ArrayList<>();
+		commands.handleArguments(
+				new ResponseFileReader(Arrays.asList(args).iterator(), responseFiles),
+				ignoredArgs::add);
 		return ignoredArgs.toArray(new String[ignoredArgs.size()]);
 	}
 
+	/**
+	 * Resolves all Flags and their Values in the given Arguments
+	 * with the given {@link cli.ArgumentHandler ArgumentHandler},
+	 * such as a Class generated from an {@link cli.Options Options} Class.<br/>
+	 * Returns the leftover Arguments.
+	 * @param handler the ArgumentHandler
+	 * @param args the Arguments
+	 * @return the Arguments, that could not be resolved
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	public static String[] handleArguments(
+			final ArgumentHandler handler,
+			final String...args)
+			throws IllegalArgumentException {
+		if (handler == null) {
+			throw new IllegalArgumentException("Invalid handler");
+		}
+		return handler.handleArguments(args);
+	}
+
 	/**
 	 * Resolves all {@link cli.Flag Flags} and their Values
 	 * in the given Arguments.<br/>
+	 * The Flags are indexed at every Call, so Callers handling Arguments
+	 * repeatedly with the same Flags should build a
+	 * {@link cli.FlagIndex FlagIndex} once and use
+	 * {@link #handleArguments(FlagIndex, String...)}
+	 * or {@link cli.CommandSet#of(FlagIndex)}.<br/>
 	 * Returns the leftover Arguments.
 	 * @param flags the Flags
 	 * @param args the Arguments
@@ -161,7 +273,7 @@ public class CommandHandler {
 	 */
 	public static String[] handleArguments(final String...args)
 			throws IllegalArgumentException {
-		return CommandHandler.handleArguments(CommandHandler.flags, args);
+		return CommandHandler.commands.handleArguments(args);
 	}
 
 	/**
@@ -169,6 +281,11 @@ public class CommandHandler {
 	 * Takes Account for all {@link cli.Flag Flags} given.
 	 * Those should be all Flags, that may appear in the Arguments,
 	 * including Flags, that are only handled by Parsers<br/>
+	 * The Parsers are resolved in the Order described at
+	 * {@link cli.CommandSet#parseArguments(String...)}.<br/>
+	 * The Flags and Parsers are indexed at every Call, so Callers parsing
+	 * Arguments repeatedly with the same Flags and Parsers should build
+	 * a CommandSet once by {@link cli.CommandSet#of(List, List)}.<br/>
 	 * Returns the resulting Arguments.
 	 * @param parsers the Parsers
 	 * @param flags the Flags
@@ -182,48 +299,8 @@ public class CommandHandler {
 			final List<Flag> flags,
 			final String...args)
 			throws IllegalArgumentException {
-		String[] newArgs = Arrays.copyOf(args, args.length);
-		for (int i = newArgs.length - 1; i >= 0; i--) {
-			final Parser parser = CommandHandler.getParserByString(
-					newArgs[i], parsers);
-			if (parser == null) {
-				continue;
-			}
-			final ArrayList<String> toParse = new ArrayList<>();
-			int parsValues = 0;
-			for (int j = i + 1;j < newArgs.length;j++) {
-				if (newArgs[j].equals(parser.getSuffix())
-						|| (parser.getSuffix() == null
-							&& parsValues == parser.getValues())) {
-					break;
-				}
-				toParse.add(newArgs[j]);
-				final Flag flag = CommandHandler.getFlagByString(newArgs[j], flags);
-				if (flag != null) {
-					if (flag.getValueSeparator().equals(" ")) {
-						int values = flag.getValues();
-						if (j + values >= newArgs.length) {
-							throw new IllegalArgumentException(
-									"Invalid formatting");
-						}
-						while(--values >= 0) {
-							toParse.add(newArgs[++j]);
-						}
-					}
-				} else {
-					parsValues++;
-				}
-			}
-			newArgs[i] = parser.getAction().apply(
-					toParse.toArray(new String[toParse.size()]));
-			final int offset = toParse.size()
-					+ (parser.getSuffix() == null ? 0 : 1);
-			for (int j = i + offset + 1;j < newArgs.length; j++) {
-				newArgs[j - offset] = newArgs[j];
-			}
-			newArgs = Arrays.copyOf(newArgs, newArgs.length - offset);
-		}
-		return newArgs;
+		return CommandSet.of(flags, parsers, CommandHandler.builder())
+				.parseArguments(args);
 	}
 
 	/**
@@ -231,6 +308,11 @@ public class CommandHandler {
 	 * Takes Account for all {@link cli.Flag Flags} given.
 	 * Those should be all Flags, that may appear in the Arguments,
 	 * including Flags, that are only handled by Parsers<br/>
+	 * The Parsers are resolved in the Order described at
+	 * {@link cli.CommandSet#parseArguments(String...)}.<br/>
+	 * The Flags and Parsers are indexed at every Call, so Callers parsing
+	 * Arguments repeatedly with the same Flags and Parsers should build
+	 * a CommandSet once by {@link cli.CommandSet#of(List, List)}.<br/>
 	 * Returns the resulting Arguments.
 	 * @param parsers the Parsers
 	 * @param flags the Flags
@@ -252,6 +334,8 @@ public class CommandHandler {
 	 * Resolves all default {@link cli.Parser Parsers}
 	 * in the given Arguments.<br/>
 	 * Takes Account for all default {@link cli.Flag Flags} given.<br/>
+	 * The Parsers are resolved in the Order described at
+	 * {@link cli.CommandSet#parseArguments(String...)}.<br/>
 	 * Returns the resulting Arguments.
 	 * @param args the Arguments
 	 * @return the resulting Arguments
@@ -260,10 +344,7 @@ public class CommandHandler {
 	 */
 	public static String[] parseArguments(String...args)
 			throws IllegalArgumentException {
-		return CommandHandler.parseArguments(
-				CommandHandler.parsers,
-				CommandHandler.flags,
-				args);
+		return CommandHandler.commands.parseArguments(args);
 	}
 
 	/**
@@ -292,7 +373,7 @@ public class CommandHandler {
 	 * @return the represented Flag or null
 	 */
 	public static Flag getFlagByString(final String str) {
-		return CommandHandler.getFlagByString(str, CommandHandler.flags);
+		return CommandHandler.commands.getFlagByString(str);
 	}
 
 	/**
@@ -322,6 +403,6 @@ public class CommandHandler {
 	 * @return the represented Parser or null
 	 */
 	public static Parser getParserByString(final String str) {
-		return CommandHandler.getParserByString(str, CommandHandler.parsers);
+		return CommandHandler.commands.getParserByString(str);
 	}
 }
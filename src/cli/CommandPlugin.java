@@ -0,0 +1,20 @@
+package cli;
+
+/**
+ * A Service Provider of {@link cli.Flag Flags} and {@link cli.Parser Parsers},
+ * that is discovered by the {@link java.util.ServiceLoader ServiceLoader}
+ * from the Entries in <em>META-INF/services/cli.CommandPlugin</em>.<br/>
+ * Plugins should only declare the Names and Metadata of their Commands with
+ * {@link cli.LazyFlag LazyFlags} and {@link cli.LazyParser LazyParsers}
+ * and not refer to the Classes of their Actions directly, so those are only
+ * loaded, when a matching Argument occurs.
+ * @author Mario Schäper
+ * @see cli.CommandSet.Builder#addPlugins(ClassLoader)
+ */
+public interface CommandPlugin {
+	/**
+	 * Adds the Flags and Parsers of this Plugin to the given Builder.
+	 * @param builder the Builder
+	 */
+	void define(CommandSet.Builder builder);
+}
@@ -0,0 +1,369 @@
+package cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link cli.CommandSet CommandSet}, that is defined by a local Text File
+ * and reloaded, whenever the File changes, without restarting.<br/>
+ * Each Reload reads and validates the File and builds a new CommandSet
+ * off the Hot Path, which is then published with a single atomic Swap.
+ * Calls, that are already running, keep the CommandSet they started with,
+ * and reading the current CommandSet never takes a Lock.
+ * If the File is invalid, the previous CommandSet is kept.<br/>
+ * A Change is reloaded, once the File has not changed for
+ * {@link #SETTLE_MILLIS} Milliseconds. To never read a partially written
+ * File, it should be replaced atomically by moving a new File onto it.<br/>
+ * Each Line of the File defines one of the following,
+ * with its Fields separated by Whitespace:
+ * <ul>
+ * <li><em>flag &lt;name&gt; &lt;values&gt; &lt;valueSeparator&gt;
+ * [multiple]</em>, where the valueSeparator <em>space</em>
+ * stands for Whitespace</li>
+ * <li><em>parser &lt;name&gt; &lt;values&gt; [suffix]</em></li>
+ * <li><em>dependency &lt;flag&gt; &lt;runsAfter&gt;...</em></li>
+ * </ul>
+ * Empty Lines and Lines starting with <em>#</em> are ignored.
+ * The Actions are bound by Name through {@link cli.ActionBindings
+ * ActionBindings}, so every Flag and Parser of the File must be bound,
+ * but not every Binding has to be used.
+ * @author Mario Schäper
+ */
+public class CommandRegistry implements ArgumentHandler, Closeable {
+	/** The Milliseconds without Changes, before the File is reloaded. */
+	public static final long SETTLE_MILLIS = 50;
+	protected final Path file;
+	protected final ActionBindings bindings;
+	protected final AtomicReference<CommandSet> commands;
+	protected volatile IOException lastError;
+	protected WatchService watcher;
+	protected Thread thread;
+
+	/**
+	 * Loads the Definitions of the given File.
+	 * The File is not watched, before this Registry is started.
+	 * @param file the File of the Definitions
+	 * @param bindings the Actions of the Flags and Parsers
+	 * @throws IOException if the File can not be read or is invalid
+	 */
+	public CommandRegistry(final Path file, final ActionBindings bindings)
+			throws IOException {
+		if (file == null) {
+			throw new IllegalArgumentException("Invalid file");
+		}
+		if (bindings == null) {
+			throw new IllegalArgumentException("Invalid bindings");
+		}
+		this.file = file.toAbsolutePath();
+		this.bindings = bindings;
+		this.commands = new AtomicReference<>(
+				CommandRegistry.read(this.file, bindings));
+	}
+
+	/**
+	 * Returns the current {@link cli.CommandSet CommandSet}.<br/>
+	 * The Caller keeps using the returned CommandSet,
+	 * even if the File is reloaded meanwhile.
+	 * @return the CommandSet
+	 */
+	public CommandSet getCommandSet() {
+		return this.commands.get();
+	}
+
+	/**
+	 * Returns the Error of the last Reload or <b>null</b>,
+	 * if it succeeded.
+	 * @return the Error or null
+	 */
+	public IOException getLastError() {
+		return this.lastError;
+	}
+
+	/**
+	 * Watches the File in a Background Thread and reloads it,
+	 * whenever it is created or modified, until this Registry is closed.
+	 * @return this Registry
+	 * @throws IOException if the File can not be watched
+	 * @throws IllegalStateException if this Registry is already started
+	 */
+	public synchronized CommandRegistry start()
+			throws IOException, IllegalStateException {
+		if (this.watcher != null) {
+			throw new IllegalStateException("Registry already started");
+		}
+		final WatchService watcher =
+				this.file.getFileSystem().newWatchService();
+		try {
+			this.file.getParent().register(watcher,
+					StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (final IOException e) {
+			watcher.close();
+			throw e;
+		}
+		final Thread thread = new Thread(
+				() -> this.watch(watcher), "cli-command-registry");
+		thread.setDaemon(true);
+		thread.start();
+		this.watcher = watcher;
+		this.thread = thread;
+		return this;
+	}
+
+	/**
+	 * Reads the File and publishes the new {@link cli.CommandSet CommandSet}.
+	 * <br/>
+	 * Reloads are serialized, so an older Definition never replaces
+	 * a newer one.
+	 * @return the new CommandSet
+	 * @throws IOException if the File can not be read or is invalid,
+	 * in which Case the previous CommandSet is kept
+	 */
+	public synchronized CommandSet reload() throws IOException {
+		final CommandSet commands;
+		try {
+			commands = CommandRegistry.read(this.file, this.bindings);
+		} catch (final IOException e) {
+			this.lastError = e;
+			throw e;
+		}
+		this.commands.set(commands);
+		this.lastError = null;
+		return commands;
+	}
+
+	/**
+	 * Stops watching the File and waits for the Background Thread to end.
+	 * The current {@link cli.CommandSet CommandSet} stays usable
+	 * and this Registry can be started again.
+	 * @throws IOException if the Watcher can not be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		final WatchService watcher;
+		final Thread thread;
+		synchronized (this) {
+			watcher = this.watcher;
+			thread = this.thread;
+			this.watcher = null;
+			this.thread = null;
+		}
+		if (watcher == null) {
+			return;
+		}
+		try {
+			watcher.close();
+		} finally {
+			boolean interrupted = false;
+			while (thread.isAlive()) {
+				try {
+					thread.join();
+				} catch (final InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Resolves all {@link cli.Flag Flags} and their Values
+	 * in the given Arguments with the current
+	 * {@link cli.CommandSet CommandSet}.<br/>
+	 * Returns the leftover Arguments.
+	 * @param args the Arguments
+	 * @return the Arguments, that could not be resolved
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	@Override
+	public String[] handleArguments(final String...args)
+			throws IllegalArgumentException {
+		return this.commands.get().handleArguments(args);
+	}
+
+	/**
+	 * Resolves all {@link cli.Parser Parsers} in the given Arguments
+	 * with the current {@link cli.CommandSet CommandSet}.<br/>
+	 * Returns the resulting Arguments.
+	 * @param args the Arguments
+	 * @return the resulting Arguments
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	public String[] parseArguments(final String...args)
+			throws IllegalArgumentException {
+		return this.commands.get().parseArguments(args);
+	}
+
+	/**
+	 * Reloads the File, once no Event concerning it
+	 * has occured for the Settle Time, until the Watcher is closed.
+	 * @param watcher the Watcher
+	 */
+	protected void watch(final WatchService watcher) {
+		try {
+			while (true) {
+				boolean changed = this.changed(watcher.take());
+				WatchKey key;
+				while ((key = watcher.poll(
+						CommandRegistry.SETTLE_MILLIS, TimeUnit.MILLISECONDS))
+						!= null) {
+					changed |= this.changed(key);
+				}
+				if (changed) {
+					try {
+						this.reload();
+					} catch (final IOException e) {
+						// kept as lastError, the previous CommandSet stays in use
+					}
+				}
+			}
+		} catch (final InterruptedException | ClosedWatchServiceException e) {
+			return;
+		}
+	}
+
+	protected boolean changed(final WatchKey key) {
+		boolean changed = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+					|| this.file.getFileName().equals(event.context());
+		}
+		key.reset();
+		return changed;
+	}
+
+	/**
+	 * Reads the Definitions of the given File
+	 * and builds a {@link cli.CommandSet CommandSet} of them.
+	 * @param file the File
+	 * @param bindings the Actions of the Flags and Parsers
+	 * @return the CommandSet
+	 * @throws IOException if the File can not be read or is invalid
+	 */
+	protected static CommandSet read(
+			final Path file,
+			final ActionBindings bindings)
+			throws IOException {
+		final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		final CommandSet.Builder builder = CommandSet.builder();
+		final Map<String, Flag> flags = new HashMap<>();
+		for (int i = 0; i < lines.size(); i++) {
+			final String line = lines.get(i).trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			try {
+				CommandRegistry.define(
+						builder, flags, line.split("\\s+"), bindings);
+			} catch (final IllegalArgumentException e) {
+				throw new IOException(
+						"Invalid definition " + file + ":" + (i + 1), e);
+			}
+		}
+		try {
+			return builder.build();
+		} catch (final IllegalArgumentException e) {
+			throw new IOException("Invalid definitions " + file, e);
+		}
+	}
+
+	protected static void define(
+			final CommandSet.Builder builder,
+			final Map<String, Flag> flags,
+			final String[] fields,
+			final ActionBindings bindings)
+			throws IllegalArgumentException {
+		switch (fields[0]) {
+			case "flag": {
+				if (fields.length < 4 || fields.length > 5
+						|| (fields.length == 5 && !fields[4].equals("multiple"))) {
+					throw new IllegalArgumentException("Invalid flag");
+				}
+				final Consumer<String[]> action = bindings.getFlagAction(fields[1]);
+				if (action == null) {
+					throw new IllegalArgumentException(
+							"Unbound flag \"" + fields[1] + "\"");
+				}
+				final Flag flag = new Flag(
+						fields[1],
+						action,
+						fields[3].equals("space") ? " " : fields[3],
+						CommandRegistry.values(fields[2]),
+						fields.length == 5);
+				flags.putIfAbsent(flag.getName(), flag);
+				builder.addFlag(flag);
+				break;
+			}
+			case "parser": {
+				if (fields.length < 3 || fields.length > 4) {
+					throw new IllegalArgumentException("Invalid parser");
+				}
+				final Function<String[], String> action =
+						bindings.getParserAction(fields[1]);
+				if (action == null) {
+					throw new IllegalArgumentException(
+							"Unbound parser \"" + fields[1] + "\"");
+				}
+				builder.addParser(new Parser(
+						fields[1],
+						action,
+						CommandRegistry.values(fields[2]),
+						fields.length == 4 ? fields[3] : null));
+				break;
+			}
+			case "dependency": {
+				if (fields.length < 3) {
+					throw new IllegalArgumentException("Invalid dependency");
+				}
+				final Flag[] runsAfter = new Flag[fields.length - 2];
+				for (int i = 0; i < runsAfter.length; i++) {
+					runsAfter[i] = CommandRegistry.flag(flags, fields[i + 2]);
+				}
+				builder.addDependency(
+						CommandRegistry.flag(flags, fields[1]), runsAfter);
+				break;
+			}
+			default:
+				throw new IllegalArgumentException(
+						"Invalid definition \"" + fields[0] + "\"");
+		}
+	}
+
+	protected static int values(final String values)
+			throws IllegalArgumentException {
+		try {
+			return Integer.parseInt(values);
+		} catch (final NumberFormatException e) {
+			throw new IllegalArgumentException(
+					"Invalid values \"" + values + "\"", e);
+		}
+	}
+
+	protected static Flag flag(final Map<String, Flag> flags, final String name)
+			throws IllegalArgumentException {
+		final Flag flag = flags.get(name);
+		if (flag == null) {
+			throw new IllegalArgumentException("Unknown flag \"" + name + "\"");
+		}
+		return flag;
+	}
+}
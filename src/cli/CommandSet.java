@@ -0,0 +1,1846 @@
+package cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An immutable Set of {@link cli.Flag Flags} and {@link cli.Parser Parsers}
+ * for Parsing and Handling Arguments of a CLI Input.<br/>
+ * It is validated and indexed once when built by a
+ * {@link cli.CommandSet.Builder Builder} and does not depend on any static
+ * State, so a single Instance can be used by many Threads concurrently
+ * without Locking.<br/>
+ * The contained Flags and Parsers must not be modified afterwards.
+ * @author Mario Schäper
+ */
+public class CommandSet implements ArgumentHandler {
+	protected final List<Flag> flags;
+	protected final List<Parser> parsers;
+	protected final FlagIndex index;
+	protected final Map<String, Parser> parserIndex;
+	protected final Map<Flag, Integer> positions;
+	protected final Map<String, Flag> names;
+	protected final int[][] dependencies;
+	protected final int[] order;
+	protected final Metrics metrics;
+	protected final Occurrences handler;
+	protected final int[] shortFlags;
+	protected final int maxValues;
+	protected final int responseFiles;
+	protected volatile SuggestionIndex suggestionIndex;
+
+	protected CommandSet(
+			final Builder builder,
+			final FlagIndex index,
+			final Map<String, Parser> parserIndex)
+			throws IllegalArgumentException {
+		this(
+				index,
+				new ArrayList<>(builder.parsers),
+				parserIndex,
+				CommandSet.dependencies(builder, index),
+				null,
+				builder.metricsEnabled,
+				builder.shortFlagClusters,
+				builder.responseFiles);
+	}
+
+	/**
+	 * @param index the indexed Flags
+	 * @param parsers the Parsers
+	 * @param parserIndex the Parsers by their Name
+	 * @param dependencies the Positions of the Flags, each Flag depends on,
+	 * or <b>null</b> if it depends on none
+	 * @param order the Positions of the Flags sorted by their Dependencies
+	 * or <b>null</b> to sort them
+	 * @param metricsEnabled whether Metrics are recorded
+	 * @param shortFlagClusters whether Clusters of short Flags are expanded
+	 * @param responseFiles the maximum Depth of nested Response Files
+	 * or <b>-1</b> if they are not expanded
+	 * @throws IllegalArgumentException if the Dependencies are cyclic
+	 */
+	protected CommandSet(
+			final FlagIndex index,
+			final List<Parser> parsers,
+			final Map<String, Parser> parserIndex,
+			final int[][] dependencies,
+			final int[] order,
+			final boolean metricsEnabled,
+			final boolean shortFlagClusters,
+			final int responseFiles)
+			throws IllegalArgumentException {
+		this.flags = Collections.unmodifiableList(Arrays.asList(index.flags));
+		this.parsers = Collections.unmodifiableList(parsers);
+		this.index = index;
+		this.parserIndex = parserIndex;
+		this.dependencies = dependencies;
+		final Map<Flag, Integer> positions = new IdentityHashMap<>();
+		final Map<String, Flag> names = new HashMap<>();
+		for (int i = 0; i < index.size(); i++) {
+			positions.put(index.getFlag(i), i);
+			names.putIfAbsent(index.getFlag(i).getName(), index.getFlag(i));
+		}
+		this.positions = positions;
+		this.names = names;
+		this.order = order == null ? this.sortDependencies() : order;
+		this.metrics = metricsEnabled ? new Metrics(index, this.parsers) : null;
+		this.handler = this.metrics == null
+				? (flag, sources, bounds, count) ->
+						this.index.getFlag(flag).handle(sources, bounds, count)
+				: this.metrics::handle;
+		this.shortFlags = shortFlagClusters ? CommandSet.shortFlags(index) : null;
+		int maxValues = 0;
+		for (Flag flag : index.flags) {
+			maxValues = Math.max(maxValues, flag.getValues());
+		}
+		this.maxValues = maxValues;
+		this.responseFiles = responseFiles;
+	}
+
+	/**
+	 * Returns a new {@link cli.CommandSet.Builder Builder}.
+	 * @return the Builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Creates a CommandSet of the given {@link cli.Flag Flags}
+	 * and {@link cli.Parser Parsers}.<br/>
+	 * Like the static Methods of the {@link cli.CommandHandler CommandHandler},
+	 * the first of multiple Parsers with the same Name is used.
+	 * @param flags the Flags
+	 * @param parsers the Parsers
+	 * @return the CommandSet
+	 * @throws IllegalArgumentException if the Flags or Parsers are invalid
+	 */
+	public static CommandSet of(
+			final List<Flag> flags,
+			final List<Parser> parsers)
+			throws IllegalArgumentException {
+		return CommandSet.of(flags, parsers, new Builder());
+	}
+
+	/**
+	 * Returns a CommandSet of the {@link cli.Flag Flags} of the given
+	 * {@link cli.FlagIndex FlagIndex} without {@link cli.Parser Parsers}.
+	 * <br/>
+	 * It is built, when it is requested for the first Time, and kept
+	 * by the FlagIndex, so repeated Calls neither index the Flags
+	 * nor build a CommandSet again.
+	 * @param index the indexed Flags
+	 * @return the CommandSet
+	 */
+	public static CommandSet of(final FlagIndex index) {
+		if (index == null) {
+			throw new IllegalArgumentException("Invalid flags");
+		}
+		CommandSet commands = index.commands;
+		if (commands == null) {
+			// building it twice is harmless, as it is immutable
+			commands = new CommandSet(
+					new Builder(),
+					index,
+					Collections.<String, Parser>emptyMap());
+			index.commands = commands;
+		}
+		return commands;
+	}
+
+	/**
+	 * Creates a CommandSet of the given {@link cli.Flag Flags}
+	 * and {@link cli.Parser Parsers} with the Settings
+	 * of the given {@link cli.CommandSet.Builder Builder}.
+	 * @param flags the Flags
+	 * @param parsers the Parsers
+	 * @param builder the Builder without Flags and Parsers
+	 * @return the CommandSet
+	 * @throws IllegalArgumentException if the Flags or Parsers are invalid
+	 */
+	protected static CommandSet of(
+			final List<Flag> flags,
+			final List<Parser> parsers,
+			final Builder builder)
+			throws IllegalArgumentException {
+		if (parsers == null) {
+			throw new IllegalArgumentException("Invalid parser");
+		}
+		final FlagIndex index = new FlagIndex(flags);
+		final Map<String, Parser> parserIndex = new HashMap<>();
+		for (Parser parser : parsers) {
+			if (parser == null) {
+				throw new IllegalArgumentException("Invalid parser");
+			}
+			parserIndex.putIfAbsent(parser.getName(), parser);
+		}
+		builder.parsers.addAll(parsers);
+		return new CommandSet(builder, index, parserIndex);
+	}
+
+	/**
+	 * Returns the {@link cli.Flag Flags} of this CommandSet.
+	 * @return the unmodifiable Flags
+	 */
+	public List<Flag> getFlags() {
+		return this.flags;
+	}
+
+	/**
+	 * Returns the {@link cli.Parser Parsers} of this CommandSet.
+	 * @return the unmodifiable Parsers
+	 */
+	public List<Parser> getParsers() {
+		return this.parsers;
+	}
+
+	/**
+	 * Returns the {@link cli.FlagIndex FlagIndex} of this CommandSet.
+	 * @return the indexed Flags
+	 */
+	public FlagIndex getFlagIndex() {
+		return this.index;
+	}
+
+	/**
+	 * Returns, whether Clusters of short {@link cli.Flag Flags}
+	 * (e.g. "-xvf") are expanded.
+	 * @return whether Clusters are expanded
+	 */
+	public boolean isShortFlagClusters() {
+		return this.shortFlags != null;
+	}
+
+	/**
+	 * Returns the maximum Depth of nested Response Files, that are expanded
+	 * in the Arguments, or <b>-1</b> if they are not expanded.
+	 * @return the maximum Depth or -1
+	 * @see cli.CommandSet.Builder#setResponseFiles(int)
+	 */
+	public int getResponseFiles() {
+		return this.responseFiles;
+	}
+
+	/**
+	 * Returns a Copy of this CommandSet, that expands Response Files
+	 * up to the given Depth, with new {@link cli.Metrics Metrics}.
+	 * @param maxDepth the maximum Depth of nested Response Files
+	 * or <b>-1</b> to not expand them
+	 * @return the Copy
+	 */
+	protected CommandSet withResponseFiles(final int maxDepth) {
+		return new CommandSet(
+				this.index,
+				new ArrayList<>(this.parsers),
+				this.parserIndex,
+				this.dependencies,
+				this.order,
+				this.metrics != null,
+				this.shortFlags != null,
+				maxDepth);
+	}
+
+	/**
+	 * Returns the {@link cli.Metrics Metrics} of this CommandSet
+	 * or <b>null</b> if they are not enabled.
+	 * @return the Metrics or null
+	 */
+	public Metrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * Resolves all {@link cli.Flag Flags} and their Values
+	 * in the given Arguments.<br/>
+	 * Returns the leftover Arguments.
+	 * @param args the Arguments
+	 * @return the Arguments, that could not be resolved
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	@Override
+	public String[] handleArguments(final String...args)
+			throws IllegalArgumentException {
+		final ParseContext context = ParseContext.acquireLocal();
+		try {
+			this.handle(this.arguments(context.cursor(args)),
+					context.ignoredArgs, context);
+			return context.ignoredArgs.toArray();
+		} finally {
+			context.releaseLocal();
+		}
+	}
+
+	/**
+	 * Resolves all {@link cli.Flag Flags} and their Values
+	 * in the given Arguments with the Buffers of the given
+	 * {@link cli.ParseContext ParseContext}.<br/>
+	 * Returns the leftover Arguments as a View, that is only valid
+	 * until the Context is used again.<br/>
+	 * If the Context has {@link cli.Diagnostics Diagnostics}, invalid
+	 * Occurences of Flags, including Values, that typed Flags can not
+	 * convert, are recorded and skipped instead of thrown.
+	 * @param context the Context
+	 * @param args the Arguments
+	 * @return the Arguments, that could not be resolved
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid and the Context has no Diagnostics
+	 * @throws IllegalStateException if the Context is in Use
+	 */
+	public List<String> handleArguments(
+			final ParseContext context,
+			final String...args)
+			throws IllegalArgumentException, IllegalStateException {
+		context.acquire();
+		try {
+			context.ignoredArgs.clear();
+			this.handle(this.arguments(context.cursor(args)),
+					context.ignoredArgs, context);
+			return context.getIgnoredArgs();
+		} finally {
+			context.release();
+		}
+	}
+
+	/**
+	 * Resolves all {@link cli.Flag Flags} and their Values
+	 * in the given Arguments, while they are read.<br/>
+	 * The Action of each Flag is called as soon as its Values are read
+	 * and the leftover Arguments are passed to the given Consumer,
+	 * so only the Values of a single Flag are held at once.
+	 * @param args the Arguments
+	 * @param ignored the Consumer of the Arguments,
+	 * that could not be resolved
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	public void handleArguments(
+			final Iterator<String> args,
+			final Consumer<String> ignored)
+			throws IllegalArgumentException {
+		final ParseContext context = ParseContext.acquireLocal();
+		try {
+			this.handle(this.arguments(args), ignored, context);
+		} finally {
+			context.releaseLocal();
+		}
+	}
+
+	protected void handle(
+			final Iterator<String> args,
+			final Consumer<String> ignored,
+			final ParseContext context)
+			throws IllegalArgumentException {
+		if (this.metrics == null) {
+			this.resolve(args, ignored, this.handler, context);
+			return;
+		}
+		final long start = System.nanoTime();
+		this.metrics.handleCounters.invocations.increment();
+		try {
+			this.resolve(args, ignored, this.handler, context);
+		} catch (final RuntimeException | Error e) {
+			this.metrics.handleCounters.errors.increment();
+			throw e;
+		} finally {
+			this.metrics.handleCounters.latency.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Resolves all {@link cli.Flag Flags} and their Values
+	 * in the given Arguments, before any of their Actions is called.<br/>
+	 * The Actions are then called by the given Executor. An Action of a Flag,
+	 * that was added with Dependencies to the
+	 * {@link cli.CommandSet.Builder Builder}, is called after all Actions
+	 * of the Flags it depends on are finished. Otherwise the Actions
+	 * of different Flags run concurrently, while multiple Occurences
+	 * of the same Flag are handled in their Order.
+	 * Actions, whose Dependencies failed, are not called.<br/>
+	 * Returns the leftover Arguments, after all Actions are finished.
+	 * @param executor the Executor calling the Actions
+	 * @param args the Arguments
+	 * @return the Arguments, that could not be resolved
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 * @throws ActionException if any Action failed
+	 */
+	public String[] handleArgumentsDeferred(
+			final Executor executor,
+			final String...args)
+			throws IllegalArgumentException, ActionException {
+		if (this.metrics == null) {
+			return this.handleDeferred(executor, args);
+		}
+		final long start = System.nanoTime();
+		this.metrics.handleCounters.invocations.increment();
+		try {
+			return this.handleDeferred(executor, args);
+		} catch (final RuntimeException | Error e) {
+			this.metrics.handleCounters.errors.increment();
+			throw e;
+		} finally {
+			this.metrics.handleCounters.latency.record(System.nanoTime() - start);
+		}
+	}
+
+	protected String[] handleDeferred(
+			final Executor executor,
+			final String...args)
+			throws IllegalArgumentException, ActionException {
+		final ArrayList<String> ignoredArgs = new ArrayList<>();
+		final DeferredAction[] first = new DeferredAction[this.index.size()];
+		final DeferredAction[] last = new DeferredAction[this.index.size()];
+		final ParseContext context = ParseContext.acquireLocal();
+		try {
+			this.resolve(
+					this.arguments(context.cursor(args)),
+					ignoredArgs::add,
+					(flag, sources, bounds, count) -> {
+						final DeferredAction action = new DeferredAction(
+								flag,
+								Arrays.copyOf(sources, count),
+								Arrays.copyOf(bounds, count * 2));
+						if (first[flag] == null) {
+							first[flag] = action;
+						} else {
+							last[flag].next = action;
+						}
+						last[flag] = action;
+					},
+					context);
+		} finally {
+			context.releaseLocal();
+		}
+		final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+		final CompletableFuture<?>[] finished =
+				new CompletableFuture<?>[this.index.size()];
+		for (int flag : this.order) {
+			CompletableFuture<?> future = this.dependencies[flag] == null
+					? CompletableFuture.completedFuture(null)
+					: CompletableFuture.allOf(Arrays.stream(this.dependencies[flag])
+							.mapToObj(dependency -> finished[dependency])
+							.toArray(CompletableFuture<?>[]::new));
+			for (DeferredAction action = first[flag];
+					action != null;
+					action = action.next) {
+				final DeferredAction current = action;
+				future = future.thenRunAsync(
+						() -> current.run(this, failures), executor);
+			}
+			finished[flag] = future;
+		}
+		CompletableFuture.allOf(finished).handle((result, e) -> null).join();
+		if (!failures.isEmpty()) {
+			throw new ActionException(new ArrayList<>(failures));
+		}
+		return ignoredArgs.toArray(new String[ignoredArgs.size()]);
+	}
+
+	/**
+	 * Resolves all {@link cli.Flag Flags} and their Values
+	 * in the given Arguments, before any of their Actions is called.<br/>
+	 * The Actions are called by a shared Pool of Daemon Threads,
+	 * which suits Actions blocked by I/O.
+	 * @param args the Arguments
+	 * @return the Arguments, that could not be resolved
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 * @throws ActionException if any Action failed
+	 * @see #handleArgumentsDeferred(Executor, String...)
+	 */
+	public String[] handleArgumentsDeferred(final String...args)
+			throws IllegalArgumentException, ActionException {
+		return this.handleArgumentsDeferred(DeferredAction.EXECUTOR, args);
+	}
+
+	/**
+	 * Resolves all {@link cli.Flag Flags} and their Values
+	 * in the given Arguments and passes each Occurence to the given Consumer.
+	 * <br/>
+	 * The Occurences of Flags, that are not allowed multiple Times,
+	 * are tracked by a Bit for each Position of a Flag.
+	 * @param args the Arguments
+	 * @param ignored the Consumer of the Arguments,
+	 * that could not be resolved
+	 * @param occurrences the Consumer of the Occurences of Flags
+	 * @param context the Context providing the Buffers
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	protected void resolve(
+			final Iterator<String> args,
+			final Consumer<String> ignored,
+			final Occurrences occurrences,
+			final ParseContext context)
+			throws IllegalArgumentException {
+		final long[] usedFlags = context.usedFlags(this.index.size());
+		final String[] sources = context.sources(this.maxValues);
+		final int[] bounds = context.bounds(this.maxValues);
+		int position = 0;
+		while (args.hasNext()) {
+			final String arg = args.next();
+			final int token = position++;
+			final int flagIndex = this.index.indexOf(arg);
+			if (flagIndex != -1) {
+				if (CommandSet.isSet(usedFlags, flagIndex)) {
+					ignored.accept(arg);
+					continue;
+				}
+				final Flag flag = this.index.getFlag(flagIndex);
+				if (flag.getValueSeparator().equals(" ")) {
+					final int values =
+							CommandSet.nextValues(flag, args, sources, bounds);
+					position += values;
+					if (values != flag.getValues()) {
+						CommandSet.invalid(context, Diagnostics.MISSING_VALUES,
+								token, flag, values);
+						continue;
+					}
+				} else {
+					final int values =
+							CommandSet.splitValues(flag, arg, sources, bounds);
+					if (values != flag.getValues()) {
+						CommandSet.invalid(context, values < flag.getValues()
+										? Diagnostics.MISSING_VALUES
+										: Diagnostics.EXCESS_VALUES,
+								token, flag, values);
+						continue;
+					}
+				}
+				if (context.activeDiagnostics != null
+						&& !CommandSet.checkValues(context.activeDiagnostics,
+								token, flag, sources, bounds)) {
+					continue;
+				}
+				this.accept(flagIndex, sources, bounds, usedFlags, occurrences);
+			} else if (this.isCluster(arg, usedFlags)) {
+				for (int i = 1; i < arg.length(); i++) {
+					final int shortFlag = this.shortFlags[arg.charAt(i)];
+					final Flag flag = this.index.getFlag(shortFlag);
+					if (flag.getValues() > 0 && i + 1 < arg.length()) {
+						sources[0] = arg;
+						bounds[0] = i + 1;
+						bounds[1] = arg.length();
+						i = arg.length();
+					} else {
+						final int values =
+								CommandSet.nextValues(flag, args, sources, bounds);
+						position += values;
+						if (values != flag.getValues()) {
+							CommandSet.invalid(context,
+									Diagnostics.MISSING_VALUES, token, flag, values);
+							continue;
+						}
+					}
+					if (context.activeDiagnostics != null
+							&& !CommandSet.checkValues(context.activeDiagnostics,
+									token, flag, sources, bounds)) {
+						continue;
+					}
+					this.accept(shortFlag, sources, bounds, usedFlags, occurrences);
+				}
+			} else {
+				ignored.accept(arg);
+			}
+		}
+	}
+
+	protected void accept(
+			final int flag,
+			final String[] sources,
+			final int[] bounds,
+			final long[] usedFlags,
+			final Occurrences occurrences) {
+		if (!this.index.getFlag(flag).allowMultiple()) {
+			usedFlags[flag >>> 6] |= 1L << flag;
+		}
+		if (this.metrics != null) {
+			this.metrics.matched(flag);
+		}
+		occurrences.accept(
+				flag, sources, bounds, this.index.getFlag(flag).getValues());
+	}
+
+	/**
+	 * Returns, whether the given Argument is a Cluster of short
+	 * {@link cli.Flag Flags} (e.g. "-xvf"), that can be expanded.<br/>
+	 * A Cluster consists of a Hyphen followed by the Characters
+	 * of short Flags, which have to be known and must not have occured before,
+	 * unless they are allowed multiple Times. A Flag expecting a Value may
+	 * end the Cluster, taking its Values from the following Arguments,
+	 * or take the Rest of the Cluster as its single Value (e.g. "-ofile").
+	 * @param arg the Argument
+	 * @param usedFlags the Bits of the Flags, that already occured
+	 * @return whether the Argument is a Cluster
+	 */
+	protected boolean isCluster(final String arg, final long[] usedFlags) {
+		if (this.shortFlags == null
+				|| arg.length() < 3
+				|| arg.charAt(0) != '-'
+				|| arg.charAt(1) == '-') {
+			return false;
+		}
+		for (int i = 1; i < arg.length(); i++) {
+			final char c = arg.charAt(i);
+			if (c >= this.shortFlags.length || this.shortFlags[c] == -1) {
+				return false;
+			}
+			final int flagIndex = this.shortFlags[c];
+			final Flag flag = this.index.getFlag(flagIndex);
+			if (CommandSet.isSet(usedFlags, flagIndex)) {
+				return false;
+			}
+			if (!flag.allowMultiple() && arg.indexOf(c, 1) < i) {
+				return false;
+			}
+			if (flag.getValues() > 0) {
+				return i + 1 == arg.length() || flag.getValues() == 1;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Resolves all {@link cli.Flag Flags} in the given Arguments
+	 * without calling their Actions.<br/>
+	 * Returns a {@link cli.ParseResult ParseResult}, that only records
+	 * the Positions of the Values and slices and converts them on Request.
+	 * @param args the Arguments
+	 * @return the Result
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	public ParseResult resolveArguments(final String...args)
+			throws IllegalArgumentException {
+		final ArrayList<String> ignoredArgs = new ArrayList<>();
+		final ParseResult.Recorder recorder = new ParseResult.Recorder();
+		final ParseContext context = ParseContext.acquireLocal();
+		try {
+			this.resolve(this.arguments(context.cursor(args)),
+					ignoredArgs::add, recorder, context);
+		} finally {
+			context.releaseLocal();
+		}
+		recorder.ignoredArgs = ignoredArgs.toArray(new String[ignoredArgs.size()]);
+		return new ParseResult(this, recorder);
+	}
+
+	/**
+	 * Resolves all {@link cli.Parser Parsers} in the given Arguments.<br/>
+	 * Takes Account for all {@link cli.Flag Flags} of this CommandSet.<br/>
+	 * The Arguments are resolved from right to left like in earlier Versions
+	 * of the {@link cli.CommandHandler CommandHandler}, so nested Parsers
+	 * are resolved before the enclosing ones and Parsers next to each other
+	 * from right to left and their Actions are called in this Order.<br/>
+	 * Returns the resulting Arguments.
+	 * @param args the Arguments
+	 * @return the resulting Arguments
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	public String[] parseArguments(final String...args)
+			throws IllegalArgumentException {
+		final ParseContext context = ParseContext.acquireLocal();
+		try {
+			this.parse(this.expand(args), context.parsedArgs, context);
+			return context.parsedArgs.toArray();
+		} finally {
+			context.releaseLocal();
+		}
+	}
+
+	/**
+	 * Resolves all {@link cli.Parser Parsers} in the given Arguments
+	 * with the Buffers of the given {@link cli.ParseContext ParseContext}.
+	 * <br/>
+	 * Takes Account for all {@link cli.Flag Flags} of this CommandSet.<br/>
+	 * The Parsers are resolved in the Order described at
+	 * {@link #parseArguments(String...)}.<br/>
+	 * Returns the resulting Arguments as a View, that is only valid
+	 * until the Context is used again.<br/>
+	 * If the Context has {@link cli.Diagnostics Diagnostics}, Flags missing
+	 * their Values are recorded instead of thrown.
+	 * @param context the Context
+	 * @param args the Arguments
+	 * @return the resulting Arguments
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid and the Context has no Diagnostics
+	 * @throws IllegalStateException if the Context is in Use
+	 */
+	public List<String> parseArguments(
+			final ParseContext context,
+			final String...args)
+			throws IllegalArgumentException, IllegalStateException {
+		context.acquire();
+		try {
+			context.parsedArgs.clear();
+			this.parse(this.expand(args), context.parsedArgs, context);
+			return context.getParsedArgs();
+		} finally {
+			context.release();
+		}
+	}
+
+	/**
+	 * Resolves all {@link cli.Parser Parsers} in the given Arguments,
+	 * while they are read.<br/>
+	 * Takes Account for all {@link cli.Flag Flags} of this CommandSet.<br/>
+	 * Arguments outside of Parsers and the Results of the outermost Parsers
+	 * are passed to the given Consumer as soon as they are resolved,
+	 * so only the Arguments of unfinished Parsers are held at once.<br/>
+	 * Gives the same Results as {@link #parseArguments(String...)},
+	 * but as the Arguments are read from left to right, Parsers next
+	 * to each other are resolved and their Actions are called from left
+	 * to right. This affects Actions with Side Effects, the Order in which
+	 * a {@link cli.ParserCache ParserCache} is filled and the Order
+	 * of the recorded {@link cli.Metrics Metrics}.
+	 * @param args the Arguments
+	 * @param output the Consumer of the resulting Arguments
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	public void parseArguments(
+			final Iterator<String> args,
+			final Consumer<String> output)
+			throws IllegalArgumentException {
+		final ParseContext context = ParseContext.acquireLocal();
+		try {
+			this.parse(this.arguments(args), output, context);
+		} finally {
+			context.releaseLocal();
+		}
+	}
+
+	protected void parse(
+			final Iterator<String> args,
+			final Consumer<String> output,
+			final ParseContext context)
+			throws IllegalArgumentException {
+		if (this.metrics == null) {
+			this.parse(context.stack(this, output), args);
+			return;
+		}
+		final long start = System.nanoTime();
+		this.metrics.parseCounters.invocations.increment();
+		try {
+			this.parse(context.stack(this, output), args);
+		} catch (final RuntimeException | Error e) {
+			this.metrics.parseCounters.errors.increment();
+			throw e;
+		} finally {
+			this.metrics.parseCounters.latency.record(System.nanoTime() - start);
+		}
+	}
+
+	protected void parse(
+			final String[] args,
+			final Consumer<String> output,
+			final ParseContext context)
+			throws IllegalArgumentException {
+		if (this.metrics == null) {
+			context.stack(this, output).resolve(args);
+			return;
+		}
+		final long start = System.nanoTime();
+		this.metrics.parseCounters.invocations.increment();
+		try {
+			context.stack(this, output).resolve(args);
+		} catch (final RuntimeException | Error e) {
+			this.metrics.parseCounters.errors.increment();
+			throw e;
+		} finally {
+			this.metrics.parseCounters.latency.record(System.nanoTime() - start);
+		}
+	}
+
+	protected void parse(
+			final ParserStack stack,
+			final Iterator<String> args)
+			throws IllegalArgumentException {
+		while (args.hasNext()) {
+			final String arg = args.next();
+			final Parser parser = this.parserIndex.get(arg);
+			if (parser != null) {
+				stack.open(parser);
+			} else {
+				stack.add(arg);
+			}
+			stack.token++;
+		}
+		stack.finish();
+	}
+
+	/**
+	 * Returns the given Arguments with their Response Files expanded
+	 * by a {@link cli.ResponseFileReader ResponseFileReader}, if they
+	 * are enabled, or the given Arguments otherwise.
+	 * @param args the Arguments
+	 * @return the expanded Arguments
+	 */
+	protected Iterator<String> arguments(final Iterator<String> args) {
+		return this.responseFiles < 0
+				? args
+				: new ResponseFileReader(args, this.responseFiles);
+	}
+
+	/**
+	 * Returns the given Arguments with their Response Files expanded,
+	 * if they are enabled and any Argument is a Response File,
+	 * or the given Arguments otherwise.<br/>
+	 * As the Parsers are resolved from right to left, the contained
+	 * Arguments are read into an Array.
+	 * @param args the Arguments
+	 * @return the expanded Arguments
+	 */
+	protected String[] expand(final String[] args) {
+		if (this.responseFiles < 0) {
+			return args;
+		}
+		for (String arg : args) {
+			if (ResponseFileReader.isResponseFile(arg)) {
+				final ArrayList<String> expanded = new ArrayList<>(args.length);
+				this.arguments(Arrays.asList(args).iterator())
+						.forEachRemaining(expanded::add);
+				return expanded.toArray(new String[expanded.size()]);
+			}
+		}
+		return args;
+	}
+
+	/**
+	 * Return the {@link cli.Flag Flag}, that is represented by the given String
+	 * or <b>null</b> if there is none.
+	 * @param str the String
+	 * @return the represented Flag or null
+	 */
+	public Flag getFlagByString(final String str) {
+		return this.index.get(str);
+	}
+
+	/**
+	 * Return the first {@link cli.Flag Flag} with the given Name
+	 * or <b>null</b> if there is none.
+	 * @param name the Name
+	 * @return the Flag or null
+	 */
+	public Flag getFlagByName(final String name) {
+		return this.names.get(name);
+	}
+
+	/**
+	 * Returns the Names of up to three {@link cli.Flag Flags},
+	 * that are similar to the given Argument, such as a mistyped Flag,
+	 * with the most similar first.
+	 * @param arg the Argument
+	 * @return the Names of similar Flags
+	 * @see cli.SuggestionIndex#suggest(String, int)
+	 */
+	public List<String> suggestFlags(final String arg) {
+		return this.getSuggestionIndex().suggest(arg, 3);
+	}
+
+	/**
+	 * Returns the {@link cli.SuggestionIndex SuggestionIndex}
+	 * of the Names of the {@link cli.Flag Flags}.<br/>
+	 * It is built, when it is requested for the first Time.
+	 * @return the SuggestionIndex
+	 */
+	public SuggestionIndex getSuggestionIndex() {
+		SuggestionIndex suggestionIndex = this.suggestionIndex;
+		if (suggestionIndex == null) {
+			// building it twice is harmless, as it is immutable
+			suggestionIndex = new SuggestionIndex(this.index);
+			this.suggestionIndex = suggestionIndex;
+		}
+		return suggestionIndex;
+	}
+
+	/**
+	 * Returns the Position of the given {@link cli.Flag Flag}
+	 * in this CommandSet or <b>-1</b> if it is not contained.
+	 * @param flag the Flag
+	 * @return the Position or -1
+	 */
+	public int positionOf(final Flag flag) {
+		final Integer position = this.positions.get(flag);
+		return position == null ? -1 : position;
+	}
+
+	/**
+	 * Return the {@link cli.Parser Parser},
+	 * that is represented by the given String
+	 * or <b>null</b> if there is none.
+	 * @param str the String
+	 * @return the represented Parser or null
+	 */
+	public Parser getParserByString(final String str) {
+		return this.parserIndex.get(str);
+	}
+
+	/**
+	 * Reads the Values of the given {@link cli.Flag Flag}
+	 * from the following Arguments.
+	 * @param flag the Flag
+	 * @param args the Arguments
+	 * @param sources the Strings containing each Value
+	 * @param bounds the Start and End Index of each Value
+	 * @return the Amount of Values read,
+	 * which is less than expected if there are not enough Arguments
+	 */
+	protected static int nextValues(
+			final Flag flag,
+			final Iterator<String> args,
+			final String[] sources,
+			final int[] bounds) {
+		final int values = flag.getValues();
+		for (int j = 0; j < values; j++) {
+			if (!args.hasNext()) {
+				return j;
+			}
+			sources[j] = args.next();
+			bounds[j * 2] = 0;
+			bounds[j * 2 + 1] = sources[j].length();
+		}
+		return values;
+	}
+
+	/**
+	 * Locates the inline Values of the given {@link cli.Flag Flag}
+	 * in a single Scan over the given Argument.<br/>
+	 * The Argument is stored as Source of every Value
+	 * and the Start and End Index of each Value are stored as Bounds.
+	 * @param flag the Flag
+	 * @param arg the Argument
+	 * @param sources the Strings containing each Value
+	 * @param bounds the Start and End Index of each Value
+	 * @return the Amount of Values in the Argument,
+	 * which differs from the expected Amount if it is invalid
+	 */
+	protected static int splitValues(
+			final Flag flag,
+			final String arg,
+			final String[] sources,
+			final int[] bounds) {
+		final String separator = flag.getValueSeparator();
+		final int values = flag.getValues();
+		int start = flag.getName().length() + separator.length();
+		for (int j = 0; j < values; j++) {
+			if (start > arg.length()) {
+				return j;
+			}
+			int end = arg.indexOf(separator, start);
+			if (end == -1) {
+				end = arg.length();
+			} else if (j + 1 == values) {
+				int actual = values + 1;
+				while ((end = arg.indexOf(separator, end + separator.length()))
+						!= -1) {
+					actual++;
+				}
+				return actual;
+			}
+			sources[j] = arg;
+			bounds[j * 2] = start;
+			bounds[j * 2 + 1] = end;
+			start = end + separator.length();
+		}
+		return values;
+	}
+
+	/**
+	 * Records an invalid Occurence of the given {@link cli.Flag Flag}
+	 * in the {@link cli.Diagnostics Diagnostics} of the given Context
+	 * or throws it, if there are none.
+	 * @param context the Context
+	 * @param kind the Kind of the Error
+	 * @param token the Index of the Argument of the Occurence
+	 * @param flag the Flag
+	 * @param actual the actual Amount of Values
+	 * @throws IllegalArgumentException if the Context has no Diagnostics
+	 */
+	protected static void invalid(
+			final ParseContext context,
+			final int kind,
+			final int token,
+			final Flag flag,
+			final int actual)
+			throws IllegalArgumentException {
+		if (context.activeDiagnostics == null) {
+			throw new IllegalArgumentException(
+					Diagnostics.message(kind, flag, flag.getValues()));
+		}
+		context.activeDiagnostics.add(
+				kind, token, flag, flag.getValues(), actual);
+	}
+
+	/**
+	 * Checks the Values of an Occurence of the given {@link cli.Flag Flag}
+	 * without throwing and records the first Value, that can not be
+	 * converted into the Type of the Flag, in the given
+	 * {@link cli.Diagnostics Diagnostics}.
+	 * @param diagnostics the Diagnostics
+	 * @param token the Index of the Argument of the Occurence
+	 * @param flag the Flag
+	 * @param sources the Strings containing each Value
+	 * @param bounds the Start and End Index of each Value
+	 * @return whether all Values are valid
+	 */
+	protected static boolean checkValues(
+			final Diagnostics diagnostics,
+			final int token,
+			final Flag flag,
+			final String[] sources,
+			final int[] bounds) {
+		for (int i = 0; i < flag.getValues(); i++) {
+			final int status = flag.checkValue(
+					sources[i], bounds[i * 2], bounds[i * 2 + 1]);
+			if (status != Values.VALID) {
+				diagnostics.addValue(token, flag, sources[i],
+						bounds[i * 2], bounds[i * 2 + 1],
+						status == Values.OUT_OF_RANGE);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	protected static int[][] dependencies(
+			final Builder builder,
+			final FlagIndex index)
+			throws IllegalArgumentException {
+		final int[][] dependencies = new int[index.size()][];
+		final Map<Flag, Integer> positions = new IdentityHashMap<>();
+		for (int i = 0; i < index.size(); i++) {
+			positions.put(index.getFlag(i), i);
+		}
+		for (Map.Entry<Flag, List<Flag>> entry
+				: builder.dependencies.entrySet()) {
+			final int flag = CommandSet.position(positions, entry.getKey());
+			final int[] flagDependencies = new int[entry.getValue().size()];
+			for (int i = 0; i < flagDependencies.length; i++) {
+				flagDependencies[i] = CommandSet.position(
+						positions, entry.getValue().get(i));
+			}
+			dependencies[flag] = flagDependencies;
+		}
+		return dependencies;
+	}
+
+	protected static void discard(final String arg) {
+	}
+
+	protected static boolean isSet(final long[] bits, final int bit) {
+		return (bits[bit >>> 6] & (1L << bit)) != 0;
+	}
+
+	protected static int[] shortFlags(final FlagIndex index) {
+		int length = 0;
+		for (Flag flag : index.flags) {
+			if (CommandSet.isShortFlag(flag)) {
+				length = Math.max(length, flag.getName().charAt(1) + 1);
+			}
+		}
+		final int[] shortFlags = new int[length];
+		Arrays.fill(shortFlags, -1);
+		for (int i = 0; i < index.size(); i++) {
+			if (CommandSet.isShortFlag(index.getFlag(i))) {
+				shortFlags[index.getFlag(i).getName().charAt(1)] = i;
+			}
+		}
+		return shortFlags;
+	}
+
+	protected static boolean isShortFlag(final Flag flag) {
+		return flag.getName().length() == 2
+				&& flag.getName().charAt(0) == '-'
+				&& flag.getName().charAt(1) != '-'
+				&& FlagIndex.isExact(flag);
+	}
+
+	protected int[] sortDependencies() throws IllegalArgumentException {
+		final int[] order = new int[this.index.size()];
+		final byte[] states = new byte[this.index.size()];
+		int size = 0;
+		for (int flag = 0; flag < order.length; flag++) {
+			size = this.sortDependencies(flag, states, order, size);
+		}
+		return order;
+	}
+
+	protected int sortDependencies(
+			final int flag,
+			final byte[] states,
+			final int[] order,
+			int size)
+			throws IllegalArgumentException {
+		if (states[flag] == 2) {
+			return size;
+		} else if (states[flag] == 1) {
+			throw new IllegalArgumentException("Cyclic dependency of the flag \""
+					+ this.index.getFlag(flag).getName() + "\"");
+		}
+		states[flag] = 1;
+		if (this.dependencies[flag] != null) {
+			for (int dependency : this.dependencies[flag]) {
+				size = this.sortDependencies(dependency, states, order, size);
+			}
+		}
+		states[flag] = 2;
+		order[size] = flag;
+		return size + 1;
+	}
+
+	protected static int position(
+			final Map<Flag, Integer> positions,
+			final Flag flag)
+			throws IllegalArgumentException {
+		final Integer position = positions.get(flag);
+		if (position == null) {
+			throw new IllegalArgumentException(
+					"Unknown flag \"" + flag.getName() + "\"");
+		}
+		return position;
+	}
+
+	/**
+	 * Receives the resolved Occurences of {@link cli.Flag Flags}
+	 * in the Form of {@link cli.Flag#handle(String[], int[], int) Flag.handle}.
+	 */
+	@FunctionalInterface
+	protected interface Occurrences {
+		void accept(int flag, String[] sources, int[] bounds, int count);
+	}
+
+	/**
+	 * An Occurence of a {@link cli.Flag Flag},
+	 * whose Action is called later.
+	 */
+	protected static class DeferredAction {
+		protected static final Executor EXECUTOR =
+				Executors.newCachedThreadPool(runnable -> {
+					final Thread thread = new Thread(runnable, "cli-flag-action");
+					thread.setDaemon(true);
+					return thread;
+				});
+		protected final int flag;
+		protected final String[] sources;
+		protected final int[] bounds;
+		protected DeferredAction next;
+
+		protected DeferredAction(
+				final int flag,
+				final String[] sources,
+				final int[] bounds) {
+			this.flag = flag;
+			this.sources = sources;
+			this.bounds = bounds;
+		}
+
+		protected void run(
+				final CommandSet commands,
+				final Queue<Throwable> failures) {
+			try {
+				if (commands.metrics == null) {
+					commands.index.getFlag(this.flag).handle(
+							this.sources, this.bounds, this.sources.length);
+				} else {
+					commands.metrics.handle(
+							this.flag, this.sources, this.bounds, this.sources.length);
+				}
+			} catch (final RuntimeException | Error e) {
+				failures.add(e);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Resolves nested {@link cli.Parser Parsers} in a single Pass.<br/>
+	 * Each unfinished Parser is a Frame on a Stack and the Arguments
+	 * of all Frames share a single growing Buffer. A finished Parser
+	 * removes its Arguments from the Buffer and splices its Results
+	 * into the enclosing Parser, so nested Parsers are resolved before
+	 * the enclosing ones and every Argument is moved at most twice.
+	 * Parsers next to each other are finished and called from left to right,
+	 * as the Arguments are read.<br/>
+	 * Spliced Results are held on a second Stack until they are added,
+	 * so neither the Depth of the Parsers nor the Amount of Results
+	 * of an {@link cli.ExpandingParser ExpandingParser} cause Recursion.<br/>
+	 * An Array of Arguments is instead resolved from right to left
+	 * by {@link #resolve(String[])}.
+	 */
+	protected static class ParserStack {
+		protected final Consumer<String> splice = this::defer;
+		protected CommandSet commands;
+		protected Consumer<String> output;
+		protected String[] buffer = new String[16];
+		protected int size;
+		protected String[] pending = new String[0];
+		protected int pendingSize;
+		protected Parser[] parsers = new Parser[4];
+		protected int[] starts = new int[4];
+		protected int[] parsValues = new int[4];
+		protected int[] flagValues = new int[4];
+		protected Flag[] flags = new Flag[4];
+		protected int[] flagTokens = new int[4];
+		protected int[] tokens = new int[16];
+		protected int depth;
+		protected int token;
+		protected Diagnostics diagnostics;
+
+		protected ParserStack(
+				final CommandSet commands,
+				final Consumer<String> output) {
+			this.commands = commands;
+			this.output = output;
+		}
+
+		/**
+		 * Prepares this Stack to be reused and releases the References
+		 * to the Arguments and Parsers of its last Use.
+		 * @param commands the CommandSet of the next Use
+		 * @param output the Consumer of the resulting Arguments
+		 */
+		protected void reset(
+				final CommandSet commands,
+				final Consumer<String> output) {
+			Arrays.fill(this.buffer, 0, this.size, null);
+			Arrays.fill(this.pending, 0, this.pendingSize, null);
+			Arrays.fill(this.parsers, 0, this.depth, null);
+			Arrays.fill(this.flags, 0, this.depth, null);
+			this.size = 0;
+			this.pendingSize = 0;
+			this.depth = 0;
+			this.token = 0;
+			this.diagnostics = null;
+			this.commands = commands;
+			this.output = output;
+		}
+
+		/**
+		 * Returns the largest Capacity of the Buffers of this Stack.
+		 * @return the Capacity
+		 */
+		protected int capacity() {
+			return Math.max(Math.max(this.buffer.length, this.pending.length),
+					this.parsers.length);
+		}
+
+		protected void open(final Parser parser) {
+			if (this.depth == this.parsers.length) {
+				this.parsers = Arrays.copyOf(this.parsers, this.depth * 2);
+				this.starts = Arrays.copyOf(this.starts, this.depth * 2);
+				this.parsValues = Arrays.copyOf(this.parsValues, this.depth * 2);
+				this.flagValues = Arrays.copyOf(this.flagValues, this.depth * 2);
+				this.flags = Arrays.copyOf(this.flags, this.depth * 2);
+				this.flagTokens = Arrays.copyOf(this.flagTokens, this.depth * 2);
+			}
+			if (this.commands.metrics != null) {
+				this.commands.metrics.matched(parser);
+			}
+			this.parsers[this.depth] = parser;
+			this.starts[this.depth] = this.size;
+			this.parsValues[this.depth] = 0;
+			this.flagValues[this.depth] = 0;
+			this.depth++;
+			if (parser.getSuffix() == null && parser.getValues() == 0) {
+				this.close(this.splice);
+				this.addPending();
+			}
+		}
+
+		protected void add(final String arg) {
+			this.addSingle(arg);
+			this.addPending();
+		}
+
+		/**
+		 * Adds the pending Arguments in their Order,
+		 * including the Results of the Parsers they finish.
+		 */
+		protected void addPending() {
+			while (this.pendingSize > 0) {
+				final String arg = this.pending[--this.pendingSize];
+				this.pending[this.pendingSize] = null;
+				this.addSingle(arg);
+			}
+		}
+
+		protected void addSingle(final String arg) {
+			if (this.depth == 0) {
+				this.output.accept(arg);
+				return;
+			}
+			final int top = this.depth - 1;
+			final Parser parser = this.parsers[top];
+			if (this.flagValues[top] > 0) {
+				this.flagValues[top]--;
+				this.push(arg);
+				return;
+			}
+			if (arg.equals(parser.getSuffix())) {
+				this.close(this.splice);
+				return;
+			}
+			this.push(arg);
+			final Flag flag = this.commands.index.get(arg);
+			if (flag != null) {
+				if (flag.getValueSeparator().equals(" ")) {
+					this.flagValues[top] = flag.getValues();
+					this.flags[top] = flag;
+					this.flagTokens[top] = this.token;
+				}
+			} else if (++this.parsValues[top] == parser.getValues()
+					&& parser.getSuffix() == null) {
+				this.close(this.splice);
+			}
+		}
+
+		/**
+		 * Closes all open Parsers at the End of the Arguments.<br/>
+		 * A {@link cli.Flag Flag} missing its Values is recorded
+		 * in the {@link cli.Diagnostics Diagnostics}, if there are any,
+		 * and its Parser is closed nonetheless.
+		 * @throws IllegalArgumentException if a Flag is missing its Values
+		 * and there are no Diagnostics
+		 */
+		protected void finish() throws IllegalArgumentException {
+			while (this.depth > 0) {
+				final int top = this.depth - 1;
+				if (this.flagValues[top] > 0) {
+					if (this.diagnostics == null) {
+						throw new IllegalArgumentException("Invalid formatting");
+					}
+					final Flag flag = this.flags[top];
+					this.diagnostics.add(Diagnostics.MISSING_VALUES,
+							this.flagTokens[top], flag, flag.getValues(),
+							flag.getValues() - this.flagValues[top]);
+					this.flagValues[top] = 0;
+				}
+				final boolean terminated =
+						this.parsers[this.depth - 1].getSuffix() == null;
+				this.close(terminated ? this.splice : CommandSet::discard);
+				this.addPending();
+			}
+		}
+
+		/**
+		 * Parses the innermost open Parser
+		 * and passes its Results to the given Consumer.
+		 * Spliced Results are reversed on the pending Stack,
+		 * so they are added in their Order.
+		 * @param results the Consumer of the Results
+		 */
+		protected void close(final Consumer<String> results) {
+			final int pending = this.pendingSize;
+			final int top = --this.depth;
+			final String[] toParse = Arrays.copyOfRange(
+					this.buffer, this.starts[top], this.size);
+			Arrays.fill(this.buffer, this.starts[top], this.size, null);
+			this.size = this.starts[top];
+			final Parser parser = this.parsers[top];
+			this.parsers[top] = null;
+			this.flags[top] = null;
+			if (this.commands.metrics == null) {
+				parser.parse(toParse, results);
+			} else {
+				this.commands.metrics.parse(parser, toParse, results);
+			}
+			for (int i = pending, j = this.pendingSize - 1; i < j; i++, j--) {
+				final String result = this.pending[i];
+				this.pending[i] = this.pending[j];
+				this.pending[j] = result;
+			}
+		}
+
+		/**
+		 * Resolves the Parsers in the given Arguments from right to left
+		 * like earlier Versions of the {@link cli.CommandHandler CommandHandler},
+		 * so the Actions of Parsers next to each other are called
+		 * from right to left.<br/>
+		 * The Buffer holds the resolved Arguments right of the current one
+		 * in reversed Order, so each Parser takes its Arguments from the End
+		 * of the Buffer and every Argument is moved at most twice.<br/>
+		 * A {@link cli.Flag Flag} missing its Values is recorded
+		 * in the {@link cli.Diagnostics Diagnostics}, if there are any,
+		 * and its Parser is closed nonetheless.
+		 * @param args the Arguments
+		 * @throws IllegalArgumentException if a Flag is missing its Values
+		 * and there are no Diagnostics
+		 */
+		protected void resolve(final String[] args)
+				throws IllegalArgumentException {
+			for (int i = args.length - 1; i >= 0; i--) {
+				final Parser parser = this.commands.parserIndex.get(args[i]);
+				if (parser == null) {
+					this.push(args[i], i);
+				} else {
+					this.resolve(parser, i, args.length);
+				}
+			}
+			while (this.size > 0) {
+				final String arg = this.buffer[--this.size];
+				this.buffer[this.size] = null;
+				this.output.accept(arg);
+			}
+		}
+
+		/**
+		 * Parses the given Parser with the resolved Arguments following it
+		 * and pushes its Results in place of them.
+		 * @param parser the Parser
+		 * @param token the Index of the Parser in the Arguments
+		 * @param end the Amount of Arguments
+		 * @throws IllegalArgumentException if a Flag is missing its Values
+		 * and there are no Diagnostics
+		 */
+		protected void resolve(
+				final Parser parser,
+				final int token,
+				final int end)
+				throws IllegalArgumentException {
+			if (this.commands.metrics != null) {
+				this.commands.metrics.matched(parser);
+			}
+			final String suffix = parser.getSuffix();
+			int from = this.size;
+			int suffixAt = -1;
+			int parsValues = 0;
+			while (from > 0
+					&& (suffix != null || parsValues != parser.getValues())) {
+				final String arg = this.buffer[from - 1];
+				if (arg.equals(suffix)) {
+					suffixAt = from - 1;
+					break;
+				}
+				from--;
+				final Flag flag = this.commands.index.get(arg);
+				if (flag == null) {
+					parsValues++;
+				} else if (flag.getValueSeparator().equals(" ")) {
+					final int values = flag.getValues();
+					if (values > from) {
+						if (this.diagnostics == null) {
+							throw new IllegalArgumentException("Invalid formatting");
+						}
+						this.diagnostics.add(Diagnostics.MISSING_VALUES,
+								this.tokens[from], flag, values, from);
+						from = 0;
+					} else {
+						from -= values;
+					}
+				}
+			}
+			final String[] toParse = new String[this.size - from];
+			for (int i = 0; i < toParse.length; i++) {
+				toParse[i] = this.buffer[this.size - 1 - i];
+			}
+			// the Results take the Token, at which the Parser would be closed
+			final int resultToken;
+			if (suffixAt >= 0) {
+				resultToken = this.tokens[suffixAt];
+				from = suffixAt;
+			} else if (suffix != null || parsValues != parser.getValues()) {
+				resultToken = end;
+			} else {
+				resultToken = toParse.length == 0 ? token : this.tokens[from];
+			}
+			Arrays.fill(this.buffer, from, this.size, null);
+			this.size = from;
+			final boolean terminated = suffix == null || suffixAt >= 0;
+			if (this.commands.metrics == null) {
+				parser.parse(toParse,
+						terminated ? this.splice : CommandSet::discard);
+			} else {
+				this.commands.metrics.parse(parser, toParse,
+						terminated ? this.splice : CommandSet::discard);
+			}
+			while (this.pendingSize > 0) {
+				final String result = this.pending[--this.pendingSize];
+				this.pending[this.pendingSize] = null;
+				this.push(result, resultToken);
+			}
+		}
+
+		protected void defer(final String arg) {
+			if (this.pendingSize == this.pending.length) {
+				this.pending = Arrays.copyOf(
+						this.pending, Math.max(8, this.pendingSize * 2));
+			}
+			this.pending[this.pendingSize++] = arg;
+		}
+
+		protected void push(final String arg) {
+			if (this.size == this.buffer.length) {
+				this.buffer = Arrays.copyOf(this.buffer, this.size * 2);
+			}
+			this.buffer[this.size++] = arg;
+		}
+
+		protected void push(final String arg, final int token) {
+			if (this.tokens.length < this.buffer.length) {
+				this.tokens = Arrays.copyOf(this.tokens, this.buffer.length);
+			}
+			if (this.size == this.buffer.length) {
+				this.buffer = Arrays.copyOf(this.buffer, this.size * 2);
+				this.tokens = Arrays.copyOf(this.tokens, this.size * 2);
+			}
+			this.tokens[this.size] = token;
+			this.buffer[this.size++] = arg;
+		}
+	}
+
+	/**
+	 * Collects {@link cli.Flag Flags} and {@link cli.Parser Parsers}
+	 * and builds a validated {@link cli.CommandSet CommandSet} of them.<br/>
+	 * Flags and Parsers created by the Builder use its own Defaults
+	 * instead of the static Defaults of the {@link cli.Command Command}
+	 * Classes.
+	 */
+	public static class Builder {
+		protected final List<Flag> flags = new ArrayList<>();
+		protected final List<Parser> parsers = new ArrayList<>();
+		protected final Map<Flag, List<Flag>> dependencies =
+				new IdentityHashMap<>();
+		protected int defaultValues = 1;
+		protected String defaultValueSeparator = "-";
+		protected boolean defaultAllowMultiple = false;
+		protected String defaultSuffix = null;
+		protected boolean metricsEnabled = false;
+		protected boolean shortFlagClusters = false;
+		protected int responseFiles = -1;
+
+		protected Builder() {
+		}
+
+		/**
+		 * Determines, whether the built CommandSet records
+		 * {@link cli.Metrics Metrics} of its Flags, Parsers and Calls.
+		 * @param metricsEnabled whether Metrics are recorded
+		 * @return this Builder
+		 */
+		public Builder setMetricsEnabled(final boolean metricsEnabled) {
+			this.metricsEnabled = metricsEnabled;
+			return this;
+		}
+
+		/**
+		 * Determines, whether the built CommandSet expands Clusters of short
+		 * Flags (e.g. "-xvf" for "-x", "-v" and "-f"), like POSIX Utilities.
+		 * <br/>
+		 * Short Flags are Flags, whose Name is a Hyphen followed by a single
+		 * Character, that have no Values or Whitespace as valueSeparator.
+		 * @param shortFlagClusters whether Clusters are expanded
+		 * @return this Builder
+		 * @see cli.CommandSet#isCluster(String, long[])
+		 */
+		public Builder setShortFlagClusters(final boolean shortFlagClusters) {
+			this.shortFlagClusters = shortFlagClusters;
+			return this;
+		}
+
+		/**
+		 * Determines, whether the built CommandSet expands Response Files
+		 * (e.g. "@args.txt") in the Arguments of all its Methods with a
+		 * {@link cli.ResponseFileReader ResponseFileReader}.<br/>
+		 * The streaming Methods read the Files as they are mapped, while
+		 * {@link cli.CommandSet#parseArguments(String...) parseArguments}
+		 * reads their Arguments into an Array first, as it resolves the
+		 * Parsers from right to left.
+		 * @param maxDepth the maximum Depth of nested Response Files
+		 * or <b>-1</b> to not expand them, which is the Default
+		 * @return this Builder
+		 * @throws IllegalArgumentException if the Depth is invalid
+		 */
+		public Builder setResponseFiles(final int maxDepth)
+				throws IllegalArgumentException {
+			if (maxDepth < -1) {
+				throw new IllegalArgumentException(
+						"Invalid maximum depth \"" + maxDepth + "\"");
+			}
+			this.responseFiles = maxDepth;
+			return this;
+		}
+
+		/**
+		 * Determines the Amount of Values expected by the Action of
+		 * Commands, that are created by this Builder without a specific Value.
+		 * @param defaultValues the Amount of Values expected
+		 * @return this Builder
+		 * @throws IllegalArgumentException if the Amount is invalid
+		 */
+		public Builder setDefaultValues(final int defaultValues)
+				throws IllegalArgumentException {
+			Command.checkValues(defaultValues);
+			this.defaultValues = defaultValues;
+			return this;
+		}
+
+		/**
+		 * Determines the valueSeparator of Flags,
+		 * that are created by this Builder without a specific Value.
+		 * @param defaultValueSeparator the default valueSeparator
+		 * @return this Builder
+		 * @throws IllegalArgumentException if the valueSeparator is invalid
+		 */
+		public Builder setDefaultValueSeparator(
+				final String defaultValueSeparator)
+				throws IllegalArgumentException {
+			Flag.checkValueSeparator(defaultValueSeparator);
+			this.defaultValueSeparator = defaultValueSeparator;
+			return this;
+		}
+
+		/**
+		 * Determines, whether multiple Occurrences of Flags,
+		 * that are created by this Builder, are tolerated.
+		 * @param defaultAllowMultiple whether multiple Occurences are allowed
+		 * @return this Builder
+		 */
+		public Builder setDefaultAllowMultiple(
+				final boolean defaultAllowMultiple) {
+			this.defaultAllowMultiple = defaultAllowMultiple;
+			return this;
+		}
+
+		/**
+		 * Determines the Suffix of Parsers,
+		 * that are created by this Builder without a specific Value.
+		 * Can be <b>null</b> if no Suffix should be required.
+		 * @param defaultSuffix the default Suffix
+		 * @return this Builder
+		 * @throws IllegalArgumentException if the Suffix is invalid
+		 */
+		public Builder setDefaultSuffix(final String defaultSuffix)
+				throws IllegalArgumentException {
+			Parser.checkSuffix(defaultSuffix);
+			this.defaultSuffix = defaultSuffix;
+			return this;
+		}
+
+		/**
+		 * Adds the given {@link cli.Flag Flag}.
+		 * @param flag the Flag
+		 * @return this Builder
+		 */
+		public Builder addFlag(final Flag flag) {
+			if (flag == null) {
+				throw new IllegalArgumentException("Invalid flags");
+			}
+			this.flags.add(flag);
+			return this;
+		}
+
+		/**
+		 * Adds the given {@link cli.Flag Flags}.
+		 * @param flags the Flags
+		 * @return this Builder
+		 */
+		public Builder addFlags(final Collection<Flag> flags) {
+			if (flags == null) {
+				throw new IllegalArgumentException("Invalid flags");
+			}
+			for (Flag flag : flags) {
+				this.addFlag(flag);
+			}
+			return this;
+		}
+
+		/**
+		 * Adds the given {@link cli.Flag Flags}.
+		 * @param flags the Flags
+		 * @return this Builder
+		 */
+		public Builder addFlags(final Flag...flags) {
+			return this.addFlags(Arrays.asList(flags));
+		}
+
+		/**
+		 * Adds a new {@link cli.Flag Flag},
+		 * that uses the Defaults of this Builder.
+		 * @param name the Name/Prefix (e.g. "-f", "--options")
+		 * @param action the Action, to be called when handled
+		 * @return this Builder
+		 * @throws IllegalArgumentException if the Flag is invalid
+		 */
+		public Builder addFlag(
+				final String name,
+				final Consumer<String[]> action)
+				throws IllegalArgumentException {
+			return this.addFlag(
+					name, action, this.defaultValueSeparator, this.defaultValues);
+		}
+
+		/**
+		 * Adds a new {@link cli.Flag Flag},
+		 * that uses the Defaults of this Builder
+		 * for whether multiple Occurences are allowed.
+		 * @param name the Name/Prefix (e.g. "-f", "--options")
+		 * @param action the Action, to be called when handled
+		 * @param valueSeparator separation of Key and Values
+		 * (e.g. "-" -> "--options-value1-value2")
+		 * @param values the Amount of Values expected
+		 * @return this Builder
+		 * @throws IllegalArgumentException if the Flag is invalid
+		 */
+		public Builder addFlag(
+				final String name,
+				final Consumer<String[]> action,
+				final String valueSeparator,
+				final int values)
+				throws IllegalArgumentException {
+			return this.addFlag(new Flag(
+					name,
+					action,
+					valueSeparator,
+					values,
+					this.defaultAllowMultiple));
+		}
+
+		/**
+		 * Declares, that the Action of the given {@link cli.Flag Flag}
+		 * runs after the Actions of the other given Flags,
+		 * when the Arguments are handled deferred.
+		 * All Flags have to be added to this Builder.
+		 * @param flag the Flag
+		 * @param runsAfter the Flags, whose Actions have to finish before
+		 * @return this Builder
+		 * @see cli.CommandSet#handleArgumentsDeferred(Executor, String...)
+		 */
+		public Builder addDependency(
+				final Flag flag,
+				final Flag...runsAfter) {
+			if (flag == null) {
+				throw new IllegalArgumentException("Invalid flags");
+			}
+			final List<Flag> dependencies = this.dependencies.computeIfAbsent(
+					flag, key -> new ArrayList<>());
+			for (Flag dependency : runsAfter) {
+				if (dependency == null) {
+					throw new IllegalArgumentException("Invalid flags");
+				}
+				dependencies.add(dependency);
+			}
+			return this;
+		}
+
+		/**
+		 * Adds the given {@link cli.Parser Parser}.
+		 * @param parser the Parser
+		 * @return this Builder
+		 */
+		public Builder addParser(final Parser parser) {
+			if (parser == null) {
+				throw new IllegalArgumentException("Invalid parser");
+			}
+			this.parsers.add(parser);
+			return this;
+		}
+
+		/**
+		 * Adds the given {@link cli.Parser Parsers}.
+		 * @param parsers the Parsers
+		 * @return this Builder
+		 */
+		public Builder addParsers(final Collection<Parser> parsers) {
+			if (parsers == null) {
+				throw new IllegalArgumentException("Invalid parser");
+			}
+			for (Parser parser : parsers) {
+				this.addParser(parser);
+			}
+			return this;
+		}
+
+		/**
+		 * Adds the given {@link cli.Parser Parsers}.
+		 * @param parsers the Parsers
+		 * @return this Builder
+		 */
+		public Builder addParsers(final Parser...parsers) {
+			return this.addParsers(Arrays.asList(parsers));
+		}
+
+		/**
+		 * Adds a new {@link cli.Parser Parser},
+		 * that uses the Defaults of this Builder.
+		 * @param name the Name/Prefix (e.g. "-us", "[")
+		 * @param action the Action, to be called when parsed
+		 * @return this Builder
+		 * @throws IllegalArgumentException if the Parser is invalid
+		 */
+		public Builder addParser(
+				final String name,
+				final Function<String[], String> action)
+				throws IllegalArgumentException {
+			return this.addParser(new Parser(
+					name, action, this.defaultValues, this.defaultSuffix));
+		}
+
+		/**
+		 * Adds the {@link cli.Flag Flags} and {@link cli.Parser Parsers}
+		 * of all {@link cli.CommandPlugin CommandPlugins},
+		 * that are provided to the given ClassLoader.
+		 * @param loader the ClassLoader
+		 * @return this Builder
+		 * @throws ServiceConfigurationError if a Plugin can not be loaded
+		 */
+		public Builder addPlugins(final ClassLoader loader)
+				throws ServiceConfigurationError {
+			for (CommandPlugin plugin
+					: ServiceLoader.load(CommandPlugin.class, loader)) {
+				plugin.define(this);
+			}
+			return this;
+		}
+
+		/**
+		 * Adds the {@link cli.Flag Flags} and {@link cli.Parser Parsers}
+		 * of all {@link cli.CommandPlugin CommandPlugins},
+		 * that are provided to the ClassLoader of the current Thread.
+		 * @return this Builder
+		 * @throws ServiceConfigurationError if a Plugin can not be loaded
+		 */
+		public Builder addPlugins() throws ServiceConfigurationError {
+			return this.addPlugins(Thread.currentThread().getContextClassLoader());
+		}
+
+		/**
+		 * Validates and indexes the collected {@link cli.Flag Flags}
+		 * and {@link cli.Parser Parsers}.
+		 * @return the CommandSet
+		 * @throws IllegalArgumentException if two Flags or two Parsers
+		 * are ambiguous or the Dependencies are invalid
+		 */
+		public CommandSet build() throws IllegalArgumentException {
+			final FlagIndex index = new FlagIndex(this.flags);
+			final Map<String, Parser> parserIndex = new HashMap<>();
+			for (Parser parser : this.parsers) {
+				final Parser other = parserIndex.putIfAbsent(
+						parser.getName(), parser);
+				if (other != null) {
+					throw new IllegalArgumentException("Ambiguous parsers \""
+							+ other.getName() + "\" and \"" + parser.getName() + "\"");
+				}
+			}
+			return new CommandSet(this, index, parserIndex);
+		}
+	}
+}
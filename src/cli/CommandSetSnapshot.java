@@ -0,0 +1,383 @@
+package cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Writes a validated and indexed {@link cli.CommandSet CommandSet}
+ * into a compact binary File and restores it from there,
+ * so the Flags and Parsers do not have to be validated
+ * and indexed again at every Start.<br/>
+ * The File is read memory-mapped and the Lookup Structures of the
+ * {@link cli.FlagIndex FlagIndex} are restored as they were written.
+ * Actions can not be written, so they are bound again by Name through
+ * {@link cli.ActionBindings ActionBindings}. The Class of every Flag and
+ * Parser is written, so a Snapshot is only restored with its Subclasses:
+ * plain Flags and Parsers get their bound Actions,
+ * {@link cli.ExpandingParser ExpandingParsers} their bound Expansions
+ * and all other Subclasses, such as {@link cli.IntFlag IntFlags}, are
+ * restored as Clones of the bound Flags and Parsers of the same Class.
+ * A Snapshot with a Subclass, that is not bound or does not keep its Class
+ * when cloned, is rejected.<br/>
+ * A {@link cli.ParserCache ParserCache} is restored with its Limits,
+ * but empty, unless the Parser is restored as a Clone, which shares
+ * the Cache of the bound Parser.<br/>
+ * A Snapshot is rejected, if it was written by another Version of
+ * this Format, with another Fingerprint, if its Checksum does not match
+ * or if its Names do not match the bound Actions.
+ * Callers are expected to build the CommandSet and write a new Snapshot then.
+ * @author Mario Schäper
+ */
+public class CommandSetSnapshot {
+	/** The first Bytes of every Snapshot ("CLIS"). */
+	public static final int MAGIC = 0x434c4953;
+	/** The Version of the Format. */
+	public static final int VERSION = 5;
+	/** The Length of the Header in Bytes. */
+	protected static final int HEADER = 28;
+
+	protected CommandSetSnapshot() {
+	}
+
+	/**
+	 * Writes the given CommandSet into the given File.
+	 * @param commands the CommandSet
+	 * @param file the File
+	 * @param fingerprint a Value, that identifies the Definition
+	 * of the CommandSet, such as a Hash of its Source or a Build Number
+	 * @throws IOException if the File can not be written
+	 */
+	public static void write(
+			final CommandSet commands,
+			final Path file,
+			final long fingerprint)
+			throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		final FlagIndex index = commands.index;
+		out.writeInt(index.flags.length);
+		for (Flag flag : index.flags) {
+			CommandSetSnapshot.writeString(out, flag.name);
+			CommandSetSnapshot.writeString(out, flag.valueSeparator);
+			out.writeInt(flag.values);
+			out.writeBoolean(flag.allowMultiple);
+			CommandSetSnapshot.writeString(out, flag.getClass().getName());
+		}
+		CommandSetSnapshot.writeInts(out, index.buckets);
+		CommandSetSnapshot.writeInts(out, index.nodeEdges);
+		out.writeInt(index.edgeChars.length);
+		for (char c : index.edgeChars) {
+			out.writeChar(c);
+		}
+		CommandSetSnapshot.writeInts(out, index.edgeTargets);
+		CommandSetSnapshot.writeInts(out, index.nodeFlags);
+		for (int[] dependencies : commands.dependencies) {
+			if (dependencies == null) {
+				out.writeInt(-1);
+			} else {
+				CommandSetSnapshot.writeInts(out, dependencies);
+			}
+		}
+		CommandSetSnapshot.writeInts(out, commands.order);
+		out.writeInt(commands.parsers.size());
+		for (Parser parser : commands.parsers) {
+			CommandSetSnapshot.writeString(out, parser.name);
+			out.writeBoolean(parser.suffix != null);
+			if (parser.suffix != null) {
+				CommandSetSnapshot.writeString(out, parser.suffix);
+			}
+			out.writeInt(parser.values);
+			out.writeBoolean(commands.parserIndex.get(parser.name) == parser);
+			CommandSetSnapshot.writeString(out, parser.getClass().getName());
+			out.writeBoolean(parser.cache != null);
+			if (parser.cache != null) {
+				out.writeInt(parser.cache.getMaxEntries());
+				out.writeLong(parser.cache.getMaxWeight());
+			}
+		}
+		out.writeBoolean(commands.metrics != null);
+		out.writeBoolean(commands.shortFlags != null);
+		out.writeInt(commands.responseFiles);
+		out.flush();
+		final byte[] body = bytes.toByteArray();
+		final CRC32 checksum = new CRC32();
+		checksum.update(body);
+		final ByteBuffer header = ByteBuffer.allocate(CommandSetSnapshot.HEADER);
+		header.putInt(CommandSetSnapshot.MAGIC);
+		header.putInt(CommandSetSnapshot.VERSION);
+		header.putLong(fingerprint);
+		header.putInt(body.length);
+		header.putLong(checksum.getValue());
+		header.flip();
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE)) {
+			final ByteBuffer content = ByteBuffer.wrap(body);
+			while (header.hasRemaining() || content.hasRemaining()) {
+				channel.write(new ByteBuffer[] {header, content});
+			}
+		}
+	}
+
+	/**
+	 * Restores a CommandSet from the given File.
+	 * @param file the File
+	 * @param bindings the Actions of the Flags and Parsers
+	 * @param fingerprint the Value, the Snapshot was written with
+	 * @return the CommandSet
+	 * @throws IOException if the File can not be read, is invalid or stale
+	 */
+	public static CommandSet read(
+			final Path file,
+			final ActionBindings bindings,
+			final long fingerprint)
+			throws IOException {
+		if (bindings == null) {
+			throw new IllegalArgumentException("Invalid bindings");
+		}
+		final ByteBuffer in;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		try {
+			return CommandSetSnapshot.read(in, bindings, fingerprint);
+		} catch (final BufferUnderflowException
+				| IndexOutOfBoundsException
+				| NegativeArraySizeException
+				| IllegalArgumentException e) {
+			throw new IOException("Invalid snapshot " + file, e);
+		}
+	}
+
+	protected static CommandSet read(
+			final ByteBuffer in,
+			final ActionBindings bindings,
+			final long fingerprint)
+			throws IOException {
+		if (in.remaining() < CommandSetSnapshot.HEADER
+				|| in.getInt() != CommandSetSnapshot.MAGIC) {
+			throw new IOException("Invalid snapshot");
+		}
+		final int version = in.getInt();
+		if (version != CommandSetSnapshot.VERSION) {
+			throw new IOException("Invalid snapshot version \"" + version + "\"");
+		}
+		if (in.getLong() != fingerprint) {
+			throw new IOException("Stale snapshot fingerprint");
+		}
+		final int length = in.getInt();
+		final long expected = in.getLong();
+		if (length != in.remaining()) {
+			throw new IOException("Invalid snapshot length \"" + length + "\"");
+		}
+		final CRC32 checksum = new CRC32();
+		checksum.update(in.duplicate());
+		if (checksum.getValue() != expected) {
+			throw new IOException("Invalid snapshot checksum");
+		}
+		final Set<String> flagNames = new HashSet<>();
+		final Flag[] flags = new Flag[in.getInt()];
+		for (int i = 0; i < flags.length; i++) {
+			final String name = CommandSetSnapshot.readString(in);
+			final String valueSeparator = CommandSetSnapshot.readString(in);
+			final int values = in.getInt();
+			final boolean allowMultiple = in.get() != 0;
+			final String type = CommandSetSnapshot.readString(in);
+			final Flag flag;
+			if (type.equals(Flag.class.getName())) {
+				flag = new Flag();
+				flag.name = name;
+				flag.valueSeparator = valueSeparator;
+				flag.values = values;
+				flag.allowMultiple = allowMultiple;
+				flag.action = bindings.getFlagAction(name);
+				if (flag.action == null) {
+					throw new IOException("Stale snapshot, unbound flag \""
+							+ name + "\"");
+				}
+			} else {
+				final Flag bound = bindings.getFlag(name);
+				flag = (Flag)CommandSetSnapshot.restore(
+						bound == null ? null : bound.clone(), name, type);
+				flag.setValueSeparator(valueSeparator);
+				flag.setValues(values);
+				flag.setAllowMultiple(allowMultiple);
+			}
+			flagNames.add(name);
+			flags[i] = flag;
+		}
+		final int[] buckets = CommandSetSnapshot.readInts(in);
+		final int[] nodeEdges = CommandSetSnapshot.readInts(in);
+		final char[] edgeChars = new char[in.getInt()];
+		in.asCharBuffer().get(edgeChars);
+		in.position(in.position() + edgeChars.length * 2);
+		final int[] edgeTargets = CommandSetSnapshot.readInts(in);
+		final int[] nodeFlags = CommandSetSnapshot.readInts(in);
+		final int[][] dependencies = new int[flags.length][];
+		for (int i = 0; i < flags.length; i++) {
+			dependencies[i] = CommandSetSnapshot.readInts(in);
+		}
+		final int[] order = CommandSetSnapshot.readInts(in);
+		final int parserCount = in.getInt();
+		final List<Parser> parsers = new ArrayList<>(parserCount);
+		final Map<String, Parser> parserIndex = new HashMap<>();
+		for (int i = 0; i < parserCount; i++) {
+			final String name = CommandSetSnapshot.readString(in);
+			final String suffix =
+					in.get() != 0 ? CommandSetSnapshot.readString(in) : null;
+			final int values = in.getInt();
+			final boolean indexed = in.get() != 0;
+			final String type = CommandSetSnapshot.readString(in);
+			final ParserCache cache = in.get() != 0
+					? new ParserCache(in.getInt(), in.getLong())
+					: null;
+			final Parser parser;
+			if (type.equals(ExpandingParser.class.getName())) {
+				final BiConsumer<String[], Consumer<String>> expansion =
+						bindings.getExpansion(name);
+				if (expansion == null) {
+					throw new IOException("Stale snapshot, unbound expansion \""
+							+ name + "\"");
+				}
+				parser = new ExpandingParser(name, expansion, values, suffix);
+				parser.setCache(cache);
+			} else if (type.equals(Parser.class.getName())
+					&& bindings.getParserAction(name) != null) {
+				parser = new Parser();
+				parser.name = name;
+				parser.suffix = suffix;
+				parser.values = values;
+				parser.action = bindings.getParserAction(name);
+				parser.setCache(cache);
+			} else {
+				final Parser bound = bindings.getParser(name);
+				parser = (Parser)CommandSetSnapshot.restore(
+						bound == null ? null : bound.clone(), name, type);
+				parser.setValues(values);
+				parser.setSuffix(suffix);
+				if (cache == null) {
+					parser.setCache(null);
+				} else if (parser.getCache() == null) {
+					parser.setCache(cache);
+				}
+			}
+			if (indexed) {
+				parserIndex.put(name, parser);
+			}
+			parsers.add(parser);
+		}
+		final boolean metricsEnabled = in.get() != 0;
+		final boolean shortFlagClusters = in.get() != 0;
+		final int responseFiles = in.getInt();
+		for (String name : bindings.flagActions.keySet()) {
+			if (!flagNames.contains(name)) {
+				throw new IOException("Stale snapshot, unknown flag \"" + name + "\"");
+			}
+		}
+		for (String name : bindings.flags.keySet()) {
+			if (!flagNames.contains(name)) {
+				throw new IOException("Stale snapshot, unknown flag \"" + name + "\"");
+			}
+		}
+		for (String name : bindings.parserActions.keySet()) {
+			if (!parserIndex.containsKey(name)) {
+				throw new IOException("Stale snapshot, unknown parser \"" + name + "\"");
+			}
+		}
+		for (String name : bindings.parsers.keySet()) {
+			if (!parserIndex.containsKey(name)) {
+				throw new IOException("Stale snapshot, unknown parser \"" + name + "\"");
+			}
+		}
+		for (String name : bindings.expansions.keySet()) {
+			if (!(parserIndex.get(name) instanceof ExpandingParser)) {
+				throw new IOException(
+						"Stale snapshot, unknown expansion \"" + name + "\"");
+			}
+		}
+		return new CommandSet(
+				new FlagIndex(flags, buckets, nodeEdges, edgeChars, edgeTargets, nodeFlags),
+				parsers,
+				parserIndex,
+				dependencies,
+				order,
+				metricsEnabled,
+				shortFlagClusters,
+				responseFiles);
+	}
+
+	/**
+	 * Returns the given Clone of a bound Flag or Parser,
+	 * if it is of the given Class.
+	 * @param clone the Clone or <b>null</b>, if nothing is bound
+	 * @param name the Name of the Flag or Parser
+	 * @param type the Name of the Class written into the Snapshot
+	 * @return the Clone
+	 * @throws IOException if the Flag or Parser is not bound
+	 * or the Clone is not of the given Class
+	 */
+	protected static Object restore(
+			final Object clone,
+			final String name,
+			final String type)
+			throws IOException {
+		if (clone == null || !clone.getClass().getName().equals(type)) {
+			throw new IOException("Stale snapshot, unbound " + type
+					+ " \"" + name + "\"");
+		}
+		return clone;
+	}
+
+	protected static void writeString(
+			final DataOutputStream out,
+			final String str)
+			throws IOException {
+		final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	protected static String readString(final ByteBuffer in) {
+		final byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	protected static void writeInts(
+			final DataOutputStream out,
+			final int[] ints)
+			throws IOException {
+		out.writeInt(ints.length);
+		for (int i : ints) {
+			out.writeInt(i);
+		}
+	}
+
+	protected static int[] readInts(final ByteBuffer in) {
+		final int length = in.getInt();
+		if (length == -1) {
+			return null;
+		}
+		final int[] ints = new int[length];
+		in.asIntBuffer().get(ints);
+		in.position(in.position() + length * 4);
+		return ints;
+	}
+}
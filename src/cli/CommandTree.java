@@ -0,0 +1,320 @@
+package cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * An immutable Tree of Subcommands (e.g. "tool remote add"),
+ * each with its own {@link cli.CommandSet CommandSet}.<br/>
+ * Each Subcommand is defined by a Consumer, that adds its
+ * {@link cli.Flag Flags} and {@link cli.Parser Parsers} to a
+ * {@link cli.CommandSet.Builder Builder}. The Definitions of all Commands
+ * on the Path from the Root are applied first, so the Flags of a Command
+ * (e.g. global Flags of the Root) are inherited by all its Subcommands.<br/>
+ * The CommandSet of a Command is only built, when it is selected,
+ * so only the Flags of the chosen Path are instantiated and indexed.
+ * @author Mario Schäper
+ */
+public class CommandTree implements ArgumentHandler {
+	protected final CommandTree parent;
+	protected final String name;
+	protected final Consumer<CommandSet.Builder> definition;
+	protected final Map<String, CommandTree> subcommands;
+	protected volatile CommandSet commands;
+
+	protected CommandTree(
+			final CommandTree parent,
+			final String name,
+			final Builder builder) {
+		this.parent = parent;
+		this.name = name;
+		this.definition = builder.definition;
+		final Map<String, CommandTree> subcommands = new LinkedHashMap<>();
+		for (Map.Entry<String, Builder> entry
+				: builder.subcommands.entrySet()) {
+			subcommands.put(
+					entry.getKey(),
+					new CommandTree(this, entry.getKey(), entry.getValue()));
+		}
+		this.subcommands = Collections.unmodifiableMap(subcommands);
+	}
+
+	/**
+	 * Returns a new {@link cli.CommandTree.Builder Builder} of a Root.
+	 * @return the Builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Returns the Name of this Command or <b>null</b> if it is the Root.
+	 * @return the Name or null
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the Command, this is a Subcommand of,
+	 * or <b>null</b> if it is the Root.
+	 * @return the Parent or null
+	 */
+	public CommandTree getParent() {
+		return this.parent;
+	}
+
+	/**
+	 * Returns the Names of the Commands from the Root to this Command,
+	 * excluding the Root.
+	 * @return the Path
+	 */
+	public List<String> getPath() {
+		final LinkedList<String> path = new LinkedList<>();
+		for (CommandTree node = this; node.parent != null; node = node.parent) {
+			path.addFirst(node.name);
+		}
+		return path;
+	}
+
+	/**
+	 * Returns the Subcommands of this Command by their Name.
+	 * @return the unmodifiable Subcommands
+	 */
+	public Map<String, CommandTree> getSubcommands() {
+		return this.subcommands;
+	}
+
+	/**
+	 * Returns the Subcommand with the given Name
+	 * or <b>null</b> if there is none.
+	 * @param name the Name
+	 * @return the Subcommand or null
+	 */
+	public CommandTree getSubcommand(final String name) {
+		return this.subcommands.get(name);
+	}
+
+	/**
+	 * Returns the {@link cli.CommandSet CommandSet} of this Command,
+	 * including the inherited {@link cli.Flag Flags}
+	 * and {@link cli.Parser Parsers}.<br/>
+	 * It is built on the first Request, which runs the Definitions
+	 * of all Commands from the Root to this Command once.
+	 * @return the CommandSet
+	 * @throws IllegalArgumentException if the Flags or Parsers are invalid
+	 */
+	public CommandSet getCommandSet() throws IllegalArgumentException {
+		CommandSet commands = this.commands;
+		if (commands == null) {
+			synchronized (this) {
+				commands = this.commands;
+				if (commands == null) {
+					final CommandSet.Builder builder = CommandSet.builder();
+					this.define(builder);
+					commands = builder.build();
+					this.commands = commands;
+				}
+			}
+		}
+		return commands;
+	}
+
+	/**
+	 * Returns, whether the {@link cli.CommandSet CommandSet}
+	 * of this Command has already been built.
+	 * @return whether the CommandSet is built
+	 */
+	public boolean isLoaded() {
+		return this.commands != null;
+	}
+
+	/**
+	 * Returns the Subcommand selected by the given Arguments.<br/>
+	 * See {@link #select(String[], List)}.
+	 * @param args the Arguments
+	 * @return the selected Command
+	 * @throws IllegalArgumentException if the Flags or Parsers
+	 * of a Command on the Path are invalid
+	 */
+	public CommandTree select(final String...args)
+			throws IllegalArgumentException {
+		return this.select(args, new ArrayList<>(args.length));
+	}
+
+	/**
+	 * Resolves all {@link cli.Flag Flags} and their Values
+	 * in the given Arguments with the {@link cli.CommandSet CommandSet}
+	 * of the selected Subcommand.<br/>
+	 * Returns the leftover Arguments, excluding the Names of the Subcommands.
+	 * @param args the Arguments
+	 * @return the Arguments, that could not be resolved
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	@Override
+	public String[] handleArguments(final String...args)
+			throws IllegalArgumentException {
+		final List<String> remaining = new ArrayList<>(args.length);
+		return this.select(args, remaining).getCommandSet().handleArguments(
+				remaining.toArray(new String[remaining.size()]));
+	}
+
+	/**
+	 * Resolves all {@link cli.Parser Parsers} in the given Arguments
+	 * with the {@link cli.CommandSet CommandSet}
+	 * of the selected Subcommand.<br/>
+	 * Returns the resulting Arguments, excluding the Names of the Subcommands.
+	 * @param args the Arguments
+	 * @return the resulting Arguments
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	public String[] parseArguments(final String...args)
+			throws IllegalArgumentException {
+		final List<String> remaining = new ArrayList<>(args.length);
+		return this.select(args, remaining).getCommandSet().parseArguments(
+				remaining.toArray(new String[remaining.size()]));
+	}
+
+	/**
+	 * Returns the Subcommand selected by the given Arguments and adds
+	 * all other Arguments to the given List.<br/>
+	 * An Argument selects a Subcommand of the currently selected Command,
+	 * if it equals its Name. The Values of {@link cli.Flag Flags}
+	 * with Whitespace as valueSeparator are skipped, so they never select
+	 * a Subcommand. The first other Argument, that is no Flag,
+	 * ends the Selection.
+	 * @param args the Arguments
+	 * @param remaining the List of the Arguments, that are no Subcommands
+	 * @return the selected Command
+	 * @throws IllegalArgumentException if the Flags or Parsers
+	 * of a Command on the Path are invalid
+	 */
+	protected CommandTree select(
+			final String[] args,
+			final List<String> remaining)
+			throws IllegalArgumentException {
+		CommandTree selected = this;
+		int i = 0;
+		while (i < args.length && !selected.subcommands.isEmpty()) {
+			final CommandTree subcommand = selected.subcommands.get(args[i]);
+			if (subcommand != null) {
+				selected = subcommand;
+				i++;
+				continue;
+			}
+			final FlagIndex index = selected.getCommandSet().getFlagIndex();
+			final int flagIndex = index.indexOf(args[i]);
+			if (flagIndex == -1) {
+				break;
+			}
+			final Flag flag = index.getFlag(flagIndex);
+			final int end = flag.getValueSeparator().equals(" ")
+					? Math.min(args.length, i + 1 + flag.getValues())
+					: i + 1;
+			remaining.addAll(Arrays.asList(args).subList(i, end));
+			i = end;
+		}
+		remaining.addAll(Arrays.asList(args).subList(i, args.length));
+		return selected;
+	}
+
+	protected void define(final CommandSet.Builder builder) {
+		if (this.parent != null) {
+			this.parent.define(builder);
+		}
+		if (this.definition != null) {
+			this.definition.accept(builder);
+		}
+	}
+
+	/**
+	 * Collects the Definition and the Subcommands of a Command
+	 * and builds an immutable {@link cli.CommandTree CommandTree} of them.
+	 */
+	public static class Builder {
+		protected final Map<String, Builder> subcommands = new LinkedHashMap<>();
+		protected Consumer<CommandSet.Builder> definition;
+
+		protected Builder() {
+		}
+
+		/**
+		 * Sets the Definition of the {@link cli.Flag Flags}
+		 * and {@link cli.Parser Parsers} of this Command,
+		 * which are inherited by all its Subcommands.<br/>
+		 * It is called each Time the {@link cli.CommandSet CommandSet}
+		 * of this Command or one of its Subcommands is built.
+		 * @param definition the Definition
+		 * @return this Builder
+		 */
+		public Builder setDefinition(
+				final Consumer<CommandSet.Builder> definition) {
+			if (definition == null) {
+				throw new IllegalArgumentException("Invalid definition");
+			}
+			this.definition = definition;
+			return this;
+		}
+
+		/**
+		 * Adds a Subcommand without own Subcommands.
+		 * @param name the Name of the Subcommand (e.g. "commit")
+		 * @param definition the Definition of its Flags and Parsers
+		 * @return this Builder
+		 * @throws IllegalArgumentException if the Name is invalid or ambiguous
+		 * @see #setDefinition(Consumer)
+		 */
+		public Builder addSubcommand(
+				final String name,
+				final Consumer<CommandSet.Builder> definition)
+				throws IllegalArgumentException {
+			return this.addSubcommand(
+					name, new Builder().setDefinition(definition));
+		}
+
+		/**
+		 * Adds a Subcommand.
+		 * The given Builder must not be modified afterwards.
+		 * @param name the Name of the Subcommand (e.g. "remote")
+		 * @param subcommand the Builder of the Subcommand
+		 * @return this Builder
+		 * @throws IllegalArgumentException if the Name is invalid or ambiguous
+		 */
+		public Builder addSubcommand(
+				final String name,
+				final Builder subcommand)
+				throws IllegalArgumentException {
+			if (name == null
+					|| name.isEmpty()
+					|| name.contains(" ")
+					|| name.startsWith("-")) {
+				throw new IllegalArgumentException("Invalid name \"" + name + "\"");
+			}
+			if (subcommand == null) {
+				throw new IllegalArgumentException("Invalid subcommand");
+			}
+			if (this.subcommands.putIfAbsent(name, subcommand) != null) {
+				throw new IllegalArgumentException(
+						"Ambiguous subcommands \"" + name + "\"");
+			}
+			return this;
+		}
+
+		/**
+		 * Builds the Tree of the collected Subcommands.
+		 * No Definition is called, before a Command is selected.
+		 * @return the Root of the Tree
+		 */
+		public CommandTree build() {
+			return new CommandTree(null, null, this);
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package cli;
+
+import java.util.Arrays;
+
+/**
+ * A preallocated Collector of the Formatting Errors in Arguments.<br/>
+ * When set to a {@link cli.ParseContext ParseContext}, that is given
+ * to a Call of a {@link cli.CommandSet CommandSet}, the Call records every
+ * Error and continues
+ * with the next Argument instead of throwing an Exception, so all Errors
+ * of the Arguments are reported in a single Pass without the Cost of
+ * creating Exceptions. An invalid Occurence of a {@link cli.Flag Flag}
+ * is skipped and its Action is not called.<br/>
+ * Each Diagnostic consists of its Kind, the Index of the Argument, at which
+ * the invalid Occurence starts, the Flag and the expected and actual
+ * Amount of Values. Values, that a typed Flag can not convert,
+ * are checked without throwing and recorded with the invalid Value.
+ * Only as many Diagnostics as the Capacity are recorded,
+ * further ones are only counted.<br/>
+ * The Diagnostics are kept, until they are cleared,
+ * and the Collector is not thread-safe.
+ * @author Mario Schäper
+ * @see cli.ParseContext#setDiagnostics(Diagnostics)
+ */
+public class Diagnostics {
+	/** The Kind of a Flag with fewer Values than expected. */
+	public static final int MISSING_VALUES = 1;
+	/** The Kind of a Flag with more inline Values than expected. */
+	public static final int EXCESS_VALUES = 2;
+	/** The Kind of a Value, that can not be converted into its Type. */
+	public static final int INVALID_VALUE = 3;
+	protected final int[] kinds;
+	protected final int[] tokens;
+	protected final Flag[] flags;
+	protected final int[] expected;
+	protected final int[] actual;
+	protected final String[] values;
+	protected final boolean[] overflows;
+	protected int size;
+	protected int count;
+
+	/**
+	 * @param capacity the Amount of Diagnostics, that are recorded
+	 */
+	public Diagnostics(final int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException(
+					"Invalid capacity \"" + capacity + "\"");
+		}
+		this.kinds = new int[capacity];
+		this.tokens = new int[capacity];
+		this.flags = new Flag[capacity];
+		this.expected = new int[capacity];
+		this.actual = new int[capacity];
+		this.values = new String[capacity];
+		this.overflows = new boolean[capacity];
+	}
+
+	/**
+	 * Returns the Amount of recorded Diagnostics.
+	 * @return the Amount of recorded Diagnostics
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the Amount of all Errors,
+	 * including those exceeding the Capacity.
+	 * @return the Amount of Errors
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Returns, whether no Error occured.
+	 * @return whether no Error occured
+	 */
+	public boolean isEmpty() {
+		return this.count == 0;
+	}
+
+	/**
+	 * Returns the Kind of the given Diagnostic.
+	 * @param diagnostic the Index of the Diagnostic
+	 * @return the Kind
+	 * @see #MISSING_VALUES
+	 * @see #EXCESS_VALUES
+	 * @see #INVALID_VALUE
+	 */
+	public int getKind(final int diagnostic) {
+		return this.kinds[this.check(diagnostic)];
+	}
+
+	/**
+	 * Returns the Index of the Argument, at which the invalid Occurence
+	 * of the given Diagnostic starts.
+	 * @param diagnostic the Index of the Diagnostic
+	 * @return the Index of the Argument
+	 */
+	public int getToken(final int diagnostic) {
+		return this.tokens[this.check(diagnostic)];
+	}
+
+	/**
+	 * Returns the {@link cli.Flag Flag} of the given Diagnostic.
+	 * @param diagnostic the Index of the Diagnostic
+	 * @return the Flag
+	 */
+	public Flag getFlag(final int diagnostic) {
+		return this.flags[this.check(diagnostic)];
+	}
+
+	/**
+	 * Returns the expected Amount of Values of the given Diagnostic.
+	 * @param diagnostic the Index of the Diagnostic
+	 * @return the expected Amount of Values
+	 */
+	public int getExpected(final int diagnostic) {
+		return this.expected[this.check(diagnostic)];
+	}
+
+	/**
+	 * Returns the actual Amount of Values of the given Diagnostic.
+	 * @param diagnostic the Index of the Diagnostic
+	 * @return the actual Amount of Values
+	 */
+	public int getActual(final int diagnostic) {
+		return this.actual[this.check(diagnostic)];
+	}
+
+	/**
+	 * Returns the Value, that can not be converted, of the given Diagnostic
+	 * or <b>null</b>, if it is not of the Kind {@link #INVALID_VALUE}.
+	 * @param diagnostic the Index of the Diagnostic
+	 * @return the Value or null
+	 */
+	public String getValue(final int diagnostic) {
+		return this.values[this.check(diagnostic)];
+	}
+
+	/**
+	 * Returns, whether the Value of the given Diagnostic is well-formed,
+	 * but out of Range.
+	 * @param diagnostic the Index of the Diagnostic
+	 * @return whether the Value overflowed
+	 */
+	public boolean isOverflow(final int diagnostic) {
+		return this.overflows[this.check(diagnostic)];
+	}
+
+	/**
+	 * Returns the Message of the given Diagnostic, as the Exception
+	 * of handling the Arguments without this Collector would have had it.
+	 * @param diagnostic the Index of the Diagnostic
+	 * @return the Message
+	 */
+	public String getMessage(final int diagnostic) {
+		if (this.getKind(diagnostic) == Diagnostics.INVALID_VALUE) {
+			return ValueFormatException.message(
+					this.flags[diagnostic].getName(),
+					this.flags[diagnostic].getValueType(),
+					this.values[diagnostic],
+					this.overflows[diagnostic]);
+		}
+		return Diagnostics.message(
+				this.getKind(diagnostic),
+				this.getFlag(diagnostic),
+				this.getExpected(diagnostic));
+	}
+
+	/**
+	 * Removes all Diagnostics.
+	 */
+	public void clear() {
+		Arrays.fill(this.flags, 0, this.size, null);
+		Arrays.fill(this.values, 0, this.size, null);
+		this.size = 0;
+		this.count = 0;
+	}
+
+	/**
+	 * Returns the recorded Diagnostics, one per Line.
+	 * @return the Diagnostics
+	 */
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < this.size; i++) {
+			builder.append(this.tokens[i]).append(": ")
+					.append(this.getMessage(i));
+			if (this.kinds[i] != Diagnostics.INVALID_VALUE) {
+				builder.append(" (").append(this.actual[i]).append(" supplied)");
+			}
+			builder.append('\n');
+		}
+		if (this.count > this.size) {
+			builder.append(this.count - this.size).append(" more\n");
+		}
+		return builder.toString();
+	}
+
+	protected void add(
+			final int kind,
+			final int token,
+			final Flag flag,
+			final int expected,
+			final int actual) {
+		if (this.size < this.kinds.length) {
+			this.kinds[this.size] = kind;
+			this.tokens[this.size] = token;
+			this.flags[this.size] = flag;
+			this.expected[this.size] = expected;
+			this.actual[this.size] = actual;
+			this.values[this.size] = null;
+			this.overflows[this.size] = false;
+			this.size++;
+		}
+		this.count++;
+	}
+
+	/**
+	 * Records a Value of the given {@link cli.Flag Flag},
+	 * that can not be converted into its Type.
+	 * The Value is only copied, if the Diagnostic is recorded.
+	 * @param token the Index of the Argument of the Occurence
+	 * @param flag the Flag
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Character (inclusive)
+	 * @param end the Index of the last Character (exclusive)
+	 * @param overflow whether the Value is out of Range
+	 */
+	protected void addValue(
+			final int token,
+			final Flag flag,
+			final String source,
+			final int start,
+			final int end,
+			final boolean overflow) {
+		final int size = this.size;
+		this.add(Diagnostics.INVALID_VALUE,
+				token, flag, flag.getValues(), flag.getValues());
+		if (size < this.size) {
+			this.values[size] = source.substring(start, end);
+			this.overflows[size] = overflow;
+		}
+	}
+
+	protected int check(final int diagnostic) {
+		if (diagnostic < 0 || diagnostic >= this.size) {
+			throw new IndexOutOfBoundsException(Integer.toString(diagnostic));
+		}
+		return diagnostic;
+	}
+
+	protected static String message(
+			final int kind,
+			final Flag flag,
+			final int expected) {
+		return kind == Diagnostics.MISSING_VALUES
+				? flag.getName() + " expects " + expected + " parameters"
+				: "Invalid amount of values supplied for the flag \""
+						+ flag.getName() + "\"";
+	}
+}
@@ -0,0 +1,117 @@
+package cli;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * A {@link cli.TypedFlag TypedFlag}, whose Action is invoked
+ * with its single Value converted into a double.<br/>
+ * Only Values, that can not be converted exactly by a fast Path,
+ * are handed to {@link Double#parseDouble(String)}.
+ * @author Mario Schäper
+ */
+public class DoubleFlag extends TypedFlag<DoubleConsumer> {
+
+	/**
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 * @param valueSeparator separation of Key and Value
+	 * (e.g. "=" -> "--options=value")
+	 * @param allowMultiple whether multiple Occurences should be possible
+	 */
+	public DoubleFlag(
+			final String name,
+			final DoubleConsumer action,
+			final String valueSeparator,
+			final boolean allowMultiple) {
+		super(name, action, valueSeparator, allowMultiple);
+	}
+
+	/**
+	 * Uses the default Value for<ul style="list-style:none;">
+	 * <li><b>allowMultiple</b> whether multiple Occurences
+	 * should be possible</li>
+	 * </ul>
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 * @param valueSeparator separation of Key and Value
+	 * (e.g. "=" -> "--options=value")
+	 */
+	public DoubleFlag(
+			final String name,
+			final DoubleConsumer action,
+			final String valueSeparator) {
+		this(name, action, valueSeparator, Flag.defaultAllowMultiple);
+	}
+
+	/**
+	 * Uses the default Value for<ul style="list-style:none;">
+	 * <li><b>allowMultiple</b> whether multiple Occurences
+	 * should be possible</li>
+	 * <li><b>valueSeparator</b> separation of Key and Value
+	 * (e.g. "=" -> "--options=value")</li>
+	 * </ul>
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 */
+	public DoubleFlag(final String name, final DoubleConsumer action) {
+		this(name, action, Flag.defaultValueSeparator);
+	}
+
+	/**
+	 * Determines the Action, that is called with the converted Value,
+	 * when a Occurence of this Flag is handled.
+	 * @param action the Action
+	 */
+	public void setDoubleAction(final DoubleConsumer action) {
+		this.setTypedAction(action);
+	}
+
+	/**
+	 * Returns the Action, that is called with the converted Value,
+	 * when a Occurence of this Flag is handled.
+	 * @return the Action
+	 */
+	public DoubleConsumer getDoubleAction() {
+		return this.typedAction;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws ValueFormatException if the Value is not a double
+	 */
+	@Override
+	protected void accept(final String source, final int start, final int end) {
+		this.typedAction.accept(Values.parseDouble(source, start, end));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int checkValue(
+			final String source,
+			final int start,
+			final int end) {
+		return Values.checkDouble(source, start, end);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected String getValueType() {
+		return "double";
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Object clone() {
+		return new DoubleFlag(
+				this.name,
+				this.typedAction,
+				this.valueSeparator,
+				this.allowMultiple);
+	}
+}
@@ -0,0 +1,111 @@
+package cli;
+
+import java.util.StringJoiner;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A {@link cli.Parser Parser}, whose Action passes any Amount of resulting
+ * Arguments to a Consumer instead of returning a single String,
+ * such as the Expansion of an Alias or a Macro.<br/>
+ * The resulting Arguments are spliced into the Arguments in Place
+ * of the Occurence, as if they had been read there, so they are matched
+ * against the {@link cli.Flag Flags} and Suffixes of enclosing Parsers
+ * in the same Pass without being joined and split again.
+ * They are not matched against Parsers, so an Expansion can not recurse.
+ * <br/>
+ * The Results are not cached by a {@link cli.ParserCache ParserCache}.
+ * @author Mario Schäper
+ */
+public class ExpandingParser extends Parser {
+	protected BiConsumer<String[], Consumer<String>> expansion;
+
+	/**
+	 * @param name the Name/Prefix (e.g. "-us", "[")
+	 * @param expansion the Action, to be called with the Values
+	 * and the Consumer of the resulting Arguments, when parsed
+	 * @param values the Amount of Values expected
+	 * @param suffix the Suffix (e.g. "-ue", "]")
+	 */
+	public ExpandingParser(
+			final String name,
+			final BiConsumer<String[], Consumer<String>> expansion,
+			final int values,
+			final String suffix) {
+		this.setName(name);
+		this.setExpansion(expansion);
+		this.setValues(values);
+		this.setSuffix(suffix);
+	}
+
+	/**
+	 * Uses the default Value for<ul style="list-style:none;">
+	 * <li><b>suffix</b> the Suffix (e.g. "-ue", "]")</li>
+	 * </ul>
+	 * @param name the Name/Prefix (e.g. "-us", "[")
+	 * @param expansion the Action, to be called with the Values
+	 * and the Consumer of the resulting Arguments, when parsed
+	 * @param values the Amount of Values expected
+	 */
+	public ExpandingParser(
+			final String name,
+			final BiConsumer<String[], Consumer<String>> expansion,
+			final int values) {
+		this(name, expansion, values, Parser.defaultSuffix);
+	}
+
+	/**
+	 * Determines the Action, that is called,
+	 * when a Occurence of this Parser is parsed.<br/>
+	 * It will be invoked with its given Values and the Consumer
+	 * of the resulting Arguments, which replace the Values
+	 * and {@link cli.Flag Flags} it was invoked with in the Arguments.<br/>
+	 * The Action returned by {@link #getAction()} joins the resulting
+	 * Arguments with Whitespace.
+	 * @param expansion the Action
+	 */
+	public void setExpansion(
+			final BiConsumer<String[], Consumer<String>> expansion) {
+		if (expansion == null) {
+			throw new IllegalArgumentException("Invalid action");
+		}
+		this.expansion = expansion;
+		this.action = values -> {
+			final StringJoiner joiner = new StringJoiner(" ");
+			expansion.accept(values, joiner::add);
+			return joiner.toString();
+		};
+	}
+
+	/**
+	 * Returns the Action, that is called,
+	 * when a Occurence of this Parser is parsed.
+	 * @return the Action
+	 */
+	public BiConsumer<String[], Consumer<String>> getExpansion() {
+		return this.expansion;
+	}
+
+	/**
+	 * Passes the resulting Arguments of the Action directly
+	 * to the given Consumer.
+	 * @param values the Values
+	 * @param output the Consumer of the resulting Arguments
+	 */
+	@Override
+	protected void parse(final String[] values, final Consumer<String> output) {
+		this.expansion.accept(values, output);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Object clone() {
+		return new ExpandingParser(
+				this.name,
+				this.expansion,
+				this.values,
+				this.suffix);
+	}
+}
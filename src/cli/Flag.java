@@ -127,6 +127,13 @@ public class Flag extends Command {
 		this(name, action, Flag.defaultValueSeparator);
 	}
 
+	/**
+	 * Creates a Flag without any Values,
+	 * that have to be assigned without Validation.
+	 */
+	protected Flag() {
+	}
+
 	/**
 	 * Determines the Action, that is called,
 	 * when a Occurence of this Flag is handled.<br/>
@@ -196,12 +203,60 @@ public class Flag extends Command {
 	 * @return whether the given String fits this Flag
 	 */
 	public boolean isThis(final String str) {
-		final int nameLength = this.name.length();
 		return this.valueSeparator.equals(" ") || this.values == 0
 				? this.name.equals(str)
-				: str.substring(nameLength).startsWith(this.valueSeparator)
-					&& str.length() > nameLength
-					&& this.name.equals(str.substring(0, nameLength));
+				: str.startsWith(this.name)
+					&& str.startsWith(this.valueSeparator, this.name.length());
+	}
+
+	/**
+	 * Handles an Occurence of this Flag.<br/>
+	 * The Value at Position <em>i</em> is located in <em>sources[i]</em>
+	 * between the Indices <em>bounds[2 * i]</em> (inclusive)
+	 * and <em>bounds[2 * i + 1]</em> (exclusive).
+	 * Only the first <em>count</em> Values are valid
+	 * and the Arrays must not be retained, as they may be reused.<br/>
+	 * Materializes the Values and invokes the Action with them.
+	 * @param sources the Strings containing each Value
+	 * @param bounds the Start and End Index of each Value
+	 * @param count the Amount of Values
+	 */
+	protected void handle(
+			final String[] sources,
+			final int[] bounds,
+			final int count) {
+		final String[] values = new String[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = sources[i].substring(bounds[i * 2], bounds[i * 2 + 1]);
+		}
+		this.action.accept(values);
+	}
+
+	/**
+	 * Checks the given Value of an Occurence of this Flag without throwing
+	 * an Exception, so it can be recorded in
+	 * {@link cli.Diagnostics Diagnostics} instead.<br/>
+	 * Every Value is valid, unless it is converted into a Type.
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Character (inclusive)
+	 * @param end the Index of the last Character (exclusive)
+	 * @return {@link cli.Values#VALID}, {@link cli.Values#MALFORMED}
+	 * or {@link cli.Values#OUT_OF_RANGE}
+	 */
+	protected int checkValue(
+			final String source,
+			final int start,
+			final int end) {
+		return Values.VALID;
+	}
+
+	/**
+	 * Returns the Name of the Type, the Values of this Flag are converted
+	 * into (e.g. "int"), or <b>null</b>, if they are not converted.
+	 * @return the Name of the Type or null
+	 */
+	protected String getValueType() {
+		return null;
 	}
 
 	/**
@@ -0,0 +1,291 @@
+package cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compiled Lookup Structure for {@link cli.Flag Flags}.<br/>
+ * Flags without Values or with Whitespace as valueSeparator are stored
+ * in Hash Buckets of their exact Name, Flags with inline Values in a
+ * Prefix Trie keyed on their Name and valueSeparator.
+ * Looking up a String therefore only costs about its Length,
+ * regardless of the Amount of Flags.<br/>
+ * Flags, that could both represent the same String, are rejected
+ * when the Index is built.
+ * @author Mario Schäper
+ */
+public class FlagIndex {
+	protected final Flag[] flags;
+	protected final String[] names;
+	protected final int[] buckets;
+	protected final int[] nodeEdges;
+	protected final char[] edgeChars;
+	protected final int[] edgeTargets;
+	protected final int[] nodeFlags;
+	protected volatile CommandSet commands;
+
+	/**
+	 * @param flags the Flags
+	 * @throws IllegalArgumentException if a Flag is invalid
+	 * or two Flags are ambiguous
+	 */
+	public FlagIndex(final List<Flag> flags)
+			throws IllegalArgumentException {
+		if (flags == null) {
+			throw new IllegalArgumentException("Invalid flags");
+		}
+		this.flags = flags.toArray(new Flag[flags.size()]);
+		this.names = new String[this.flags.length];
+		this.buckets = new int[FlagIndex.tableSize(this.flags.length)];
+		final TrieNode root = new TrieNode();
+		for (int i = 0; i < this.flags.length; i++) {
+			final Flag flag = this.flags[i];
+			if (flag == null) {
+				throw new IllegalArgumentException("Invalid flags");
+			}
+			this.names[i] = flag.getName();
+			if (FlagIndex.isExact(flag)) {
+				this.addExact(i);
+			} else {
+				this.addInline(root, i);
+			}
+		}
+		final List<TrieNode> nodes = new ArrayList<>();
+		int edges = FlagIndex.collect(root, nodes);
+		this.nodeEdges = new int[nodes.size() + 1];
+		this.edgeChars = new char[edges];
+		this.edgeTargets = new int[edges];
+		this.nodeFlags = new int[nodes.size()];
+		edges = 0;
+		for (int i = 0; i < nodes.size(); i++) {
+			final TrieNode node = nodes.get(i);
+			this.nodeEdges[i] = edges;
+			this.nodeFlags[i] = node.flag;
+			for (int j = 0; j < node.size; j++) {
+				this.edgeChars[edges] = node.chars[j];
+				this.edgeTargets[edges++] = node.children[j].id;
+			}
+		}
+		this.nodeEdges[nodes.size()] = edges;
+		for (int i = 0; i < this.flags.length; i++) {
+			if (FlagIndex.isExact(this.flags[i])) {
+				final int other = this.prefixOf(this.names[i]);
+				if (other != -1) {
+					throw FlagIndex.ambiguous(this.flags[other], this.flags[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param flags the Flags
+	 * @throws IllegalArgumentException if a Flag is invalid
+	 * or two Flags are ambiguous
+	 */
+	public FlagIndex(final Flag...flags) throws IllegalArgumentException {
+		this(Arrays.asList(flags));
+	}
+
+	/**
+	 * Restores an Index, that was already built,
+	 * from its Lookup Structures without validating them.
+	 * @param flags the Flags
+	 * @param buckets the Hash Buckets of the exact Names
+	 * @param nodeEdges the first Edge of each Node of the Trie
+	 * @param edgeChars the Character of each Edge of the Trie
+	 * @param edgeTargets the Node each Edge of the Trie leads to
+	 * @param nodeFlags the Flag of each Node of the Trie or -1
+	 */
+	protected FlagIndex(
+			final Flag[] flags,
+			final int[] buckets,
+			final int[] nodeEdges,
+			final char[] edgeChars,
+			final int[] edgeTargets,
+			final int[] nodeFlags) {
+		this.flags = flags;
+		this.names = new String[flags.length];
+		for (int i = 0; i < flags.length; i++) {
+			this.names[i] = flags[i].getName();
+		}
+		this.buckets = buckets;
+		this.nodeEdges = nodeEdges;
+		this.edgeChars = edgeChars;
+		this.edgeTargets = edgeTargets;
+		this.nodeFlags = nodeFlags;
+	}
+
+	/**
+	 * Returns the Position of the {@link cli.Flag Flag},
+	 * that is represented by the given String
+	 * or <b>-1</b> if there is none.
+	 * @param str the String
+	 * @return the Position of the represented Flag or -1
+	 */
+	public int indexOf(final String str) {
+		if (str == null) {
+			return -1;
+		}
+		final int mask = this.buckets.length - 1;
+		for (int i = FlagIndex.spread(str.hashCode()) & mask;
+				this.buckets[i] != 0;
+				i = (i + 1) & mask) {
+			final int flag = this.buckets[i] - 1;
+			if (this.names[flag].equals(str)) {
+				return flag;
+			}
+		}
+		return this.prefixOf(str);
+	}
+
+	/**
+	 * Return the {@link cli.Flag Flag}, that is represented by the given String
+	 * or <b>null</b> if there is none.
+	 * @param str the String
+	 * @return the represented Flag or null
+	 */
+	public Flag get(final String str) {
+		final int index = this.indexOf(str);
+		return index == -1 ? null : this.flags[index];
+	}
+
+	/**
+	 * Returns the {@link cli.Flag Flag} at the given Position.
+	 * @param index the Position
+	 * @return the Flag
+	 */
+	public Flag getFlag(final int index) {
+		return this.flags[index];
+	}
+
+	/**
+	 * Returns the Amount of indexed {@link cli.Flag Flags}.
+	 * @return the Amount of Flags
+	 */
+	public int size() {
+		return this.flags.length;
+	}
+
+	protected int prefixOf(final String str) {
+		int node = 0;
+		for (int i = 0; i < str.length(); i++) {
+			if (this.nodeFlags[node] != -1) {
+				return this.nodeFlags[node];
+			}
+			final int edge = Arrays.binarySearch(
+					this.edgeChars,
+					this.nodeEdges[node],
+					this.nodeEdges[node + 1],
+					str.charAt(i));
+			if (edge < 0) {
+				return -1;
+			}
+			node = this.edgeTargets[edge];
+		}
+		return this.nodeFlags[node];
+	}
+
+	protected void addExact(final int flag) {
+		final int mask = this.buckets.length - 1;
+		int i = FlagIndex.spread(this.names[flag].hashCode()) & mask;
+		for (; this.buckets[i] != 0; i = (i + 1) & mask) {
+			final int other = this.buckets[i] - 1;
+			if (this.names[other].equals(this.names[flag])) {
+				throw FlagIndex.ambiguous(this.flags[other], this.flags[flag]);
+			}
+		}
+		this.buckets[i] = flag + 1;
+	}
+
+	protected void addInline(final TrieNode root, final int flag) {
+		final String key = this.names[flag]
+				+ this.flags[flag].getValueSeparator();
+		TrieNode node = root;
+		for (int i = 0; i < key.length(); i++) {
+			if (node.flag != -1) {
+				throw FlagIndex.ambiguous(this.flags[node.flag], this.flags[flag]);
+			}
+			node = node.child(key.charAt(i));
+		}
+		if (node.flag != -1) {
+			throw FlagIndex.ambiguous(this.flags[node.flag], this.flags[flag]);
+		}
+		if (node.size > 0) {
+			throw FlagIndex.ambiguous(this.flags[node.anyFlag()], this.flags[flag]);
+		}
+		node.flag = flag;
+	}
+
+	protected static boolean isExact(final Flag flag) {
+		return flag.getValueSeparator().equals(" ") || flag.getValues() == 0;
+	}
+
+	protected static IllegalArgumentException ambiguous(
+			final Flag flag,
+			final Flag other) {
+		return new IllegalArgumentException("Ambiguous flags \""
+				+ flag.getName() + "\" and \"" + other.getName() + "\"");
+	}
+
+	private static int collect(final TrieNode root, final List<TrieNode> nodes) {
+		int edges = 0;
+		root.id = 0;
+		nodes.add(root);
+		for (int i = 0; i < nodes.size(); i++) {
+			final TrieNode node = nodes.get(i);
+			for (int j = 0; j < node.size; j++) {
+				node.children[j].id = nodes.size();
+				nodes.add(node.children[j]);
+			}
+			edges += node.size;
+		}
+		return edges;
+	}
+
+	private static int tableSize(final int flags) {
+		int size = 2;
+		while (size < flags * 2) {
+			size <<= 1;
+		}
+		return size;
+	}
+
+	private static int spread(final int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private static class TrieNode {
+		private char[] chars = new char[0];
+		private TrieNode[] children = new TrieNode[0];
+		private int size;
+		private int flag = -1;
+		private int id;
+
+		private TrieNode child(final char c) {
+			int index = Arrays.binarySearch(this.chars, 0, this.size, c);
+			if (index >= 0) {
+				return this.children[index];
+			}
+			index = -index - 1;
+			if (this.size == this.chars.length) {
+				this.chars = Arrays.copyOf(this.chars, this.size * 2 + 1);
+				this.children = Arrays.copyOf(this.children, this.size * 2 + 1);
+			}
+			System.arraycopy(this.chars, index, this.chars, index + 1, this.size - index);
+			System.arraycopy(this.children, index, this.children, index + 1, this.size - index);
+			this.chars[index] = c;
+			this.children[index] = new TrieNode();
+			this.size++;
+			return this.children[index];
+		}
+
+		private int anyFlag() {
+			TrieNode node = this;
+			while (node.flag == -1) {
+				node = node.children[0];
+			}
+			return node.flag;
+		}
+	}
+}
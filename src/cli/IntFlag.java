@@ -0,0 +1,115 @@
+package cli;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A {@link cli.TypedFlag TypedFlag}, whose Action is invoked
+ * with its single Value converted into an int.<br/>
+ * @author Mario Schäper
+ */
+public class IntFlag extends TypedFlag<IntConsumer> {
+
+	/**
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 * @param valueSeparator separation of Key and Value
+	 * (e.g. "=" -> "--options=value")
+	 * @param allowMultiple whether multiple Occurences should be possible
+	 */
+	public IntFlag(
+			final String name,
+			final IntConsumer action,
+			final String valueSeparator,
+			final boolean allowMultiple) {
+		super(name, action, valueSeparator, allowMultiple);
+	}
+
+	/**
+	 * Uses the default Value for<ul style="list-style:none;">
+	 * <li><b>allowMultiple</b> whether multiple Occurences
+	 * should be possible</li>
+	 * </ul>
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 * @param valueSeparator separation of Key and Value
+	 * (e.g. "=" -> "--options=value")
+	 */
+	public IntFlag(
+			final String name,
+			final IntConsumer action,
+			final String valueSeparator) {
+		this(name, action, valueSeparator, Flag.defaultAllowMultiple);
+	}
+
+	/**
+	 * Uses the default Value for<ul style="list-style:none;">
+	 * <li><b>allowMultiple</b> whether multiple Occurences
+	 * should be possible</li>
+	 * <li><b>valueSeparator</b> separation of Key and Value
+	 * (e.g. "=" -> "--options=value")</li>
+	 * </ul>
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 */
+	public IntFlag(final String name, final IntConsumer action) {
+		this(name, action, Flag.defaultValueSeparator);
+	}
+
+	/**
+	 * Determines the Action, that is called with the converted Value,
+	 * when a Occurence of this Flag is handled.
+	 * @param action the Action
+	 */
+	public void setIntAction(final IntConsumer action) {
+		this.setTypedAction(action);
+	}
+
+	/**
+	 * Returns the Action, that is called with the converted Value,
+	 * when a Occurence of this Flag is handled.
+	 * @return the Action
+	 */
+	public IntConsumer getIntAction() {
+		return this.typedAction;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws ValueFormatException if the Value is not an int
+	 */
+	@Override
+	protected void accept(final String source, final int start, final int end) {
+		this.typedAction.accept(Values.parseInt(source, start, end));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int checkValue(
+			final String source,
+			final int start,
+			final int end) {
+		return Values.checkInt(source, start, end);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected String getValueType() {
+		return "int";
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Object clone() {
+		return new IntFlag(
+				this.name,
+				this.typedAction,
+				this.valueSeparator,
+				this.allowMultiple);
+	}
+}
@@ -0,0 +1,93 @@
+package cli;
+
+/**
+ * An Action, whose Class is only loaded and instanciated,
+ * when it is requested for the first Time.<br/>
+ * The Class has to be public, have a public Constructor without Parameters
+ * and implement the Type of the Action.
+ * @author Mario Schäper
+ * @see cli.LazyFlag
+ * @see cli.LazyParser
+ */
+public class LazyAction<T> {
+	protected final String className;
+	protected final ClassLoader loader;
+	protected final Class<?> type;
+	protected volatile T action;
+
+	/**
+	 * @param className the binary Name of the Class of the Action
+	 * @param loader the ClassLoader of the Class
+	 * @param type the Type of the Action
+	 */
+	public LazyAction(
+			final String className,
+			final ClassLoader loader,
+			final Class<?> type) {
+		if (className == null || className.isEmpty()) {
+			throw new IllegalArgumentException(
+					"Invalid className \"" + className + "\"");
+		}
+		if (loader == null) {
+			throw new IllegalArgumentException("Invalid loader");
+		}
+		this.className = className;
+		this.loader = loader;
+		this.type = type;
+	}
+
+	/**
+	 * Returns the binary Name of the Class of the Action.
+	 * @return the Name of the Class
+	 */
+	public String getClassName() {
+		return this.className;
+	}
+
+	/**
+	 * Returns, whether the Class of the Action has already been loaded.
+	 * @return whether the Action is loaded
+	 */
+	public boolean isLoaded() {
+		return this.action != null;
+	}
+
+	/**
+	 * Returns the Action and loads and instanciates its Class,
+	 * if this is the first Request.
+	 * @return the Action
+	 * @throws IllegalStateException if the Class can not be loaded,
+	 * instanciated or is no Action of the expected Type
+	 */
+	public T get() throws IllegalStateException {
+		T action = this.action;
+		if (action == null) {
+			synchronized (this) {
+				action = this.action;
+				if (action == null) {
+					action = this.load();
+					this.action = action;
+				}
+			}
+		}
+		return action;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected T load() throws IllegalStateException {
+		final Object action;
+		try {
+			action = Class.forName(this.className, true, this.loader)
+					.getConstructor()
+					.newInstance();
+		} catch (final ReflectiveOperationException | LinkageError e) {
+			throw new IllegalStateException(
+					"Invalid action class \"" + this.className + "\"", e);
+		}
+		if (!this.type.isInstance(action)) {
+			throw new IllegalStateException("Invalid action class \""
+					+ this.className + "\", expected " + this.type.getName());
+		}
+		return (T)action;
+	}
+}
@@ -0,0 +1,109 @@
+package cli;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link cli.Flag Flag}, whose Action is given by the Name of its Class,
+ * which is only loaded, when the Flag is handled for the first Time.<br/>
+ * The Class has to be public, have a public Constructor without Parameters
+ * and implement <em>Consumer&lt;String[]&gt;</em>.
+ * @author Mario Schäper
+ * @see cli.CommandPlugin
+ */
+public class LazyFlag extends Flag {
+	protected final LazyAction<Consumer<String[]>> lazyAction;
+
+	/**
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param className the binary Name of the Class of the Action
+	 * @param loader the ClassLoader of the Class of the Action
+	 * @param valueSeparator separation of Key and Values
+	 * (e.g. "-" -> "--options-value1-value2")
+	 * @param values the Amount of Values expected
+	 * @param allowMultiple whether multiple Occurences should be possible
+	 */
+	public LazyFlag(
+			final String name,
+			final String className,
+			final ClassLoader loader,
+			final String valueSeparator,
+			final int values,
+			final boolean allowMultiple) {
+		this(
+				name,
+				new LazyAction<>(className, loader, Consumer.class),
+				valueSeparator,
+				values,
+				allowMultiple);
+	}
+
+	/**
+	 * Uses the ClassLoader of the current Thread
+	 * for the Class of the Action.
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param className the binary Name of the Class of the Action
+	 * @param valueSeparator separation of Key and Values
+	 * (e.g. "-" -> "--options-value1-value2")
+	 * @param values the Amount of Values expected
+	 * @param allowMultiple whether multiple Occurences should be possible
+	 */
+	public LazyFlag(
+			final String name,
+			final String className,
+			final String valueSeparator,
+			final int values,
+			final boolean allowMultiple) {
+		this(
+				name,
+				className,
+				Thread.currentThread().getContextClassLoader(),
+				valueSeparator,
+				values,
+				allowMultiple);
+	}
+
+	protected LazyFlag(
+			final String name,
+			final LazyAction<Consumer<String[]>> lazyAction,
+			final String valueSeparator,
+			final int values,
+			final boolean allowMultiple) {
+		this.lazyAction = lazyAction;
+		this.setName(name);
+		this.setValueSeparator(valueSeparator);
+		this.setValues(values);
+		this.setAllowMultiple(allowMultiple);
+		this.action = args -> lazyAction.get().accept(args);
+	}
+
+	/**
+	 * Returns the binary Name of the Class of the Action.
+	 * @return the Name of the Class
+	 */
+	public String getClassName() {
+		return this.lazyAction.getClassName();
+	}
+
+	/**
+	 * Returns, whether the Class of the Action has already been loaded.
+	 * @return whether the Action is loaded
+	 */
+	public boolean isLoaded() {
+		return this.lazyAction.isLoaded();
+	}
+
+	/**
+	 * Shares the Action, so the Clone equals this Flag.
+	 */
+	@Override
+	protected Object clone() {
+		final LazyFlag flag = new LazyFlag(
+				this.name,
+				this.lazyAction,
+				this.valueSeparator,
+				this.values,
+				this.allowMultiple);
+		flag.action = this.action;
+		return flag;
+	}
+}
@@ -0,0 +1,99 @@
+package cli;
+
+import java.util.function.Function;
+
+/**
+ * A {@link cli.Parser Parser}, whose Action is given by the Name of its Class,
+ * which is only loaded, when the Parser is parsed for the first Time.<br/>
+ * The Class has to be public, have a public Constructor without Parameters
+ * and implement <em>Function&lt;String[], String&gt;</em>.
+ * @author Mario Schäper
+ * @see cli.CommandPlugin
+ */
+public class LazyParser extends Parser {
+	protected final LazyAction<Function<String[], String>> lazyAction;
+
+	/**
+	 * @param name the Name/Prefix (e.g. "-us", "[")
+	 * @param className the binary Name of the Class of the Action
+	 * @param loader the ClassLoader of the Class of the Action
+	 * @param values the Amount of Values expected
+	 * @param suffix the Suffix (e.g. "-ue", "]")
+	 */
+	public LazyParser(
+			final String name,
+			final String className,
+			final ClassLoader loader,
+			final int values,
+			final String suffix) {
+		this(
+				name,
+				new LazyAction<>(className, loader, Function.class),
+				values,
+				suffix);
+	}
+
+	/**
+	 * Uses the ClassLoader of the current Thread
+	 * for the Class of the Action.
+	 * @param name the Name/Prefix (e.g. "-us", "[")
+	 * @param className the binary Name of the Class of the Action
+	 * @param values the Amount of Values expected
+	 * @param suffix the Suffix (e.g. "-ue", "]")
+	 */
+	public LazyParser(
+			final String name,
+			final String className,
+			final int values,
+			final String suffix) {
+		this(
+				name,
+				className,
+				Thread.currentThread().getContextClassLoader(),
+				values,
+				suffix);
+	}
+
+	protected LazyParser(
+			final String name,
+			final LazyAction<Function<String[], String>> lazyAction,
+			final int values,
+			final String suffix) {
+		this.lazyAction = lazyAction;
+		this.setName(name);
+		this.setValues(values);
+		this.setSuffix(suffix);
+		this.action = args -> lazyAction.get().apply(args);
+	}
+
+	/**
+	 * Returns the binary Name of the Class of the Action.
+	 * @return the Name of the Class
+	 */
+	public String getClassName() {
+		return this.lazyAction.getClassName();
+	}
+
+	/**
+	 * Returns, whether the Class of the Action has already been loaded.
+	 * @return whether the Action is loaded
+	 */
+	public boolean isLoaded() {
+		return this.lazyAction.isLoaded();
+	}
+
+	/**
+	 * Shares the Action, so the Clone equals this Parser.
+	 */
+	@Override
+	protected Object clone() {
+		final LazyParser parser = new LazyParser(
+				this.name,
+				this.lazyAction,
+				this.values,
+				this.suffix);
+		parser.action = this.action;
+		parser.setCache(this.cache);
+		return parser;
+	}
+}
@@ -0,0 +1,184 @@
+package cli;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link cli.Flag Flag}, whose Action is invoked with
+ * all of its Values converted into longs.<br/>
+ * The Values are read directly from the Arguments,
+ * so neither Strings nor boxed Values are created.
+ * The Action of the Flag, as returned by {@link #getAction()},
+ * converts the Values of Strings and calls the Action of the longs,
+ * like the Action of a {@link cli.TypedFlag TypedFlag}.
+ * @author Mario Schäper
+ */
+public class LongArrayFlag extends Flag {
+	protected final Consumer<String[]> converter = this::convert;
+	protected Consumer<long[]> longsAction;
+
+	/**
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 * @param valueSeparator separation of Key and Values
+	 * (e.g. "-" -> "--options-value1-value2")
+	 * @param values the Amount of Values expected
+	 * @param allowMultiple whether multiple Occurences should be possible
+	 */
+	public LongArrayFlag(
+			final String name,
+			final Consumer<long[]> action,
+			final String valueSeparator,
+			final int values,
+			final boolean allowMultiple) {
+		this.setName(name);
+		this.setLongsAction(action);
+		this.setAction(this.converter);
+		this.setValueSeparator(valueSeparator);
+		this.setValues(values);
+		this.setAllowMultiple(allowMultiple);
+	}
+
+	/**
+	 * Uses the default Value for<ul style="list-style:none;">
+	 * <li><b>allowMultiple</b> whether multiple Occurences
+	 * should be possible</li>
+	 * </ul>
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 * @param valueSeparator separation of Key and Values
+	 * (e.g. "-" -> "--options-value1-value2")
+	 * @param values the Amount of Values expected
+	 */
+	public LongArrayFlag(
+			final String name,
+			final Consumer<long[]> action,
+			final String valueSeparator,
+			final int values) {
+		this(name, action, valueSeparator, values, Flag.defaultAllowMultiple);
+	}
+
+	/**
+	 * Determines the Action, that is called with the converted Values,
+	 * when a Occurence of this Flag is handled.<br/>
+	 * It will be invoked with its given Values
+	 * and only if their Amount is as specified.
+	 * @param action the Action
+	 */
+	public void setLongsAction(final Consumer<long[]> action) {
+		if (action == null) {
+			throw new IllegalArgumentException("Invalid action");
+		}
+		this.longsAction = action;
+	}
+
+	/**
+	 * Returns the Action, that is called with the converted Values,
+	 * when a Occurence of this Flag is handled.
+	 * @return the Action
+	 */
+	public Consumer<long[]> getLongsAction() {
+		return this.longsAction;
+	}
+
+	/**
+	 * Handles an Occurence of this Flag.<br/>
+	 * Invokes the Action with the converted Values.
+	 * @throws ValueFormatException if a Value is not a long
+	 */
+	@Override
+	protected void handle(
+			final String[] sources,
+			final int[] bounds,
+			final int count) {
+		final long[] values = new long[count];
+		try {
+			for (int i = 0; i < count; i++) {
+				values[i] = Values.parseLong(
+						sources[i], bounds[i * 2], bounds[i * 2 + 1]);
+			}
+		} catch (final ValueFormatException e) {
+			throw e.getFlag() == null ? e.forFlag(this.name) : e;
+		}
+		this.longsAction.accept(values);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int checkValue(
+			final String source,
+			final int start,
+			final int end) {
+		return Values.checkLong(source, start, end);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected String getValueType() {
+		return "long";
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return this.name.hashCode()
+				+ this.longsAction.hashCode()
+				+ this.values
+				+ (this.allowMultiple ? 1 : 0);
+	}
+
+	/**
+	 * Compares the Actions of the longs instead of the converting Actions,
+	 * which differ for every Flag.
+	 */
+	@Override
+	public boolean equals(final Object other) {
+		if (other == null || other.getClass() != this.getClass()) {
+			return false;
+		}
+		final LongArrayFlag flag = (LongArrayFlag)other;
+		return flag.name == this.name
+				&& flag.longsAction.equals(this.longsAction)
+				&& flag.valueSeparator.equals(this.valueSeparator)
+				&& flag.values == this.values
+				&& flag.allowMultiple == this.allowMultiple;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Object clone() {
+		return new LongArrayFlag(
+				this.name,
+				this.longsAction,
+				this.valueSeparator,
+				this.values,
+				this.allowMultiple);
+	}
+
+	/**
+	 * Converts the given Values into longs and invokes the Action with them.
+	 * <br/>
+	 * A {@link cli.ValueFormatException ValueFormatException}
+	 * is thrown with the Name of this Flag.
+	 * @param strings the Values
+	 * @throws ValueFormatException if a Value is not a long
+	 */
+	protected void convert(final String[] strings) {
+		final long[] values = new long[strings.length];
+		try {
+			for (int i = 0; i < strings.length; i++) {
+				values[i] = Values.parseLong(strings[i], 0, strings[i].length());
+			}
+		} catch (final ValueFormatException e) {
+			throw e.getFlag() == null ? e.forFlag(this.name) : e;
+		}
+		this.longsAction.accept(values);
+	}
+}
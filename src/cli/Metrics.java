@@ -0,0 +1,417 @@
+package cli;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Records, how often the {@link cli.Flag Flags} and {@link cli.Parser Parsers}
+ * of a {@link cli.CommandSet CommandSet} occur and how long their Actions
+ * and the whole Calls take.<br/>
+ * Is enabled by {@link cli.CommandSet.Builder#setMetricsEnabled(boolean)
+ * Builder.setMetricsEnabled}. All Counters are striped, so concurrent Calls
+ * do not contend on them.<br/>
+ * The current Values can be exported in the plain Text Format of Prometheus.
+ * @author Mario Schäper
+ */
+public class Metrics {
+	/** The Name of the Counters of all Calls handling Arguments. */
+	public static final String HANDLE = "handleArguments";
+	/** The Name of the Counters of all Calls parsing Arguments. */
+	public static final String PARSE = "parseArguments";
+	protected final Flag[] flags;
+	protected final Counters[] flagCounters;
+	protected final Parser[] parsers;
+	protected final Counters[] parserCounters;
+	protected final Map<Parser, Integer> parserPositions =
+			new IdentityHashMap<>();
+	protected final Counters handleCounters = new Counters();
+	protected final Counters parseCounters = new Counters();
+
+	/**
+	 * @param index the indexed Flags
+	 * @param parsers the Parsers
+	 */
+	public Metrics(final FlagIndex index, final List<Parser> parsers) {
+		this.flags = new Flag[index.size()];
+		this.flagCounters = new Counters[index.size()];
+		for (int i = 0; i < index.size(); i++) {
+			this.flags[i] = index.getFlag(i);
+			this.flagCounters[i] = new Counters();
+		}
+		for (Parser parser : parsers) {
+			this.parserPositions.putIfAbsent(parser, this.parserPositions.size());
+		}
+		this.parsers = new Parser[this.parserPositions.size()];
+		this.parserCounters = new Counters[this.parsers.length];
+		for (Map.Entry<Parser, Integer> entry : this.parserPositions.entrySet()) {
+			this.parsers[entry.getValue()] = entry.getKey();
+			this.parserCounters[entry.getValue()] = new Counters();
+		}
+	}
+
+	/**
+	 * Returns the Counters of the given {@link cli.Flag Flag}
+	 * or <b>null</b> if it is not recorded.
+	 * @param flag the Flag
+	 * @return the Counters or null
+	 */
+	public Counters getCounters(final Flag flag) {
+		for (int i = 0; i < this.flags.length; i++) {
+			if (this.flags[i] == flag) {
+				return this.flagCounters[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the Counters of the given {@link cli.Parser Parser}
+	 * or <b>null</b> if it is not recorded.
+	 * @param parser the Parser
+	 * @return the Counters or null
+	 */
+	public Counters getCounters(final Parser parser) {
+		final Integer position = this.parserPositions.get(parser);
+		return position == null ? null : this.parserCounters[position];
+	}
+
+	/**
+	 * Returns the Counters of all Calls with the given Name
+	 * ({@link #HANDLE} or {@link #PARSE}) or <b>null</b> if there are none.
+	 * @param call the Name of the Calls
+	 * @return the Counters or null
+	 */
+	public Counters getCounters(final String call) {
+		return Metrics.HANDLE.equals(call)
+				? this.handleCounters
+				: Metrics.PARSE.equals(call) ? this.parseCounters : null;
+	}
+
+	/**
+	 * Writes the current Values of all Counters in the plain Text Format
+	 * of Prometheus to the given Appendable.<br/>
+	 * Latencies are exported as Histograms in Nanoseconds
+	 * and the Sizes of Values as Counts of Characters.
+	 * @param out the Appendable
+	 * @throws UncheckedIOException if the Appendable can not be written
+	 */
+	public void export(final Appendable out) throws UncheckedIOException {
+		try {
+			for (String metric : new String[] {
+					"matches", "invocations", "errors", "value_chars"}) {
+				Metrics.type(out, "cli_flag_" + metric + "_total", "counter");
+				for (int i = 0; i < this.flags.length; i++) {
+					Metrics.sample(out, "cli_flag_" + metric + "_total",
+							Metrics.label("flag", this.flags[i].getName()),
+							this.flagCounters[i].get(metric));
+				}
+				Metrics.type(out, "cli_parser_" + metric + "_total", "counter");
+				for (int i = 0; i < this.parsers.length; i++) {
+					Metrics.sample(out, "cli_parser_" + metric + "_total",
+							Metrics.label("parser", this.parsers[i].getName()),
+							this.parserCounters[i].get(metric));
+				}
+			}
+			Metrics.type(out, "cli_flag_latency_nanos", "histogram");
+			for (int i = 0; i < this.flags.length; i++) {
+				this.flagCounters[i].latency.export(out, "cli_flag_latency_nanos",
+						Metrics.label("flag", this.flags[i].getName()));
+			}
+			Metrics.type(out, "cli_parser_latency_nanos", "histogram");
+			for (int i = 0; i < this.parsers.length; i++) {
+				this.parserCounters[i].latency.export(out, "cli_parser_latency_nanos",
+						Metrics.label("parser", this.parsers[i].getName()));
+			}
+			Metrics.type(out, "cli_call_errors_total", "counter");
+			Metrics.sample(out, "cli_call_errors_total",
+					Metrics.label("call", Metrics.HANDLE),
+					this.handleCounters.getErrors());
+			Metrics.sample(out, "cli_call_errors_total",
+					Metrics.label("call", Metrics.PARSE),
+					this.parseCounters.getErrors());
+			Metrics.type(out, "cli_call_latency_nanos", "histogram");
+			this.handleCounters.latency.export(out, "cli_call_latency_nanos",
+					Metrics.label("call", Metrics.HANDLE));
+			this.parseCounters.latency.export(out, "cli_call_latency_nanos",
+					Metrics.label("call", Metrics.PARSE));
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the current Values of all Counters in the plain Text Format
+	 * of Prometheus.
+	 * @return the Values
+	 * @see #export(Appendable)
+	 */
+	public String export() {
+		final StringBuilder out = new StringBuilder();
+		this.export(out);
+		return out.toString();
+	}
+
+	protected void matched(final int flag) {
+		this.flagCounters[flag].matches.increment();
+	}
+
+	protected void matched(final Parser parser) {
+		this.parserCounters[this.parserPositions.get(parser)].matches.increment();
+	}
+
+	protected void handle(
+			final int flag,
+			final String[] sources,
+			final int[] bounds,
+			final int count) {
+		final Counters counters = this.flagCounters[flag];
+		long chars = 0;
+		for (int i = 0; i < count; i++) {
+			chars += bounds[i * 2 + 1] - bounds[i * 2];
+		}
+		counters.invocations.increment();
+		counters.valueChars.add(chars);
+		final long start = System.nanoTime();
+		try {
+			this.flags[flag].handle(sources, bounds, count);
+		} catch (final RuntimeException | Error e) {
+			counters.errors.increment();
+			throw e;
+		} finally {
+			counters.latency.record(System.nanoTime() - start);
+		}
+	}
+
+	protected void parse(
+			final Parser parser,
+			final String[] values,
+			final Consumer<String> output) {
+		final Counters counters =
+				this.parserCounters[this.parserPositions.get(parser)];
+		long chars = 0;
+		for (String value : values) {
+			chars += value.length();
+		}
+		counters.invocations.increment();
+		counters.valueChars.add(chars);
+		final long start = System.nanoTime();
+		try {
+			parser.parse(values, output);
+		} catch (final RuntimeException | Error e) {
+			counters.errors.increment();
+			throw e;
+		} finally {
+			counters.latency.record(System.nanoTime() - start);
+		}
+	}
+
+	protected static void type(
+			final Appendable out,
+			final String name,
+			final String type)
+			throws IOException {
+		out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	protected static void sample(
+			final Appendable out,
+			final String name,
+			final String labels,
+			final long value)
+			throws IOException {
+		out.append(name).append('{').append(labels).append("} ")
+				.append(Long.toString(value)).append('\n');
+	}
+
+	protected static String label(final String name, final String value) {
+		return name + "=\"" + value.replace("\\", "\\\\")
+				.replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+	}
+
+	/**
+	 * The Counters of a single {@link cli.Flag Flag},
+	 * {@link cli.Parser Parser} or Kind of Call.
+	 */
+	public static class Counters {
+		protected final LongAdder matches = new LongAdder();
+		protected final LongAdder invocations = new LongAdder();
+		protected final LongAdder errors = new LongAdder();
+		protected final LongAdder valueChars = new LongAdder();
+		protected final Histogram latency = new Histogram();
+
+		protected Counters() {
+		}
+
+		/**
+		 * Returns, how often the Command occured in Arguments.
+		 * @return the Amount of Matches
+		 */
+		public long getMatches() {
+			return this.matches.sum();
+		}
+
+		/**
+		 * Returns, how often the Action or Call was invoked.
+		 * @return the Amount of Invocations
+		 */
+		public long getInvocations() {
+			return this.invocations.sum();
+		}
+
+		/**
+		 * Returns, how often the Action or Call threw an Exception.
+		 * @return the Amount of Errors
+		 */
+		public long getErrors() {
+			return this.errors.sum();
+		}
+
+		/**
+		 * Returns the Sum of the Lengths of all Values, that were handled.
+		 * @return the Amount of Characters
+		 */
+		public long getValueChars() {
+			return this.valueChars.sum();
+		}
+
+		/**
+		 * Returns the Durations of the Action or Call in Nanoseconds.
+		 * @return the Histogram of the Durations
+		 */
+		public Histogram getLatency() {
+			return this.latency;
+		}
+
+		protected long get(final String metric) {
+			switch (metric) {
+				case "matches":
+					return this.getMatches();
+				case "invocations":
+					return this.getInvocations();
+				case "errors":
+					return this.getErrors();
+				default:
+					return this.getValueChars();
+			}
+		}
+	}
+
+	/**
+	 * A Histogram of Durations in Nanoseconds with a Bucket
+	 * for each Power of two.
+	 */
+	public static class Histogram {
+		protected final LongAdder[] buckets = new LongAdder[64];
+		protected final LongAdder sum = new LongAdder();
+		protected final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+		protected Histogram() {
+			for (int i = 0; i < this.buckets.length; i++) {
+				this.buckets[i] = new LongAdder();
+			}
+		}
+
+		/**
+		 * Records the given Duration.
+		 * @param nanos the Duration in Nanoseconds
+		 */
+		public void record(final long nanos) {
+			final long value = Math.max(0, nanos);
+			this.buckets[Histogram.bucket(value)].increment();
+			this.sum.add(value);
+			this.max.accumulate(value);
+		}
+
+		/**
+		 * Returns the Amount of recorded Durations.
+		 * @return the Amount
+		 */
+		public long getCount() {
+			long count = 0;
+			for (LongAdder bucket : this.buckets) {
+				count += bucket.sum();
+			}
+			return count;
+		}
+
+		/**
+		 * Returns the Sum of all recorded Durations.
+		 * @return the Sum in Nanoseconds
+		 */
+		public long getSum() {
+			return this.sum.sum();
+		}
+
+		/**
+		 * Returns the longest recorded Duration.
+		 * @return the Maximum in Nanoseconds
+		 */
+		public long getMax() {
+			return this.max.get();
+		}
+
+		/**
+		 * Returns an upper Bound of the given Percentile
+		 * of the recorded Durations, which is at most twice as large.
+		 * @param percentile the Percentile between 0 and 100
+		 * @return the upper Bound in Nanoseconds
+		 */
+		public long getPercentile(final double percentile) {
+			final long[] counts = new long[this.buckets.length];
+			long total = 0;
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = this.buckets[i].sum();
+				total += counts[i];
+			}
+			final long rank = (long)Math.ceil(total * percentile / 100);
+			long count = 0;
+			for (int i = 0; i < counts.length; i++) {
+				count += counts[i];
+				if (count >= rank && count > 0) {
+					return Math.min(Histogram.upperBound(i), this.getMax());
+				}
+			}
+			return 0;
+		}
+
+		protected void export(
+				final Appendable out,
+				final String name,
+				final String labels)
+				throws IOException {
+			final long[] counts = new long[this.buckets.length];
+			int highest = 0;
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = this.buckets[i].sum();
+				if (counts[i] != 0) {
+					highest = i;
+				}
+			}
+			long count = 0;
+			for (int i = 0; i <= highest; i++) {
+				count += counts[i];
+				out.append(name).append("_bucket{").append(labels)
+						.append(",le=\"").append(Long.toString(Histogram.upperBound(i)))
+						.append("\"} ").append(Long.toString(count)).append('\n');
+			}
+			out.append(name).append("_bucket{").append(labels)
+					.append(",le=\"+Inf\"} ").append(Long.toString(count)).append('\n');
+			Metrics.sample(out, name + "_sum", labels, this.getSum());
+			Metrics.sample(out, name + "_count", labels, count);
+		}
+
+		protected static int bucket(final long nanos) {
+			return Math.min(63, 64 - Long.numberOfLeadingZeros(nanos));
+		}
+
+		protected static long upperBound(final int bucket) {
+			return bucket == 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+		}
+	}
+}
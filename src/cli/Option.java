@@ -0,0 +1,51 @@
+package cli;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a Field of an {@link cli.Options Options} Class,
+ * that is set from the Values of a Flag.<br/>
+ * The Field must neither be private, static nor final.
+ * Supported Types are <em>boolean</em>, <em>int</em>, <em>long</em>,
+ * <em>double</em> and <em>String</em>, which expect a single Value,
+ * and Arrays of them, except boolean, which expect the declared Amount
+ * of Values. A boolean without Values is set to <b>true</b>,
+ * when the Flag occurs.
+ * If multiple Occurences are allowed, the last one determines the Field.
+ * @author Mario Schäper
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Option {
+	/**
+	 * The Name/Prefix of the Flag (e.g. "-f", "--options").
+	 * @return the Name
+	 */
+	String name();
+
+	/**
+	 * The Separation of Key and Values
+	 * (e.g. "-" -> "--options-value1-value2").
+	 * @return the valueSeparator
+	 */
+	String valueSeparator() default "-";
+
+	/**
+	 * The Amount of Values expected or <b>-1</b> to derive it from the Type
+	 * of the Field, which is <b>0</b> for booleans and <b>1</b> otherwise.
+	 * Has to be declared for Arrays.
+	 * @return the Amount of Values
+	 */
+	int values() default -1;
+
+	/**
+	 * Whether multiple Occurences should be possible.
+	 * @return whether multiple Occurences are allowed
+	 */
+	boolean allowMultiple() default false;
+}
@@ -0,0 +1,30 @@
+package cli;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a Class, whose Fields annotated with {@link cli.Option Option}
+ * are set from the Arguments of a CLI Input.<br/>
+ * The {@link cli.processor.OptionsProcessor OptionsProcessor} generates
+ * an {@link cli.ArgumentHandler ArgumentHandler} for it at Compile Time,
+ * which is named after the Class followed by <em>"Parser"</em> and placed
+ * in the same Package. It matches the Arguments by switching on their
+ * Content and sets the Fields directly, so no {@link cli.Flag Flags}
+ * have to be created at Runtime.
+ * @author Mario Schäper
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Options {
+	/**
+	 * The simple Name of the generated Class or an empty String
+	 * for the Name of the annotated Class followed by <em>"Parser"</em>.
+	 * @return the Name
+	 */
+	String className() default "";
+}
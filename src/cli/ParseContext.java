@@ -0,0 +1,295 @@
+package cli;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * The reusable Scratch Buffers of Parsing and Handling Arguments
+ * with a {@link cli.CommandSet CommandSet}.<br/>
+ * The Buffers only grow, so once a Context has been used with the largest
+ * Arguments, further Calls with it allocate nothing but what the Actions
+ * of the {@link cli.Flag Flags} and {@link cli.Parser Parsers} receive.
+ * <br/>
+ * A Context can only be used by one Call at a Time and is not thread-safe.
+ * The Lists of the resulting Arguments are Views of its Buffers, that are
+ * only valid until the Context is used again. The Context holds References
+ * to the Arguments of its last Use until it is used again or reset.<br/>
+ * The Methods of the CommandSet, that take no Context, use the Context
+ * of the current Thread, unless it is already in Use. It only keeps
+ * Buffers for up to {@link #RETAINED_ARGS} Arguments between Calls,
+ * so a single large Input does not stay allocated in every Thread.
+ * @author Mario Schäper
+ * @see cli.CommandSet#handleArguments(ParseContext, String...)
+ * @see cli.CommandSet#parseArguments(ParseContext, String...)
+ */
+public class ParseContext {
+	/**
+	 * The largest Amount of Arguments, whose Buffers the Context
+	 * of a Thread keeps between Calls.
+	 */
+	protected static final int RETAINED_ARGS = 1024;
+	protected static final ThreadLocal<ParseContext> LOCAL =
+			ThreadLocal.withInitial(ParseContext::new);
+	protected final Cursor cursor = new Cursor();
+	protected final Buffer ignoredArgs = new Buffer();
+	protected final Buffer parsedArgs = new Buffer();
+	protected final List<String> ignoredView =
+			Collections.unmodifiableList(this.ignoredArgs);
+	protected final List<String> parsedView =
+			Collections.unmodifiableList(this.parsedArgs);
+	protected long[] usedFlags = new long[0];
+	protected String[] sources = new String[0];
+	protected int[] bounds = new int[0];
+	protected CommandSet.ParserStack stack;
+	protected Diagnostics diagnostics;
+	protected Diagnostics activeDiagnostics;
+	protected boolean inUse;
+
+	/**
+	 * Returns the Context of the current Thread.
+	 * @return the Context
+	 */
+	public static ParseContext get() {
+		return ParseContext.LOCAL.get();
+	}
+
+	/**
+	 * Returns the Arguments, that could not be resolved
+	 * by the last Call handling Arguments.
+	 * @return the unmodifiable View of the leftover Arguments
+	 */
+	public List<String> getIgnoredArgs() {
+		return this.ignoredView;
+	}
+
+	/**
+	 * Returns the resulting Arguments of the last Call parsing Arguments.
+	 * @return the unmodifiable View of the resulting Arguments
+	 */
+	public List<String> getParsedArgs() {
+		return this.parsedView;
+	}
+
+	/**
+	 * Sets the Collector of the Formatting Errors or <b>null</b>,
+	 * so the Errors are thrown as Exceptions.<br/>
+	 * While a {@link cli.Diagnostics Diagnostics} is set, Calls with this
+	 * Context record every invalid Occurence of a {@link cli.Flag Flag}
+	 * and continue instead of throwing an IllegalArgumentException.
+	 * The Diagnostics only apply to Calls, that are given this Context,
+	 * so the Methods of the CommandSet, that take no Context, always throw,
+	 * even if this is the Context of the current Thread.<br/>
+	 * Exceptions thrown by the Actions are not collected.
+	 * @param diagnostics the Collector or null
+	 */
+	public void setDiagnostics(final Diagnostics diagnostics) {
+		this.diagnostics = diagnostics;
+	}
+
+	/**
+	 * Returns the Collector of the Formatting Errors or <b>null</b>,
+	 * if the Errors are thrown as Exceptions.
+	 * @return the Collector or null
+	 */
+	public Diagnostics getDiagnostics() {
+		return this.diagnostics;
+	}
+
+	/**
+	 * Releases the References to the Arguments of the last Use,
+	 * but keeps the Buffers.
+	 * @throws IllegalStateException if the Context is in Use
+	 */
+	public void reset() throws IllegalStateException {
+		if (this.inUse) {
+			throw new IllegalStateException("Context in use");
+		}
+		this.ignoredArgs.clear();
+		this.parsedArgs.clear();
+		this.cursor.reset(null);
+		Arrays.fill(this.sources, null);
+		if (this.stack != null) {
+			this.stack.reset(null, null);
+		}
+	}
+
+	/**
+	 * Returns the Context of the current Thread or a new Context,
+	 * if it is already in Use, and acquires it.
+	 * @return the acquired Context
+	 */
+	protected static ParseContext acquireLocal() {
+		final ParseContext context = ParseContext.LOCAL.get();
+		return (context.inUse ? new ParseContext() : context).acquire(null);
+	}
+
+	protected ParseContext acquire() throws IllegalStateException {
+		return this.acquire(this.diagnostics);
+	}
+
+	/**
+	 * Acquires this Context for a Call, that records its Formatting Errors
+	 * in the given {@link cli.Diagnostics Diagnostics}
+	 * or throws them, if it is <b>null</b>.
+	 * @param diagnostics the Collector or null
+	 * @return this Context
+	 * @throws IllegalStateException if the Context is in Use
+	 */
+	protected ParseContext acquire(final Diagnostics diagnostics)
+			throws IllegalStateException {
+		if (this.inUse) {
+			throw new IllegalStateException("Context in use");
+		}
+		this.inUse = true;
+		this.activeDiagnostics = diagnostics;
+		return this;
+	}
+
+	protected void release() {
+		this.inUse = false;
+		this.activeDiagnostics = null;
+	}
+
+	/**
+	 * Releases this Context and the References to the Arguments,
+	 * as the Context of a Thread is not returned to the Caller,
+	 * and drops the Buffers, that exceed {@link #RETAINED_ARGS} Arguments.
+	 */
+	protected void releaseLocal() {
+		this.release();
+		this.reset();
+		if (this.ignoredArgs.args.length > ParseContext.RETAINED_ARGS) {
+			this.ignoredArgs.args = new String[16];
+		}
+		if (this.parsedArgs.args.length > ParseContext.RETAINED_ARGS) {
+			this.parsedArgs.args = new String[16];
+		}
+		if (this.sources.length > ParseContext.RETAINED_ARGS) {
+			this.sources = new String[0];
+			this.bounds = new int[0];
+		}
+		if (this.stack != null
+				&& this.stack.capacity() > ParseContext.RETAINED_ARGS) {
+			this.stack = null;
+		}
+	}
+
+	protected Iterator<String> cursor(final String[] args) {
+		this.cursor.reset(args);
+		return this.cursor;
+	}
+
+	/**
+	 * Returns the cleared Bits of the given Amount of Flags.
+	 * @param flags the Amount of Flags
+	 * @return the Bits
+	 */
+	protected long[] usedFlags(final int flags) {
+		final int length = (flags + 63) >>> 6;
+		if (this.usedFlags.length < length) {
+			this.usedFlags = new long[length];
+		} else {
+			Arrays.fill(this.usedFlags, 0, length, 0);
+		}
+		return this.usedFlags;
+	}
+
+	protected String[] sources(final int values) {
+		if (this.sources.length < values) {
+			this.sources = new String[values];
+		}
+		return this.sources;
+	}
+
+	protected int[] bounds(final int values) {
+		if (this.bounds.length < values * 2) {
+			this.bounds = new int[values * 2];
+		}
+		return this.bounds;
+	}
+
+	protected CommandSet.ParserStack stack(
+			final CommandSet commands,
+			final Consumer<String> output) {
+		if (this.stack == null) {
+			this.stack = new CommandSet.ParserStack(commands, output);
+		} else {
+			this.stack.reset(commands, output);
+		}
+		this.stack.diagnostics = this.activeDiagnostics;
+		return this.stack;
+	}
+
+	/**
+	 * A reusable Iterator over an Array of Arguments.
+	 */
+	protected static class Cursor implements Iterator<String> {
+		protected String[] args;
+		protected int position;
+
+		protected void reset(final String[] args) {
+			this.args = args;
+			this.position = 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.position < this.args.length;
+		}
+
+		@Override
+		public String next() {
+			if (this.position >= this.args.length) {
+				throw new NoSuchElementException();
+			}
+			return this.args[this.position++];
+		}
+	}
+
+	/**
+	 * A growable Buffer of Arguments, that is also the Consumer
+	 * of the Arguments it collects.
+	 */
+	protected static class Buffer extends AbstractList<String>
+			implements Consumer<String> {
+		protected String[] args = new String[16];
+		protected int size;
+
+		@Override
+		public void accept(final String arg) {
+			if (this.size == this.args.length) {
+				this.args = Arrays.copyOf(this.args, this.size * 2);
+			}
+			this.args[this.size++] = arg;
+		}
+
+		@Override
+		public String get(final int index) {
+			if (index >= this.size) {
+				throw new IndexOutOfBoundsException(Integer.toString(index));
+			}
+			return this.args[index];
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+
+		@Override
+		public void clear() {
+			Arrays.fill(this.args, 0, this.size, null);
+			this.size = 0;
+		}
+
+		@Override
+		public String[] toArray() {
+			return Arrays.copyOf(this.args, this.size);
+		}
+	}
+}
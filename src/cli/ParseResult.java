@@ -0,0 +1,300 @@
+package cli;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * The immutable Result of resolving {@link cli.Flag Flags}
+ * in Arguments without calling their Actions.<br/>
+ * Only the Positions of the Values of each Occurence are recorded.
+ * The Occurences are indexed by their Flag once, when the first Flag
+ * is looked up, so each further Lookup only costs about the Logarithm
+ * of the Amount of Occurences. Values are sliced out of the Arguments and converted
+ * only when requested. The sliced Values and the last Conversion
+ * of each Occurence are cached for following Requests,
+ * so Flags, that are never requested, cost no Allocation.<br/>
+ * Returned Arrays are shared by all Requests and must not be modified.
+ * @author Mario Schäper
+ */
+public class ParseResult {
+	protected final CommandSet commands;
+	protected final String[] ignoredArgs;
+	protected final int[] offsets;
+	protected final String[] sources;
+	protected final int[] bounds;
+	protected final int[] flags;
+	protected final Cached[] cache;
+	protected volatile long[] index;
+
+	protected ParseResult(final CommandSet commands, final Recorder recorder) {
+		this.commands = commands;
+		this.ignoredArgs = recorder.ignoredArgs;
+		this.offsets = recorder.offsets;
+		this.sources = recorder.sources;
+		this.bounds = recorder.bounds;
+		this.flags = recorder.flags;
+		this.cache = new Cached[recorder.occurrences];
+	}
+
+	/**
+	 * Returns the Occurences sorted by their Flag and then by their Order.
+	 * Each Occurence is encoded as the Position of its Flag
+	 * in the upper and its own Index in the lower 32 Bits.<br/>
+	 * They are sorted, when they are requested for the first Time.
+	 * @return the sorted Occurences
+	 */
+	protected long[] index() {
+		long[] index = this.index;
+		if (index == null) {
+			// sorting them twice is harmless, as the Result is the same
+			index = new long[this.cache.length];
+			for (int i = 0; i < index.length; i++) {
+				index[i] = (long)this.flags[i] << 32 | i;
+			}
+			Arrays.sort(index);
+			this.index = index;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the Arguments, that could not be resolved.
+	 * @return the leftover Arguments
+	 */
+	public String[] getIgnoredArgs() {
+		return this.ignoredArgs;
+	}
+
+	/**
+	 * Returns the Amount of Occurences of the given {@link cli.Flag Flag}.
+	 * @param flag the Flag
+	 * @return the Amount of Occurences
+	 */
+	public int count(final Flag flag) {
+		final int position = this.commands.positionOf(flag);
+		if (position == -1) {
+			return 0;
+		}
+		return this.first(position + 1) - this.first(position);
+	}
+
+	/**
+	 * Returns, whether the given {@link cli.Flag Flag} occured.
+	 * @param flag the Flag
+	 * @return whether the Flag occured
+	 */
+	public boolean has(final Flag flag) {
+		return this.occurrence(flag, 0) != -1;
+	}
+
+	/**
+	 * Returns, whether the {@link cli.Flag Flag} with the given Name occured.
+	 * @param name the Name of the Flag
+	 * @return whether the Flag occured
+	 */
+	public boolean has(final String name) {
+		return this.has(this.commands.getFlagByName(name));
+	}
+
+	/**
+	 * Returns the Values of the first Occurence of the given
+	 * {@link cli.Flag Flag} or <b>null</b> if it did not occur.
+	 * @param flag the Flag
+	 * @return the Values or null
+	 */
+	public String[] getValues(final Flag flag) {
+		return this.getValues(flag, 0);
+	}
+
+	/**
+	 * Returns the Values of the first Occurence of the
+	 * {@link cli.Flag Flag} with the given Name
+	 * or <b>null</b> if it did not occur.
+	 * @param name the Name of the Flag
+	 * @return the Values or null
+	 */
+	public String[] getValues(final String name) {
+		return this.getValues(this.commands.getFlagByName(name), 0);
+	}
+
+	/**
+	 * Returns the Values of the given Occurence of the given
+	 * {@link cli.Flag Flag} or <b>null</b> if it did not occur as often.
+	 * @param flag the Flag
+	 * @param occurrence the Number of the Occurence, starting with 0
+	 * @return the Values or null
+	 */
+	public String[] getValues(final Flag flag, final int occurrence) {
+		return this.convert(flag, occurrence, null);
+	}
+
+	/**
+	 * Returns the first Value of the first Occurence of the
+	 * {@link cli.Flag Flag} with the given Name
+	 * or <b>null</b> if it did not occur or has no Values.
+	 * @param name the Name of the Flag
+	 * @return the Value or null
+	 */
+	public String getValue(final String name) {
+		final String[] values = this.getValues(name);
+		return values == null || values.length == 0 ? null : values[0];
+	}
+
+	/**
+	 * Returns the converted Values of the first Occurence of the given
+	 * {@link cli.Flag Flag} or <b>null</b> if it did not occur.
+	 * @param flag the Flag
+	 * @param converter the Conversion of the Values
+	 * @return the converted Values or null
+	 * @see #convert(Flag, int, Function)
+	 */
+	public <T> T convert(
+			final Flag flag,
+			final Function<? super String[], ? extends T> converter) {
+		return this.convert(flag, 0, converter);
+	}
+
+	/**
+	 * Returns the converted Values of the given Occurence of the given
+	 * {@link cli.Flag Flag} or <b>null</b> if it did not occur as often.<br/>
+	 * The sliced Values and the Result of the last Conversion of each
+	 * Occurence are cached, so the Values are sliced only once and the
+	 * Result is returned again, when the same Converter is requested.
+	 * The Conversion might run more than once, if multiple Threads request it
+	 * at the same Time, so it should be free of Side Effects.
+	 * @param flag the Flag
+	 * @param occurrence the Number of the Occurence, starting with 0
+	 * @param converter the Conversion of the Values
+	 * or <b>null</b> to get the Values themselves
+	 * @return the converted Values or null
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T convert(
+			final Flag flag,
+			final int occurrence,
+			final Function<? super String[], ? extends T> converter) {
+		final int index = this.occurrence(flag, occurrence);
+		if (index == -1) {
+			return null;
+		}
+		Cached cached = this.cache[index];
+		if (cached == null || cached.converter != converter) {
+			final String[] values = cached == null
+					? this.slice(index)
+					: cached.values;
+			cached = new Cached(
+					values,
+					converter,
+					converter == null ? values : converter.apply(values));
+			this.cache[index] = cached;
+		}
+		return (T)cached.value;
+	}
+
+	/**
+	 * Returns the Index of the given Occurence of the given
+	 * {@link cli.Flag Flag} or <b>-1</b> if it did not occur as often.
+	 * @param flag the Flag
+	 * @param occurrence the Number of the Occurence, starting with 0
+	 * @return the Index of the Occurence or -1
+	 */
+	protected int occurrence(final Flag flag, final int occurrence) {
+		final int position = this.commands.positionOf(flag);
+		if (position == -1 || occurrence < 0) {
+			return -1;
+		}
+		final int first = this.first(position);
+		if (occurrence >= this.first(position + 1) - first) {
+			return -1;
+		}
+		return (int)this.index()[first + occurrence];
+	}
+
+	/**
+	 * Returns the Index of the first Occurence in the sorted Occurences,
+	 * whose Flag is at the given or a later Position.
+	 * @param position the Position of the Flag
+	 * @return the Index in the sorted Occurences
+	 */
+	protected int first(final int position) {
+		final long[] index = this.index();
+		final long key = (long)position << 32;
+		int low = 0;
+		int high = index.length;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (index[middle] < key) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	protected String[] slice(final int occurrence) {
+		final int offset = this.offsets[occurrence];
+		final String[] values =
+				new String[this.offsets[occurrence + 1] - offset];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = this.sources[offset + i].substring(
+					this.bounds[(offset + i) * 2],
+					this.bounds[(offset + i) * 2 + 1]);
+		}
+		return values;
+	}
+
+	/**
+	 * The sliced Values of an Occurence and their last Conversion.
+	 * Its final Fields ensure the safe Publication of the Value to other Threads.
+	 */
+	protected static class Cached {
+		protected final String[] values;
+		protected final Function<?, ?> converter;
+		protected final Object value;
+
+		protected Cached(
+				final String[] values,
+				final Function<?, ?> converter,
+				final Object value) {
+			this.values = values;
+			this.converter = converter;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Records the Positions of the Values of each Occurence.
+	 */
+	protected static class Recorder implements CommandSet.Occurrences {
+		protected String[] ignoredArgs;
+		protected int occurrences;
+		protected int values;
+		protected int[] flags = new int[8];
+		protected int[] offsets = new int[9];
+		protected String[] sources = new String[8];
+		protected int[] bounds = new int[16];
+
+		@Override
+		public void accept(
+				final int flag,
+				final String[] sources,
+				final int[] bounds,
+				final int count) {
+			if (this.occurrences == this.flags.length) {
+				this.flags = Arrays.copyOf(this.flags, this.occurrences * 2);
+				this.offsets = Arrays.copyOf(this.offsets, this.occurrences * 2 + 1);
+			}
+			if (this.values + count > this.sources.length) {
+				final int length = Math.max(this.values + count, this.values * 2);
+				this.sources = Arrays.copyOf(this.sources, length);
+				this.bounds = Arrays.copyOf(this.bounds, length * 2);
+			}
+			System.arraycopy(sources, 0, this.sources, this.values, count);
+			System.arraycopy(bounds, 0, this.bounds, this.values * 2, count * 2);
+			this.flags[this.occurrences] = flag;
+			this.values += count;
+			this.offsets[++this.occurrences] = this.values;
+		}
+	}
+}
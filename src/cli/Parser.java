@@ -1,5 +1,6 @@
 package cli;
 
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -12,6 +13,7 @@ public class Parser extends Command {
 	protected static String defaultSuffix = null;
 	protected Function<String[], String> action;
 	protected String suffix;
+	protected ParserCache cache;
 
 	/**
 	 * Determines the Suffix, with which new Parsers are instanciated.
@@ -81,6 +83,13 @@ public class Parser extends Command {
 		this(name, action, Parser.defaultValues);
 	}
 
+	/**
+	 * Creates a Parser without any Values,
+	 * that have to be assigned without Validation.
+	 */
+	protected Parser() {
+	}
+
 	/**
 	 * Determines the Action, that is called,
 	 * when a Occurence of this Parser is parsed.<br/>
@@ -131,6 +140,28 @@ public class Parser extends Command {
 		return this.suffix;
 	}
 
+	/**
+	 * Marks the Action of this Parser as pure and caches its Results
+	 * in the given {@link cli.ParserCache ParserCache},
+	 * so repeated Occurences with equal Values do not call it again.<br/>
+	 * The Action must always return the same Result for equal Values
+	 * and must not have Side Effects.
+	 * A Cache may be shared by Parsers with the same Action.
+	 * @param cache the Cache or <b>null</b> to call the Action every Time
+	 */
+	public void setCache(final ParserCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Returns the {@link cli.ParserCache ParserCache} of the Results
+	 * of the Action or <b>null</b> if it is not cached.
+	 * @return the Cache or null
+	 */
+	public ParserCache getCache() {
+		return this.cache;
+	}
+
 	/**
 	 * Returns, whether the given String fits this Parser.
 	 * @param str the String
@@ -140,6 +171,31 @@ public class Parser extends Command {
 		return this.name.equals(str);
 	}
 
+	/**
+	 * Parses an Occurence of this Parser.<br/>
+	 * Returns the cached Result for the given Values
+	 * or invokes the Action with them.
+	 * @param values the Values
+	 * @return the Result
+	 */
+	protected String parse(final String[] values) {
+		return this.cache == null
+				? this.action.apply(values)
+				: this.cache.get(values, this.action);
+	}
+
+	/**
+	 * Parses an Occurence of this Parser and passes the resulting
+	 * Arguments to the given Consumer, which splices them into the
+	 * Arguments in Place of the Occurence.<br/>
+	 * Passes the single Result of {@link #parse(String[])}.
+	 * @param values the Values
+	 * @param output the Consumer of the resulting Arguments
+	 */
+	protected void parse(final String[] values, final Consumer<String> output) {
+		output.accept(this.parse(values));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -171,11 +227,13 @@ public class Parser extends Command {
 	 */
 	@Override
 	protected Object clone() {
-		return new Parser(
+		final Parser parser = new Parser(
 				this.name,
 				this.action,
 				this.values,
 				this.suffix);
+		parser.setCache(this.cache);
+		return parser;
 	}
 
 	protected static void checkSuffix(final String suffix)
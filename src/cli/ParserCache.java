@@ -0,0 +1,262 @@
+package cli;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded Cache of the Results of a pure {@link cli.Parser Parser} Action,
+ * keyed by the Values it was invoked with.<br/>
+ * The Entries are split into independently locked Segments by the Hash
+ * of their Values, so the Cache can be shared by many Threads.
+ * There are at most four Segments per Processor, but only as many,
+ * that each Segment holds at least 16 Entries, so a small Cache
+ * is not split into Segments, that can hardly hold any Entry,
+ * and a Cache of fewer than 32 Entries has a single Segment.
+ * Each Segment gets an equal Share of the maximum Amount of Entries and of
+ * the maximum Weight, the Sum of the Lengths of all cached Values and
+ * Results, and evicts its least recently used Entries, once either of its
+ * Shares is exceeded. The Cache therefore never exceeds its Limits,
+ * but a Segment with many Entries may evict, while others are not full,
+ * and an Entry heavier than the Share of the Weight is not kept.
+ * The Action is called outside of any Lock and might be called more than once
+ * for the same Values, if multiple Threads miss them at the same Time.
+ * @author Mario Schäper
+ */
+public class ParserCache {
+	protected static final int MIN_SEGMENT_ENTRIES = 16;
+	protected final Segment[] segments;
+	protected final int maxEntries;
+	protected final long maxWeight;
+	protected final LongAdder hits = new LongAdder();
+	protected final LongAdder misses = new LongAdder();
+	protected final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param maxEntries the maximum Amount of Entries
+	 * @param maxWeight the maximum Sum of the Lengths of all cached
+	 * Values and Results
+	 * @throws IllegalArgumentException if a Limit is not positive
+	 */
+	public ParserCache(final int maxEntries, final long maxWeight)
+			throws IllegalArgumentException {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException(
+					"Invalid maximum entries \"" + maxEntries + "\"");
+		}
+		if (maxWeight <= 0) {
+			throw new IllegalArgumentException(
+					"Invalid maximum weight \"" + maxWeight + "\"");
+		}
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeight;
+		final int count = Math.min(
+				Integer.highestOneBit(
+						Runtime.getRuntime().availableProcessors() * 4 - 1) << 1,
+				Integer.highestOneBit((int)Math.max(1, Math.min(maxEntries, maxWeight)
+						/ ParserCache.MIN_SEGMENT_ENTRIES)));
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			this.segments[i] = new Segment(
+					maxEntries / count + (i < maxEntries % count ? 1 : 0),
+					maxWeight / count + (i < maxWeight % count ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Uses no Limit of the Weight.
+	 * @param maxEntries the maximum Amount of Entries
+	 * @throws IllegalArgumentException if the Limit is not positive
+	 */
+	public ParserCache(final int maxEntries) throws IllegalArgumentException {
+		this(maxEntries, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the cached Result for the given Values or calls the Action
+	 * with them and caches its Result.<br/>
+	 * Results of Actions, that throw an Exception, are not cached.
+	 * @param values the Values
+	 * @param action the Action
+	 * @return the Result
+	 */
+	public String get(
+			final String[] values,
+			final Function<String[], String> action) {
+		final int hash = ParserCache.spread(Arrays.hashCode(values));
+		final Segment segment = this.segments[hash & (this.segments.length - 1)];
+		final Key lookup = new Key(values, hash, 0);
+		synchronized (segment) {
+			final String result = segment.get(lookup);
+			if (result != null || segment.containsKey(lookup)) {
+				this.hits.increment();
+				return result;
+			}
+		}
+		this.misses.increment();
+		final Key key = new Key(values.clone(), hash, ParserCache.weight(values));
+		final String result = action.apply(values);
+		synchronized (segment) {
+			if (!segment.containsKey(key)) {
+				segment.weight += key.weight + ParserCache.weight(result);
+				segment.put(key, result);
+				this.evict(segment);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Removes all Entries.
+	 */
+	public void clear() {
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				segment.clear();
+				segment.weight = 0;
+			}
+		}
+	}
+
+	/**
+	 * Returns the Amount of cached Entries.
+	 * @return the Amount of Entries
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the maximum Amount of Entries.
+	 * @return the maximum Amount of Entries
+	 */
+	public int getMaxEntries() {
+		return this.maxEntries;
+	}
+
+	/**
+	 * Returns the maximum Sum of the Lengths of all cached Values and Results.
+	 * @return the maximum Weight
+	 */
+	public long getMaxWeight() {
+		return this.maxWeight;
+	}
+
+	/**
+	 * Returns the Amount of Requests, that were answered from this Cache.
+	 * @return the Amount of Hits
+	 */
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Returns the Amount of Requests, that called the Action.
+	 * @return the Amount of Misses
+	 */
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Returns the Amount of Entries, that were evicted to respect the Limits.
+	 * @return the Amount of Evictions
+	 */
+	public long getEvictions() {
+		return this.evictions.sum();
+	}
+
+	/**
+	 * Returns the Counters of this Cache.
+	 * @return the Counters
+	 */
+	@Override
+	public String toString() {
+		return "ParserCache[size=" + this.size()
+				+ ",hits=" + this.getHits()
+				+ ",misses=" + this.getMisses()
+				+ ",evictions=" + this.getEvictions() + "]";
+	}
+
+	protected void evict(final Segment segment) {
+		final Iterator<Map.Entry<Key, String>> entries =
+				segment.entrySet().iterator();
+		while ((segment.size() > segment.maxEntries
+					|| segment.weight > segment.maxWeight)
+				&& entries.hasNext()) {
+			final Map.Entry<Key, String> eldest = entries.next();
+			segment.weight -= eldest.getKey().weight
+					+ ParserCache.weight(eldest.getValue());
+			entries.remove();
+			this.evictions.increment();
+		}
+	}
+
+	protected static int spread(final int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	protected static long weight(final String str) {
+		return str == null ? 0 : str.length();
+	}
+
+	protected static long weight(final String[] values) {
+		long weight = 0;
+		for (String value : values) {
+			weight += ParserCache.weight(value);
+		}
+		return weight;
+	}
+
+	/**
+	 * A Segment of Entries in the Order of their last Access.
+	 */
+	protected static class Segment extends LinkedHashMap<Key, String> {
+		private static final long serialVersionUID = 1L;
+		protected final int maxEntries;
+		protected final long maxWeight;
+		protected long weight;
+
+		protected Segment(final int maxEntries, final long maxWeight) {
+			super(16, 0.75f, true);
+			this.maxEntries = maxEntries;
+			this.maxWeight = maxWeight;
+		}
+	}
+
+	/**
+	 * The Values of an Entry with their precomputed Hash.
+	 */
+	protected static class Key {
+		protected final String[] values;
+		protected final int hash;
+		protected final long weight;
+
+		protected Key(final String[] values, final int hash, final long weight) {
+			this.values = values;
+			this.hash = hash;
+			this.weight = weight;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			return other instanceof Key
+					&& ((Key)other).hash == this.hash
+					&& Arrays.equals(((Key)other).values, this.values);
+		}
+	}
+}
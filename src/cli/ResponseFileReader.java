@@ -0,0 +1,197 @@
+package cli;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Expands Response Files in Arguments of a CLI Input.<br/>
+ * An Argument <em>"@path"</em> is replaced by the Arguments
+ * contained in the File at <em>path</em>, which may be Response Files
+ * themselves, up to a maximum Depth.
+ * The Files are memory-mapped and tokenized directly from the mapped Bytes,
+ * following the Rules of the {@link cli.ArgumentReader ArgumentReader},
+ * and only the Argument being read is decoded as UTF-8.<br/>
+ * Can be passed to the streaming Methods of a
+ * {@link cli.CommandSet CommandSet} or enabled for all of its Methods by
+ * {@link cli.CommandSet.Builder#setResponseFiles(int)}.
+ * @author Mario Schäper
+ */
+public class ResponseFileReader implements Iterator<String> {
+	protected static final int DEFAULT_MAX_DEPTH = 16;
+	protected final Iterator<String> args;
+	protected final int maxDepth;
+	protected MappedByteBuffer[] files = new MappedByteBuffer[4];
+	protected int depth;
+	protected byte[] token = new byte[256];
+	protected String next;
+
+	/**
+	 * @param args the Arguments
+	 * @param maxDepth the maximum Depth of nested Response Files
+	 */
+	public ResponseFileReader(final Iterator<String> args, final int maxDepth) {
+		if (args == null) {
+			throw new IllegalArgumentException("Invalid arguments");
+		}
+		if (maxDepth < 0) {
+			throw new IllegalArgumentException(
+					"Invalid maximum depth \"" + maxDepth + "\"");
+		}
+		this.args = args;
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * Uses the default maximum Depth of nested Response Files of 16.
+	 * @param args the Arguments
+	 */
+	public ResponseFileReader(final Iterator<String> args) {
+		this(args, ResponseFileReader.DEFAULT_MAX_DEPTH);
+	}
+
+	/**
+	 * Uses the default maximum Depth of nested Response Files of 16.
+	 * @param args the Arguments
+	 */
+	public ResponseFileReader(final String...args) {
+		this(Arrays.asList(args).iterator());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws UncheckedIOException if a Response File can not be read
+	 * @throws IllegalArgumentException if a Response File is invalid
+	 * or nested too deeply
+	 */
+	@Override
+	public boolean hasNext()
+			throws UncheckedIOException, IllegalArgumentException {
+		while (this.next == null) {
+			final String arg;
+			if (this.depth > 0) {
+				arg = this.read(this.files[this.depth - 1]);
+				if (arg == null) {
+					this.files[--this.depth] = null;
+					continue;
+				}
+			} else if (this.args.hasNext()) {
+				arg = this.args.next();
+			} else {
+				return false;
+			}
+			if (ResponseFileReader.isResponseFile(arg)) {
+				this.open(Paths.get(arg.substring(1)));
+			} else {
+				this.next = arg;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws UncheckedIOException if a Response File can not be read
+	 * @throws IllegalArgumentException if a Response File is invalid
+	 * or nested too deeply
+	 */
+	@Override
+	public String next()
+			throws UncheckedIOException, IllegalArgumentException {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final String next = this.next;
+		this.next = null;
+		return next;
+	}
+
+	protected void open(final Path path)
+			throws UncheckedIOException, IllegalArgumentException {
+		if (this.depth == this.maxDepth) {
+			throw new IllegalArgumentException(
+					"Response files nested deeper than " + this.maxDepth
+							+ " at \"" + path + "\"");
+		}
+		final MappedByteBuffer file;
+		try (FileChannel channel = FileChannel.open(
+				path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException(
+						"Response file too large \"" + path + "\"");
+			}
+			file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (this.depth == this.files.length) {
+			this.files = Arrays.copyOf(this.files, this.depth * 2);
+		}
+		this.files[this.depth++] = file;
+	}
+
+	protected String read(final MappedByteBuffer file)
+			throws IllegalArgumentException {
+		int position = file.position();
+		final int limit = file.limit();
+		while (position < limit
+				&& ResponseFileReader.isWhitespace(file.get(position))) {
+			position++;
+		}
+		if (position == limit) {
+			file.position(position);
+			return null;
+		}
+		int length = 0;
+		byte quote = 0;
+		for (; position < limit; position++) {
+			byte b = file.get(position);
+			if (quote == 0 && ResponseFileReader.isWhitespace(b)) {
+				break;
+			} else if (b == quote) {
+				quote = 0;
+				continue;
+			} else if (quote == 0 && (b == '"' || b == '\'')) {
+				quote = b;
+				continue;
+			} else if (b == '\\' && quote != '\'') {
+				if (++position == limit) {
+					break;
+				}
+				b = file.get(position);
+			}
+			if (length == this.token.length) {
+				this.token = Arrays.copyOf(this.token, length * 2);
+			}
+			this.token[length++] = b;
+		}
+		file.position(position);
+		if (quote != 0) {
+			throw new IllegalArgumentException(
+					"Unterminated quote " + (char)quote);
+		}
+		return new String(this.token, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns, whether the given Argument refers to a Response File,
+	 * which is an <em>"@"</em> followed by its Path.
+	 * @param arg the Argument
+	 * @return whether the Argument is a Response File
+	 */
+	protected static boolean isResponseFile(final String arg) {
+		return arg != null && arg.length() > 1 && arg.charAt(0) == '@';
+	}
+
+	protected static boolean isWhitespace(final byte b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f';
+	}
+}
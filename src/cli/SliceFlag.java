@@ -0,0 +1,104 @@
+package cli;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link cli.Flag Flag}, whose Action is invoked with
+ * {@link cli.ValueSlice Views} on its Values instead of Strings.<br/>
+ * The Values are only copied, if the Action requests their String.
+ * @author Mario Schäper
+ */
+public class SliceFlag extends Flag {
+	protected Consumer<CharSequence[]> sliceAction;
+
+	/**
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 * @param valueSeparator separation of Key and Values
+	 * (e.g. "-" -> "--options-value1-value2")
+	 * @param values the Amount of Values expected
+	 * @param allowMultiple whether multiple Occurences should be possible
+	 */
+	public SliceFlag(
+			final String name,
+			final Consumer<CharSequence[]> action,
+			final String valueSeparator,
+			final int values,
+			final boolean allowMultiple) {
+		super(name, strings -> action.accept(strings),
+				valueSeparator, values, allowMultiple);
+		this.setSliceAction(action);
+	}
+
+	/**
+	 * Uses the default Value for<ul style="list-style:none;">
+	 * <li><b>allowMultiple</b> whether multiple Occurences
+	 * should be possible</li>
+	 * </ul>
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the Action, to be called when handled
+	 * @param valueSeparator separation of Key and Values
+	 * (e.g. "-" -> "--options-value1-value2")
+	 * @param values the Amount of Values expected
+	 */
+	public SliceFlag(
+			final String name,
+			final Consumer<CharSequence[]> action,
+			final String valueSeparator,
+			final int values) {
+		this(name, action, valueSeparator, values, Flag.defaultAllowMultiple);
+	}
+
+	/**
+	 * Determines the Action, that is called with Views on the Values,
+	 * when a Occurence of this Flag is handled.<br/>
+	 * It will be invoked with its given Values
+	 * and only if their Amount is as specified.
+	 * @param action the Action
+	 */
+	public void setSliceAction(final Consumer<CharSequence[]> action) {
+		if (action == null) {
+			throw new IllegalArgumentException("Invalid action");
+		}
+		this.sliceAction = action;
+		this.action = strings -> action.accept(strings);
+	}
+
+	/**
+	 * Returns the Action, that is called with Views on the Values,
+	 * when a Occurence of this Flag is handled.
+	 * @return the Action
+	 */
+	public Consumer<CharSequence[]> getSliceAction() {
+		return this.sliceAction;
+	}
+
+	/**
+	 * Handles an Occurence of this Flag.<br/>
+	 * Invokes the Action with {@link cli.ValueSlice Views} on the Values.
+	 */
+	@Override
+	protected void handle(
+			final String[] sources,
+			final int[] bounds,
+			final int count) {
+		final CharSequence[] values = new CharSequence[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = new ValueSlice(sources[i], bounds[i * 2], bounds[i * 2 + 1]);
+		}
+		this.sliceAction.accept(values);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Object clone() {
+		return new SliceFlag(
+				this.name,
+				this.sliceAction,
+				this.valueSeparator,
+				this.values,
+				this.allowMultiple);
+	}
+}
@@ -0,0 +1,287 @@
+package cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Suggests Names of {@link cli.Flag Flags}, that are similar
+ * to an unknown Argument, such as a mistyped Flag.<br/>
+ * The Names are stored in a BK-Tree keyed by their Levenshtein Distance,
+ * so a Search only visits the Names, whose Distance to the visited Nodes
+ * allows them to be similar enough, instead of comparing all Names.
+ * Arguments with inline Values are compared without their Values.<br/>
+ * The Index is immutable and can be used by many Threads concurrently.
+ * @author Mario Schäper
+ */
+public class SuggestionIndex {
+	protected final Node root;
+	protected final String[] valueSeparators;
+
+	/**
+	 * @param index the indexed Flags
+	 */
+	public SuggestionIndex(final FlagIndex index) {
+		final Set<String> valueSeparators = new LinkedHashSet<>();
+		Node root = null;
+		for (Flag flag : index.flags) {
+			if (!FlagIndex.isExact(flag)) {
+				valueSeparators.add(flag.getValueSeparator());
+			}
+			if (root == null) {
+				root = new Node(flag.getName());
+			} else {
+				root.add(flag.getName());
+			}
+		}
+		this.root = root;
+		this.valueSeparators =
+				valueSeparators.toArray(new String[valueSeparators.size()]);
+	}
+
+	/**
+	 * Returns the Names, whose Distance to the given Argument is at most
+	 * a third of its Length, but at least <b>1</b> and at most <b>3</b>.
+	 * @param arg the Argument
+	 * @param limit the maximum Amount of Names
+	 * @return the Names
+	 * @see #suggest(String, int, int)
+	 */
+	public List<String> suggest(final String arg, final int limit) {
+		return this.suggest(
+				arg, Math.max(1, Math.min(3, arg.length() / 3)), limit);
+	}
+
+	/**
+	 * Returns the Names, whose Levenshtein Distance to the given Argument
+	 * is at most the given Distance.<br/>
+	 * They are ordered by their Distance, counting swapped adjacent
+	 * Characters as a single Edit, the Length of their common Prefix
+	 * and their Name.
+	 * The Argument is also compared without the Value following the first
+	 * Occurence of each inline valueSeparator. Equal Names are not suggested.
+	 * @param arg the Argument
+	 * @param maxDistance the maximum Distance
+	 * @param limit the maximum Amount of Names
+	 * @return the Names
+	 */
+	public List<String> suggest(
+			final String arg,
+			final int maxDistance,
+			final int limit) {
+		if (arg == null || this.root == null || limit <= 0) {
+			return Collections.emptyList();
+		}
+		final Map<String, Integer> distances = new HashMap<>();
+		this.search(arg, maxDistance, distances);
+		for (String separator : this.valueSeparators) {
+			final int end = arg.indexOf(separator, 1);
+			if (end > 0) {
+				this.search(arg.substring(0, end), maxDistance, distances);
+			}
+		}
+		final List<String> names = new ArrayList<>(distances.keySet());
+		names.sort((a, b) -> {
+			final int distance = Integer.compare(distances.get(a), distances.get(b));
+			if (distance != 0) {
+				return distance;
+			}
+			final int prefix = Integer.compare(
+					SuggestionIndex.commonPrefix(b, arg),
+					SuggestionIndex.commonPrefix(a, arg));
+			return prefix != 0 ? prefix : a.compareTo(b);
+		});
+		return names.size() > limit ? names.subList(0, limit) : names;
+	}
+
+	protected void search(
+			final String arg,
+			final int maxDistance,
+			final Map<String, Integer> distances) {
+		final int[][] rows = new int[3][arg.length() + 1];
+		final List<Node> pending = new ArrayList<>();
+		pending.add(this.root);
+		while (!pending.isEmpty()) {
+			final Node node = pending.remove(pending.size() - 1);
+			// a larger Distance excludes the Node and all of its Children
+			final int cutoff = Math.max(0, node.children.length - 1) + maxDistance;
+			final int distance =
+					SuggestionIndex.distance(arg, node.name, rows, cutoff);
+			if (distance > cutoff) {
+				continue;
+			}
+			if (distance > 0 && distance <= maxDistance) {
+				distances.merge(
+						node.name,
+						SuggestionIndex.rank(arg, node.name, rows),
+						Math::min);
+			}
+			final int from = Math.max(1, distance - maxDistance);
+			final int to = Math.min(node.children.length - 1, distance + maxDistance);
+			for (int i = from; i <= to; i++) {
+				if (node.children[i] != null) {
+					pending.add(node.children[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the Levenshtein Distance of the given Strings
+	 * or any larger Value, if it exceeds the given Cutoff.<br/>
+	 * Common Prefixes and Suffixes are skipped, as they do not change it.
+	 * @param a the first String
+	 * @param b the second String
+	 * @param rows at least two Rows of at least the Length
+	 * of the first String plus one
+	 * @param cutoff the largest Distance, that has to be exact
+	 * @return the Distance
+	 */
+	protected static int distance(
+			final String a,
+			final String b,
+			final int[][] rows,
+			final int cutoff) {
+		int start = 0;
+		int aEnd = a.length();
+		int bEnd = b.length();
+		while (start < aEnd && start < bEnd && a.charAt(start) == b.charAt(start)) {
+			start++;
+		}
+		while (aEnd > start && bEnd > start
+				&& a.charAt(aEnd - 1) == b.charAt(bEnd - 1)) {
+			aEnd--;
+			bEnd--;
+		}
+		final int aLength = aEnd - start;
+		final int bLength = bEnd - start;
+		if (Math.abs(aLength - bLength) > cutoff) {
+			return cutoff + 1;
+		}
+		int[] previous = rows[0];
+		int[] current = rows[1];
+		for (int i = 0; i <= aLength; i++) {
+			previous[i] = i;
+		}
+		for (int j = 1; j <= bLength; j++) {
+			current[0] = j;
+			int min = j;
+			final char c = b.charAt(start + j - 1);
+			for (int i = 1; i <= aLength; i++) {
+				current[i] = Math.min(
+						Math.min(current[i - 1], previous[i]) + 1,
+						previous[i - 1] + (a.charAt(start + i - 1) == c ? 0 : 1));
+				min = Math.min(min, current[i]);
+			}
+			if (min > cutoff) {
+				return cutoff + 1;
+			}
+			final int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[aLength];
+	}
+
+	/**
+	 * Returns the Distance of the given Name to the given Argument,
+	 * counting swapped adjacent Characters as a single Edit.
+	 * @param arg the Argument
+	 * @param name the Name
+	 * @param rows three Rows of at least the Length of the Argument plus one
+	 * @return the Distance
+	 */
+	protected static int rank(
+			final String arg,
+			final String name,
+			final int[][] rows) {
+		int start = 0;
+		int argEnd = arg.length();
+		int nameEnd = name.length();
+		while (start < argEnd && start < nameEnd
+				&& arg.charAt(start) == name.charAt(start)) {
+			start++;
+		}
+		while (argEnd > start && nameEnd > start
+				&& arg.charAt(argEnd - 1) == name.charAt(nameEnd - 1)) {
+			argEnd--;
+			nameEnd--;
+		}
+		int[] beforePrevious = rows[0];
+		int[] previous = rows[1];
+		int[] current = rows[2];
+		for (int i = 0; i <= argEnd - start; i++) {
+			previous[i] = i;
+		}
+		for (int j = 1; j <= nameEnd - start; j++) {
+			current[0] = j;
+			final char c = name.charAt(start + j - 1);
+			for (int i = 1; i <= argEnd - start; i++) {
+				final char d = arg.charAt(start + i - 1);
+				current[i] = Math.min(
+						Math.min(current[i - 1], previous[i]) + 1,
+						previous[i - 1] + (d == c ? 0 : 1));
+				if (i > 1 && j > 1
+						&& d == name.charAt(start + j - 2)
+						&& arg.charAt(start + i - 2) == c) {
+					current[i] = Math.min(current[i], beforePrevious[i - 2] + 1);
+				}
+			}
+			final int[] swap = beforePrevious;
+			beforePrevious = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[argEnd - start];
+	}
+
+	protected static int commonPrefix(final String a, final String b) {
+		final int length = Math.min(a.length(), b.length());
+		int i = 0;
+		while (i < length && a.charAt(i) == b.charAt(i)) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * A Node of the BK-Tree, whose Children are indexed
+	 * by their Distance to it.
+	 */
+	protected static class Node {
+		protected final String name;
+		protected Node[] children = new Node[0];
+
+		protected Node(final String name) {
+			this.name = name;
+		}
+
+		protected void add(final String name) {
+			Node node = this;
+			int[][] rows = null;
+			while (true) {
+				if (rows == null || rows[0].length <= node.name.length()) {
+					rows = new int[2][Math.max(node.name.length(), name.length()) + 1];
+				}
+				final int distance = SuggestionIndex.distance(
+						node.name, name, rows, Integer.MAX_VALUE - 1);
+				if (distance == 0) {
+					return;
+				}
+				if (distance >= node.children.length) {
+					node.children = Arrays.copyOf(node.children, distance + 1);
+				}
+				if (node.children[distance] == null) {
+					node.children[distance] = new Node(name);
+					return;
+				}
+				node = node.children[distance];
+			}
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package cli;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link cli.Flag Flag}, whose Action is invoked with its single Value
+ * converted into a primitive Type.<br/>
+ * The Value is read directly from the Argument,
+ * so neither a String nor a boxed Value is created.
+ * The Action of the Flag, as returned by {@link #getAction()},
+ * converts the Value of a String and calls the typed Action,
+ * so it can be bound to a Flag restored without its Subclass.
+ * @param <A> the Type of the typed Action
+ * @author Mario Schäper
+ */
+public abstract class TypedFlag<A> extends Flag {
+	protected final Consumer<String[]> converter =
+			strings -> this.handleValue(strings[0], 0, strings[0].length());
+	protected A typedAction;
+
+	/**
+	 * @param name the Name/Prefix (e.g. "-f", "--options")
+	 * @param action the typed Action, to be called when handled
+	 * @param valueSeparator separation of Key and Value
+	 * (e.g. "=" -> "--options=value")
+	 * @param allowMultiple whether multiple Occurences should be possible
+	 */
+	protected TypedFlag(
+			final String name,
+			final A action,
+			final String valueSeparator,
+			final boolean allowMultiple) {
+		this.setName(name);
+		this.setTypedAction(action);
+		this.setAction(this.converter);
+		this.setValueSeparator(valueSeparator);
+		this.setValues(1);
+		this.setAllowMultiple(allowMultiple);
+	}
+
+	protected void setTypedAction(final A action) {
+		if (action == null) {
+			throw new IllegalArgumentException("Invalid action");
+		}
+		this.typedAction = action;
+	}
+
+	/**
+	 * Only accepts a single Value.
+	 * @param values the Amount of Values expected
+	 * @throws IllegalArgumentException if the Amount is not <b>1</b>
+	 */
+	@Override
+	public void setValues(final int values) throws IllegalArgumentException {
+		if (values != 1) {
+			throw new IllegalArgumentException(
+					"Invalid amount of values \"" + values + "\"");
+		}
+		super.setValues(values);
+	}
+
+	/**
+	 * Handles an Occurence of this Flag.<br/>
+	 * Invokes the typed Action with the converted Value.
+	 * @throws ValueFormatException if the Value can not be converted
+	 */
+	@Override
+	protected void handle(
+			final String[] sources,
+			final int[] bounds,
+			final int count) {
+		this.handleValue(sources[0], bounds[0], bounds[1]);
+	}
+
+	/**
+	 * Converts the Value between the given Indices of the given String
+	 * and invokes the typed Action with it.<br/>
+	 * A {@link cli.ValueFormatException ValueFormatException}
+	 * is thrown with the Name of this Flag.
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Char of the Value
+	 * @param end the Index after the last Char of the Value
+	 * @throws ValueFormatException if the Value can not be converted
+	 */
+	protected void handleValue(
+			final String source,
+			final int start,
+			final int end) {
+		try {
+			this.accept(source, start, end);
+		} catch (final ValueFormatException e) {
+			throw e.getFlag() == null ? e.forFlag(this.name) : e;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return this.name.hashCode()
+				+ this.typedAction.hashCode()
+				+ (this.allowMultiple ? 1 : 0);
+	}
+
+	/**
+	 * Compares the typed Actions instead of the converting Actions,
+	 * which differ for every Flag.
+	 */
+	@Override
+	public boolean equals(final Object other) {
+		if (other == null || other.getClass() != this.getClass()) {
+			return false;
+		}
+		final TypedFlag<?> flag = (TypedFlag<?>)other;
+		return flag.name == this.name
+				&& flag.typedAction.equals(this.typedAction)
+				&& flag.valueSeparator.equals(this.valueSeparator)
+				&& flag.allowMultiple == this.allowMultiple;
+	}
+
+	/**
+	 * Converts the Value between the given Indices of the given String
+	 * and invokes the typed Action with it.
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Char of the Value
+	 * @param end the Index after the last Char of the Value
+	 * @throws ValueFormatException if the Value can not be converted
+	 */
+	protected abstract void accept(String source, int start, int end);
+}
@@ -0,0 +1,97 @@
+package cli;
+
+/**
+ * Thrown, if a Value of a typed {@link cli.Flag Flag}
+ * can not be converted into its Type.<br/>
+ * Describes the Flag, the expected Type, the Value
+ * and whether the Value was well-formed, but out of Range.
+ * @author Mario Schäper
+ */
+public class ValueFormatException extends IllegalArgumentException {
+	private static final long serialVersionUID = 1L;
+	protected final String flag;
+	protected final String type;
+	protected final String value;
+	protected final boolean overflow;
+
+	/**
+	 * @param flag the Name of the Flag or <b>null</b> if unknown
+	 * @param type the Name of the expected Type (e.g. "int")
+	 * @param value the Value
+	 * @param overflow whether the Value is out of Range
+	 */
+	public ValueFormatException(
+			final String flag,
+			final String type,
+			final String value,
+			final boolean overflow) {
+		super(ValueFormatException.message(flag, type, value, overflow));
+		this.flag = flag;
+		this.type = type;
+		this.value = value;
+		this.overflow = overflow;
+	}
+
+	/**
+	 * Returns the Name of the {@link cli.Flag Flag}
+	 * or <b>null</b> if it is unknown.
+	 * @return the Name or null
+	 */
+	public String getFlag() {
+		return this.flag;
+	}
+
+	/**
+	 * Returns the Name of the expected Type (e.g. "int").
+	 * @return the Type
+	 */
+	public String getType() {
+		return this.type;
+	}
+
+	/**
+	 * Returns the invalid Value.
+	 * @return the Value
+	 */
+	public String getValue() {
+		return this.value;
+	}
+
+	/**
+	 * Returns, whether the Value was well-formed, but out of Range.
+	 * @return whether the Value overflowed
+	 */
+	public boolean isOverflow() {
+		return this.overflow;
+	}
+
+	/**
+	 * Returns an equal Exception, that describes the given Flag.
+	 * @param flag the Name of the Flag
+	 * @return the Exception
+	 */
+	public ValueFormatException forFlag(final String flag) {
+		final ValueFormatException exception = new ValueFormatException(
+				flag, this.type, this.value, this.overflow);
+		exception.setStackTrace(this.getStackTrace());
+		return exception;
+	}
+
+	/**
+	 * Returns the Message of an Exception with the given Properties.
+	 * @param flag the Name of the Flag or <b>null</b> if unknown
+	 * @param type the Name of the expected Type (e.g. "int")
+	 * @param value the Value
+	 * @param overflow whether the Value is out of Range
+	 * @return the Message
+	 */
+	protected static String message(
+			final String flag,
+			final String type,
+			final String value,
+			final boolean overflow) {
+		return "Invalid " + type + " \"" + value + "\""
+				+ (flag == null ? "" : " of flag \"" + flag + "\"")
+				+ (overflow ? " (out of range)" : "");
+	}
+}
@@ -0,0 +1,113 @@
+package cli;
+
+/**
+ * A View on a Range of a String, that represents a Value
+ * of a {@link cli.Flag Flag}.<br/>
+ * The Characters are not copied until the String is requested
+ * by {@link #toString()}, which then is cached.
+ * @author Mario Schäper
+ */
+public class ValueSlice implements CharSequence {
+	protected final String source;
+	protected final int start;
+	protected final int end;
+	protected String value;
+
+	/**
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Character (inclusive)
+	 * @param end the Index of the last Character (exclusive)
+	 * @throws IndexOutOfBoundsException if the Range is invalid
+	 */
+	public ValueSlice(final String source, final int start, final int end)
+			throws IndexOutOfBoundsException {
+		if (start < 0 || end > source.length() || start > end) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range [" + start + ", " + end + ")");
+		}
+		this.source = source;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Returns the String containing the Value.
+	 * @return the Source
+	 */
+	public String getSource() {
+		return this.source;
+	}
+
+	/**
+	 * Returns the Index of the first Character in the Source.
+	 * @return the Start Index
+	 */
+	public int getStart() {
+		return this.start;
+	}
+
+	/**
+	 * Returns the Index after the last Character in the Source.
+	 * @return the End Index
+	 */
+	public int getEnd() {
+		return this.end;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int length() {
+		return this.end - this.start;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public char charAt(final int index) {
+		if (index < 0 || index >= this.length()) {
+			throw new IndexOutOfBoundsException("Invalid index " + index);
+		}
+		return this.source.charAt(this.start + index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CharSequence subSequence(final int start, final int end) {
+		if (start < 0 || end > this.length() || start > end) {
+			throw new IndexOutOfBoundsException(
+					"Invalid range [" + start + ", " + end + ")");
+		}
+		return new ValueSlice(this.source, this.start + start, this.start + end);
+	}
+
+	/**
+	 * Returns, whether this Value equals the given String,
+	 * without materializing it.
+	 * @param str the String
+	 * @return whether the Characters are equal
+	 */
+	public boolean contentEquals(final String str) {
+		return str.length() == this.length()
+				&& this.source.regionMatches(this.start, str, 0, str.length());
+	}
+
+	/**
+	 * Returns the Value as String.<br/>
+	 * The String is created on the first Call only.
+	 * @return the Value
+	 */
+	@Override
+	public String toString() {
+		String value = this.value;
+		if (value == null) {
+			value = this.source.substring(this.start, this.end);
+			this.value = value;
+		}
+		return value;
+	}
+}
@@ -0,0 +1,340 @@
+package cli;
+
+import java.util.regex.Pattern;
+
+/**
+ * Converts Values of {@link cli.Flag Flags} into primitive Types.<br/>
+ * The Value is read directly from the Characters between two Indices
+ * of its Source, so no intermediate String is created,
+ * unless the Value is invalid or a double needs the exact,
+ * but slower Conversion of the JDK.<br/>
+ * The Methods starting with <em>check</em> validate a Value
+ * without throwing an Exception.
+ * @author Mario Schäper
+ */
+public class Values {
+	/** The Result of checking a valid Value. */
+	public static final int VALID = 0;
+	/** The Result of checking a Value, that is not well-formed. */
+	public static final int MALFORMED = 1;
+	/** The Result of checking a well-formed Value, that is out of Range. */
+	public static final int OUT_OF_RANGE = 2;
+	/** The Powers of ten, that are exactly representable as doubles. */
+	protected static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	/** The maximum Amount of Digits, that are exactly representable. */
+	protected static final int EXACT_DIGITS = 15;
+	/** The Format accepted by {@link Double#parseDouble(String)}. */
+	protected static final Pattern DOUBLE = Pattern.compile(
+			"[\\x00-\\x20]*[+-]?(NaN|Infinity|(("
+			+ "(\\p{Digit}+(\\.)?(\\p{Digit}*)([eE][+-]?\\p{Digit}+)?)"
+			+ "|(\\.\\p{Digit}+([eE][+-]?\\p{Digit}+)?)"
+			+ "|((0[xX]\\p{XDigit}+(\\.)?"
+			+ "|0[xX]\\p{XDigit}*\\.\\p{XDigit}+)[pP][+-]?\\p{Digit}+)"
+			+ ")[fFdD]?))[\\x00-\\x20]*");
+
+	protected Values() {
+	}
+
+	/**
+	 * Converts the Value between the given Indices into an int.<br/>
+	 * Accepts an optional Sign followed by decimal Digits.
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Character (inclusive)
+	 * @param end the Index of the last Character (exclusive)
+	 * @return the int
+	 * @throws ValueFormatException if the Value is not an int
+	 */
+	public static int parseInt(
+			final String source,
+			final int start,
+			final int end)
+			throws ValueFormatException {
+		final long value = Values.parseLong(
+				source, start, end, "int", Integer.MIN_VALUE, Integer.MAX_VALUE);
+		return (int)value;
+	}
+
+	/**
+	 * Converts the Value between the given Indices into a long.<br/>
+	 * Accepts an optional Sign followed by decimal Digits.
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Character (inclusive)
+	 * @param end the Index of the last Character (exclusive)
+	 * @return the long
+	 * @throws ValueFormatException if the Value is not a long
+	 */
+	public static long parseLong(
+			final String source,
+			final int start,
+			final int end)
+			throws ValueFormatException {
+		return Values.parseLong(
+				source, start, end, "long", Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Converts the Value between the given Indices into a double.<br/>
+	 * Plain decimal Values with up to 15 significant Digits and small
+	 * Exponents are converted exactly without Allocation.
+	 * All other Values are converted by {@link Double#parseDouble(String)}.
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Character (inclusive)
+	 * @param end the Index of the last Character (exclusive)
+	 * @return the double
+	 * @throws ValueFormatException if the Value is not a double
+	 */
+	public static double parseDouble(
+			final String source,
+			final int start,
+			final int end)
+			throws ValueFormatException {
+		int i = start;
+		final boolean negative = i < end && source.charAt(i) == '-';
+		if (i < end && (negative || source.charAt(i) == '+')) {
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int scale = 0;
+		boolean fraction = false;
+		boolean exact = true;
+		final int first = i;
+		for (; i < end; i++) {
+			final char c = source.charAt(i);
+			if (c >= '0' && c <= '9') {
+				if (mantissa != 0 || c != '0') {
+					digits++;
+				}
+				if (digits > Values.EXACT_DIGITS) {
+					exact = false;
+					break;
+				}
+				mantissa = mantissa * 10 + (c - '0');
+				if (fraction) {
+					scale--;
+				}
+			} else if (c == '.' && !fraction) {
+				fraction = true;
+			} else {
+				break;
+			}
+		}
+		if (exact && i < end && i - first > (fraction ? 1 : 0)
+				&& (source.charAt(i) == 'e' || source.charAt(i) == 'E')) {
+			int j = i + 1;
+			final boolean negativeExponent = j < end && source.charAt(j) == '-';
+			if (j < end && (negativeExponent || source.charAt(j) == '+')) {
+				j++;
+			}
+			int exponent = 0;
+			final int exponentStart = j;
+			for (; j < end && exponent < 1000; j++) {
+				final char c = source.charAt(j);
+				if (c < '0' || c > '9') {
+					break;
+				}
+				exponent = exponent * 10 + (c - '0');
+			}
+			if (j > exponentStart) {
+				scale += negativeExponent ? -exponent : exponent;
+				i = j;
+			}
+		}
+		if (exact && i == end && i - first > (fraction ? 1 : 0)
+				&& scale >= -Values.POWERS_OF_TEN.length + 1
+				&& scale < Values.POWERS_OF_TEN.length) {
+			final double value = scale < 0
+					? mantissa / Values.POWERS_OF_TEN[-scale]
+					: mantissa * Values.POWERS_OF_TEN[scale];
+			return negative ? -value : value;
+		}
+		final String value = source.substring(start, end);
+		try {
+			return Double.parseDouble(value);
+		} catch (final NumberFormatException e) {
+			throw new ValueFormatException(null, "double", value, false);
+		}
+	}
+
+	/**
+	 * Converts the Value between the given Indices into a boolean.<br/>
+	 * Accepts <em>"true"</em>, <em>"yes"</em> and <em>"on"</em>
+	 * as well as <em>"false"</em>, <em>"no"</em> and <em>"off"</em>,
+	 * ignoring Case.
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Character (inclusive)
+	 * @param end the Index of the last Character (exclusive)
+	 * @return the boolean
+	 * @throws ValueFormatException if the Value is not a boolean
+	 */
+	public static boolean parseBoolean(
+			final String source,
+			final int start,
+			final int end)
+			throws ValueFormatException {
+		if (Values.is(source, start, end, "true")
+				|| Values.is(source, start, end, "yes")
+				|| Values.is(source, start, end, "on")) {
+			return true;
+		}
+		if (Values.is(source, start, end, "false")
+				|| Values.is(source, start, end, "no")
+				|| Values.is(source, start, end, "off")) {
+			return false;
+		}
+		throw new ValueFormatException(
+				null, "boolean", source.substring(start, end), false);
+	}
+
+	/**
+	 * Checks, whether the Value between the given Indices is an int.
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Character (inclusive)
+	 * @param end the Index of the last Character (exclusive)
+	 * @return {@link #VALID}, {@link #MALFORMED} or {@link #OUT_OF_RANGE}
+	 */
+	public static int checkInt(
+			final String source,
+			final int start,
+			final int end) {
+		return Values.checkLong(
+				source, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Checks, whether the Value between the given Indices is a long.
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Character (inclusive)
+	 * @param end the Index of the last Character (exclusive)
+	 * @return {@link #VALID}, {@link #MALFORMED} or {@link #OUT_OF_RANGE}
+	 */
+	public static int checkLong(
+			final String source,
+			final int start,
+			final int end) {
+		return Values.checkLong(
+				source, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Checks, whether the Value between the given Indices is a double.
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Character (inclusive)
+	 * @param end the Index of the last Character (exclusive)
+	 * @return {@link #VALID} or {@link #MALFORMED}
+	 */
+	public static int checkDouble(
+			final String source,
+			final int start,
+			final int end) {
+		return Values.DOUBLE.matcher(source).region(start, end).matches()
+				? Values.VALID
+				: Values.MALFORMED;
+	}
+
+	/**
+	 * Checks, whether the Value between the given Indices is a boolean.
+	 * @param source the String containing the Value
+	 * @param start the Index of the first Character (inclusive)
+	 * @param end the Index of the last Character (exclusive)
+	 * @return {@link #VALID} or {@link #MALFORMED}
+	 */
+	public static int checkBoolean(
+			final String source,
+			final int start,
+			final int end) {
+		return Values.is(source, start, end, "true")
+				|| Values.is(source, start, end, "yes")
+				|| Values.is(source, start, end, "on")
+				|| Values.is(source, start, end, "false")
+				|| Values.is(source, start, end, "no")
+				|| Values.is(source, start, end, "off")
+				? Values.VALID
+				: Values.MALFORMED;
+	}
+
+	protected static int checkLong(
+			final String source,
+			final int start,
+			final int end,
+			final long min,
+			final long max) {
+		int i = start;
+		final boolean negative = i < end && source.charAt(i) == '-';
+		if (i < end && (negative || source.charAt(i) == '+')) {
+			i++;
+		}
+		if (i == end) {
+			return Values.MALFORMED;
+		}
+		final long limit = negative ? min : -max;
+		final long multiplyLimit = limit / 10;
+		long value = 0;
+		boolean overflow = false;
+		for (; i < end; i++) {
+			final int digit = source.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return Values.MALFORMED;
+			}
+			if (value < multiplyLimit || value * 10 < limit + digit) {
+				overflow = true;
+			} else {
+				value = value * 10 - digit;
+			}
+		}
+		return overflow ? Values.OUT_OF_RANGE : Values.VALID;
+	}
+
+	protected static long parseLong(
+			final String source,
+			final int start,
+			final int end,
+			final String type,
+			final long min,
+			final long max)
+			throws ValueFormatException {
+		int i = start;
+		final boolean negative = i < end && source.charAt(i) == '-';
+		if (i < end && (negative || source.charAt(i) == '+')) {
+			i++;
+		}
+		if (i == end) {
+			throw new ValueFormatException(
+					null, type, source.substring(start, end), false);
+		}
+		// accumulates negatively, as the Range of negative Values is larger
+		final long limit = negative ? min : -max;
+		final long multiplyLimit = limit / 10;
+		long value = 0;
+		boolean overflow = false;
+		for (; i < end; i++) {
+			final int digit = source.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				throw new ValueFormatException(
+						null, type, source.substring(start, end), false);
+			}
+			if (value < multiplyLimit || value * 10 < limit + digit) {
+				overflow = true;
+			} else {
+				value = value * 10 - digit;
+			}
+		}
+		if (overflow) {
+			throw new ValueFormatException(
+					null, type, source.substring(start, end), true);
+		}
+		return negative ? value : -value;
+	}
+
+	protected static boolean is(
+			final String source,
+			final int start,
+			final int end,
+			final String value) {
+		return end - start == value.length()
+				&& source.regionMatches(true, start, value, 0, value.length());
+	}
+}
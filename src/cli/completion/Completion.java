@@ -0,0 +1,103 @@
+package cli.completion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The immutable Result of a Completion Query of a
+ * {@link cli.completion.CompletionIndex CompletionIndex}.<br/>
+ * Consists of the Candidates for the Word at the Cursor and the Options
+ * for the Shell, whether it should fall back to its default Completion,
+ * as a Value is expected, and whether it should not append a Space,
+ * as a Candidate is the Prefix of a Flag with inline Values.
+ * @author Mario Schäper
+ */
+public class Completion {
+	/** The Option to fall back to the default Completion of the Shell. */
+	public static final String DEFAULT = "default";
+	/** The Option to not append a Space to the completed Word. */
+	public static final String NOSPACE = "nospace";
+	protected final List<String> candidates;
+	protected final boolean valueExpected;
+	protected final boolean spaceSuppressed;
+
+	/**
+	 * @param candidates the Candidates
+	 * @param valueExpected whether a Value is expected at the Cursor
+	 * @param spaceSuppressed whether no Space should be appended
+	 */
+	public Completion(
+			final List<String> candidates,
+			final boolean valueExpected,
+			final boolean spaceSuppressed) {
+		if (candidates == null) {
+			throw new IllegalArgumentException("Invalid candidates");
+		}
+		this.candidates = Collections.unmodifiableList(candidates);
+		this.valueExpected = valueExpected;
+		this.spaceSuppressed = spaceSuppressed;
+	}
+
+	/**
+	 * Creates a Completion from the given Options,
+	 * as returned by {@link #getOptions()}.
+	 * @param options the Options separated by Whitespace
+	 * @param candidates the Candidates
+	 * @return the Completion
+	 */
+	public static Completion of(
+			final String options,
+			final List<String> candidates) {
+		boolean valueExpected = false;
+		boolean spaceSuppressed = false;
+		for (String option : options.split(" ")) {
+			valueExpected |= option.equals(Completion.DEFAULT);
+			spaceSuppressed |= option.equals(Completion.NOSPACE);
+		}
+		return new Completion(candidates, valueExpected, spaceSuppressed);
+	}
+
+	/**
+	 * Returns the Candidates for the Word at the Cursor.
+	 * @return the unmodifiable Candidates
+	 */
+	public List<String> getCandidates() {
+		return this.candidates;
+	}
+
+	/**
+	 * Returns, whether a Value of a {@link cli.Flag Flag}
+	 * is expected at the Cursor.
+	 * @return whether a Value is expected
+	 */
+	public boolean isValueExpected() {
+		return this.valueExpected;
+	}
+
+	/**
+	 * Returns, whether no Space should be appended to the completed Word,
+	 * as a Candidate is the Prefix of a {@link cli.Flag Flag}
+	 * with inline Values (e.g. "--options-").
+	 * @return whether no Space should be appended
+	 */
+	public boolean isSpaceSuppressed() {
+		return this.spaceSuppressed;
+	}
+
+	/**
+	 * Returns the Options for the Shell separated by Whitespace,
+	 * named like the Options of the <em>compopt</em> Builtin of Bash.
+	 * @return the Options
+	 */
+	public String getOptions() {
+		final List<String> options = new ArrayList<>(2);
+		if (this.valueExpected) {
+			options.add(Completion.DEFAULT);
+		}
+		if (this.spaceSuppressed) {
+			options.add(Completion.NOSPACE);
+		}
+		return String.join(" ", options);
+	}
+}
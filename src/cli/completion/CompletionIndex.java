@@ -0,0 +1,184 @@
+package cli.completion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import cli.CommandSet;
+import cli.Flag;
+import cli.FlagIndex;
+import cli.Parser;
+
+/**
+ * An immutable Index of the Names of {@link cli.Flag Flags}
+ * and {@link cli.Parser Parsers} for Shell Completion.<br/>
+ * The Candidates are stored in a sorted Array, so all Candidates with a
+ * given Prefix form a Range, that is found by a binary Search.
+ * A Query therefore costs about the Logarithm of the Amount of Candidates
+ * plus the Amount of Matches.<br/>
+ * Flags with inline Values are completed up to their valueSeparator
+ * (e.g. "--options-"). The preceding Arguments are scanned for Flags,
+ * that expect Values separated by Whitespace, and for Parsers, that await
+ * their Suffix, which is then offered first.
+ * @author Mario Schäper
+ */
+public class CompletionIndex {
+	protected final FlagIndex index;
+	protected final Map<String, Parser> parsers;
+	protected final String[] candidates;
+	protected final boolean[] inline;
+
+	/**
+	 * @param index the indexed Flags
+	 * @param parsers the Parsers
+	 */
+	public CompletionIndex(final FlagIndex index, final List<Parser> parsers) {
+		if (index == null) {
+			throw new IllegalArgumentException("Invalid flags");
+		}
+		if (parsers == null) {
+			throw new IllegalArgumentException("Invalid parser");
+		}
+		final TreeMap<String, Boolean> candidates = new TreeMap<>();
+		for (int i = 0; i < index.size(); i++) {
+			final Flag flag = index.getFlag(i);
+			if (flag.getValueSeparator().equals(" ") || flag.getValues() == 0) {
+				candidates.putIfAbsent(flag.getName(), false);
+			} else {
+				candidates.putIfAbsent(
+						flag.getName() + flag.getValueSeparator(), true);
+			}
+		}
+		final Map<String, Parser> parserIndex = new HashMap<>();
+		for (Parser parser : parsers) {
+			parserIndex.putIfAbsent(parser.getName(), parser);
+			candidates.putIfAbsent(parser.getName(), false);
+		}
+		this.index = index;
+		this.parsers = parserIndex;
+		this.candidates = candidates.keySet().toArray(new String[candidates.size()]);
+		this.inline = new boolean[this.candidates.length];
+		int i = 0;
+		for (boolean inline : candidates.values()) {
+			this.inline[i++] = inline;
+		}
+	}
+
+	/**
+	 * Creates the CompletionIndex of the {@link cli.Flag Flags}
+	 * and {@link cli.Parser Parsers} of the given CommandSet.
+	 * @param commands the CommandSet
+	 * @return the CompletionIndex
+	 */
+	public static CompletionIndex of(final CommandSet commands) {
+		return new CompletionIndex(commands.getFlagIndex(), commands.getParsers());
+	}
+
+	/**
+	 * Returns the Amount of Candidates.
+	 * @return the Amount of Candidates
+	 */
+	public int size() {
+		return this.candidates.length;
+	}
+
+	/**
+	 * Returns all Candidates, that start with the given Prefix, in their
+	 * natural Order, regardless of the preceding Arguments.
+	 * @param prefix the Prefix
+	 * @return the Candidates
+	 */
+	public List<String> completePrefix(final String prefix) {
+		if (prefix == null) {
+			throw new IllegalArgumentException("Invalid prefix");
+		}
+		final int start = this.start(prefix);
+		final int end = this.end(prefix, start);
+		return Collections.unmodifiableList(
+				Arrays.asList(this.candidates).subList(start, end));
+	}
+
+	/**
+	 * Completes the last of the given Arguments,
+	 * which is the Word at the Cursor, in the Context of the preceding ones.
+	 * <br/>
+	 * If a {@link cli.Flag Flag} expects further Values separated by
+	 * Whitespace, no Candidates are returned and the Shell is advised to
+	 * fall back to its default Completion. Otherwise the Suffix of the
+	 * innermost {@link cli.Parser Parser} awaiting it is offered first,
+	 * followed by all Candidates, that start with the Word.
+	 * @param args the Arguments up to the Word at the Cursor
+	 * @return the Completion
+	 */
+	public Completion complete(final String...args) {
+		final String prefix = args.length == 0 ? "" : args[args.length - 1];
+		final List<String> suffixes = new ArrayList<>();
+		int values = 0;
+		for (int i = 0; i < args.length - 1; i++) {
+			final String arg = args[i];
+			if (values > 0) {
+				values--;
+				continue;
+			}
+			if (!suffixes.isEmpty()
+					&& arg.equals(suffixes.get(suffixes.size() - 1))) {
+				suffixes.remove(suffixes.size() - 1);
+				continue;
+			}
+			final Parser parser = this.parsers.get(arg);
+			if (parser != null) {
+				if (parser.getSuffix() != null) {
+					suffixes.add(parser.getSuffix());
+				}
+				continue;
+			}
+			final Flag flag = this.index.get(arg);
+			if (flag != null && flag.getValueSeparator().equals(" ")) {
+				values = flag.getValues();
+			}
+		}
+		if (values > 0) {
+			return new Completion(Collections.<String>emptyList(), true, false);
+		}
+		final int start = this.start(prefix);
+		final int end = this.end(prefix, start);
+		final List<String> candidates = new ArrayList<>(end - start + 1);
+		final String suffix = suffixes.isEmpty()
+				? null
+				: suffixes.get(suffixes.size() - 1);
+		if (suffix != null && suffix.startsWith(prefix)) {
+			candidates.add(suffix);
+		}
+		boolean spaceSuppressed = false;
+		for (int i = start; i < end; i++) {
+			if (!this.candidates[i].equals(suffix)) {
+				candidates.add(this.candidates[i]);
+				spaceSuppressed |= this.inline[i];
+			}
+		}
+		return new Completion(candidates, false, spaceSuppressed);
+	}
+
+	protected int start(final String prefix) {
+		final int position = Arrays.binarySearch(this.candidates, prefix);
+		return position < 0 ? -position - 1 : position;
+	}
+
+	protected int end(final String prefix, final int start) {
+		int low = start;
+		int high = this.candidates.length;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (this.candidates[middle].startsWith(prefix)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+}
@@ -0,0 +1,93 @@
+package cli.completion;
+
+/**
+ * Generates Completion Scripts for Bash, that query a running
+ * {@link cli.daemon.ParseServer ParseServer} directly over its local Port
+ * with a Request of the Type <em>COMPLETE</em>, so no JVM is started
+ * for a Completion.<br/>
+ * The Port can be overridden by the Environment Variable
+ * <em>&lt;PROGRAM&gt;_COMPLETION_PORT</em>, where <em>&lt;PROGRAM&gt;</em>
+ * is the Name of the Program in upper Case with every Character,
+ * that is neither a Letter nor a Digit, replaced by an Underscore.
+ * The Scripts authenticate with the Token of the Server read from
+ * <em>~/.cli/parse-server-&lt;port&gt;.token</em>
+ * (see {@link cli.daemon.ParseServer#getTokenFile(int)}).
+ * If the Server is not reachable, nothing is completed.
+ * @author Mario Schäper
+ * @see cli.completion.CompletionIndex#complete(String...)
+ */
+public class CompletionScripts {
+
+	protected CompletionScripts() {
+	}
+
+	/**
+	 * Returns a Bash Script, that registers the Completion
+	 * of the given Program, when it is sourced.<br/>
+	 * Words, that Bash splits at the Characters of <em>COMP_WORDBREAKS</em>
+	 * (e.g. "--options=value"), are joined again by their Positions in
+	 * <em>COMP_LINE</em>, before they are sent, and the Candidates
+	 * are trimmed to the Part, that Bash replaces.<br/>
+	 * Requires Bash 4.1 or later.
+	 * @param program the Name of the Program
+	 * @param port the local Port of the Server
+	 * @return the Script
+	 */
+	public static String bash(final String program, final int port) {
+		final String id = CompletionScripts.identifier(program);
+		return "# Bash completion of " + program + "\n"
+				+ "_" + id + "_complete() {\n"
+				+ "\tlocal port=${" + id.toUpperCase() + "_COMPLETION_PORT:-"
+						+ port + "}\n"
+				+ "\tlocal fd token response opts count candidate option prefix i\n"
+				+ "\tlocal line=$COMP_LINE cword\n"
+				+ "\tlocal -a words=()\n"
+				+ "\tCOMPREPLY=()\n"
+				+ "\tfor ((i = 0; i <= COMP_CWORD && i < ${#COMP_WORDS[@]}; i++)); do\n"
+				+ "\t\tif ((i > 0)) && [[ $line != [[:space:]]* ]]; then\n"
+				+ "\t\t\twords[${#words[@]} - 1]+=${COMP_WORDS[i]}\n"
+				+ "\t\telse\n"
+				+ "\t\t\tline=${line#\"${line%%[![:space:]]*}\"}\n"
+				+ "\t\t\twords+=(\"${COMP_WORDS[i]}\")\n"
+				+ "\t\tfi\n"
+				+ "\t\tline=${line#\"${COMP_WORDS[i]}\"}\n"
+				+ "\tdone\n"
+				+ "\tcword=$((${#words[@]} - 1))\n"
+				+ "\tprefix=${words[cword]%\"${COMP_WORDS[COMP_CWORD]}\"}\n"
+				+ "\t{ token=$(<\"$HOME/.cli/parse-server-$port.token\"); } 2>/dev/null || return 0\n"
+				+ "\t{ exec {fd}<>\"/dev/tcp/127.0.0.1/$port\"; } 2>/dev/null || return 0\n"
+				+ "\tprintf '%s\\nCOMPLETE\\n%d\\n' \"$token\" \"$cword\" >&$fd\n"
+				+ "\tprintf '%s\\0' \"${words[@]:1:cword}\" >&$fd\n"
+				+ "\tIFS= read -r -u $fd response\n"
+				+ "\tif [[ $response == OK ]]; then\n"
+				+ "\t\tIFS= read -r -u $fd opts\n"
+				+ "\t\tIFS= read -r -u $fd count\n"
+				+ "\t\tfor ((i = 0; i < count; i++)); do\n"
+				+ "\t\t\tIFS= read -r -d '' -u $fd candidate\n"
+				+ "\t\t\tCOMPREPLY+=(\"${candidate#\"$prefix\"}\")\n"
+				+ "\t\tdone\n"
+				+ "\t\tfor option in $opts; do\n"
+				+ "\t\t\tcompopt -o \"$option\" 2>/dev/null\n"
+				+ "\t\tdone\n"
+				+ "\tfi\n"
+				+ "\texec {fd}>&-\n"
+				+ "}\n"
+				+ "complete -F _" + id + "_complete " + program + "\n";
+	}
+
+	/**
+	 * Returns the given Name of a Program with every Character,
+	 * that is neither a Letter nor a Digit, replaced by an Underscore.
+	 * @param program the Name of the Program
+	 * @return the Identifier
+	 */
+	protected static String identifier(final String program) {
+		if (program == null
+				|| program.isEmpty()
+				|| !program.matches("[A-Za-z0-9._+-]+")) {
+			throw new IllegalArgumentException(
+					"Invalid program \"" + program + "\"");
+		}
+		return program.replaceAll("[^A-Za-z0-9]", "_");
+	}
+}
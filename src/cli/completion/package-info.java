@@ -0,0 +1,6 @@
+/**
+ * Shell Completion of the {@link cli.Flag Flags}
+ * and {@link cli.Parser Parsers} of a {@link cli.CommandSet CommandSet}.
+ * @author Mario Schäper
+ */
+package cli.completion;
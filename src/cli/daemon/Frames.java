@@ -0,0 +1,175 @@
+package cli.daemon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads and writes the Frames of the Protocol between
+ * {@link cli.daemon.ParseServer ParseServer} and
+ * {@link cli.daemon.ParseClient ParseClient}.<br/>
+ * A Frame consists of Lines terminated by <em>'\n'</em>
+ * and Strings terminated by <em>'\0'</em>, all encoded as UTF-8.
+ * As Arguments of a Process can not contain <em>'\0'</em>,
+ * no Escaping is required.<br/>
+ * A Line is limited to {@link #MAX_LINE} Bytes, a Count to
+ * {@link #MAX_COUNT} Strings and the Strings of a Count together
+ * to {@link #MAX_BYTES} Bytes, so a Peer can not exhaust the Memory
+ * of the Reader.
+ * @author Mario Schäper
+ */
+public class Frames {
+	/** The Request Type to parse and handle Arguments. */
+	public static final String HANDLE = "HANDLE";
+	/** The Request Type to complete the last of the Arguments. */
+	public static final String COMPLETE = "COMPLETE";
+	/** The Status of a successful Response. */
+	public static final String OK = "OK";
+	/** The Status of a failed Response. */
+	public static final String ERROR = "ERROR";
+	/** The maximum Length of a Line in Bytes. */
+	public static final int MAX_LINE = 1024;
+	/** The maximum Amount of Strings following a Count. */
+	public static final int MAX_COUNT = 1 << 16;
+	/** The maximum Length of a String or of the Strings of a Count in Bytes. */
+	public static final int MAX_BYTES = 1 << 24;
+
+	protected Frames() {
+	}
+
+	/**
+	 * Reads a Line or returns <b>null</b> if the Stream ended before it.
+	 * @param in the Stream
+	 * @return the Line or null
+	 * @throws IOException if the Stream can not be read
+	 */
+	public static String readLine(final InputStream in) throws IOException {
+		return Frames.read(in, '\n', true, Frames.MAX_LINE);
+	}
+
+	/**
+	 * Reads a String.
+	 * @param in the Stream
+	 * @return the String
+	 * @throws IOException if the Stream can not be read or ended
+	 */
+	public static String readString(final InputStream in) throws IOException {
+		return Frames.read(in, '\0', false, Frames.MAX_BYTES);
+	}
+
+	/**
+	 * Reads a Count followed by as many Strings.
+	 * @param in the Stream
+	 * @return the Strings
+	 * @throws IOException if the Stream can not be read,
+	 * ended or is invalid
+	 */
+	public static String[] readStrings(final InputStream in)
+			throws IOException {
+		final String line = Frames.read(in, '\n', false, Frames.MAX_LINE);
+		final int count;
+		try {
+			count = Integer.parseInt(line);
+		} catch (final NumberFormatException e) {
+			throw new IOException("Invalid count \"" + line + "\"");
+		}
+		if (count < 0 || count > Frames.MAX_COUNT) {
+			throw new IOException("Invalid count \"" + line + "\"");
+		}
+		final String[] strings = new String[count];
+		int remaining = Frames.MAX_BYTES;
+		for (int i = 0; i < count; i++) {
+			final byte[] bytes = Frames.readBytes(in, '\0', false, remaining);
+			strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			remaining -= bytes.length;
+		}
+		return strings;
+	}
+
+	/**
+	 * Writes a Line.
+	 * @param out the Stream
+	 * @param line the Line
+	 * @throws IOException if the Stream can not be written
+	 */
+	public static void writeLine(final OutputStream out, final String line)
+			throws IOException {
+		out.write(line.getBytes(StandardCharsets.UTF_8));
+		out.write('\n');
+	}
+
+	/**
+	 * Writes a String.
+	 * @param out the Stream
+	 * @param str the String
+	 * @throws IOException if the Stream can not be written
+	 */
+	public static void writeString(final OutputStream out, final String str)
+			throws IOException {
+		out.write(String.valueOf(str).getBytes(StandardCharsets.UTF_8));
+		out.write('\0');
+	}
+
+	/**
+	 * Writes the Count of the given Strings followed by the Strings.
+	 * @param out the Stream
+	 * @param strings the Strings
+	 * @throws IOException if the Stream can not be written
+	 */
+	public static void writeStrings(
+			final OutputStream out,
+			final String...strings)
+			throws IOException {
+		Frames.writeLine(out, Integer.toString(strings.length));
+		for (String str : strings) {
+			Frames.writeString(out, str);
+		}
+	}
+
+	protected static String read(
+			final InputStream in,
+			final char terminator,
+			final boolean eofAllowed,
+			final int limit)
+			throws IOException {
+		final byte[] bytes = Frames.readBytes(in, terminator, eofAllowed, limit);
+		return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the Bytes up to the given Terminator.
+	 * @param in the Stream
+	 * @param terminator the Terminator
+	 * @param eofAllowed whether <b>null</b> is returned,
+	 * if the Stream ended before the first Byte
+	 * @param limit the maximum Amount of Bytes before the Terminator
+	 * @return the Bytes or null
+	 * @throws IOException if the Stream can not be read,
+	 * ended or exceeds the Limit
+	 */
+	protected static byte[] readBytes(
+			final InputStream in,
+			final char terminator,
+			final boolean eofAllowed,
+			final int limit)
+			throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		int b = in.read();
+		if (b == -1 && eofAllowed) {
+			return null;
+		}
+		for (; b != terminator; b = in.read()) {
+			if (b == -1) {
+				throw new EOFException("Unexpected end of frame");
+			}
+			if (bytes.size() >= limit) {
+				throw new IOException("Frame exceeds " + limit + " bytes");
+			}
+			bytes.write(b);
+		}
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,139 @@
+package cli.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+
+import cli.completion.Completion;
+
+/**
+ * A Client of a {@link cli.daemon.ParseServer ParseServer}.<br/>
+ * A single Connection can be used for any Amount of Requests,
+ * but not by multiple Threads at once.
+ * @author Mario Schäper
+ */
+public class ParseClient implements Closeable {
+	protected final Socket socket;
+	protected final InputStream in;
+	protected final OutputStream out;
+
+	/**
+	 * Connects to the Server at the given local Port
+	 * with the Token read from the default File of the Port.
+	 * @param port the Port
+	 * @throws IOException if the Server can not be reached
+	 * or the Token can not be read
+	 * @see cli.daemon.ParseServer#getTokenFile(int)
+	 */
+	public ParseClient(final int port) throws IOException {
+		this(port, ParseServer.readToken(ParseServer.getTokenFile(port)));
+	}
+
+	/**
+	 * Connects to the Server at the given local Port with the given Token.
+	 * If the Token is invalid, the Server answers the first Request
+	 * with an Error and closes the Connection.
+	 * @param port the Port
+	 * @param token the Token of the Server
+	 * @throws IOException if the Server can not be reached
+	 */
+	public ParseClient(final int port, final String token) throws IOException {
+		if (token == null || token.indexOf('\n') != -1) {
+			throw new IllegalArgumentException("Invalid token");
+		}
+		this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+		this.in = new BufferedInputStream(this.socket.getInputStream());
+		this.out = new BufferedOutputStream(this.socket.getOutputStream());
+		Frames.writeLine(this.out, token);
+	}
+
+	/**
+	 * Sends the given Arguments to the Server
+	 * and returns its {@link cli.daemon.ParseResponse Response}.
+	 * @param args the Arguments
+	 * @return the Response
+	 * @throws IOException if the Server can not be reached
+	 * or answers invalidly
+	 */
+	public ParseResponse send(final String...args) throws IOException {
+		Frames.writeLine(this.out, Frames.HANDLE);
+		Frames.writeStrings(this.out, args);
+		this.out.flush();
+		final String status = Frames.readLine(this.in);
+		if (Frames.ERROR.equals(status)) {
+			return new ParseResponse(
+					null, null, null, Frames.readString(this.in));
+		} else if (!Frames.OK.equals(status)) {
+			throw new IOException("Invalid response \"" + status + "\"");
+		}
+		final String[] resolvedArgs = Frames.readStrings(this.in);
+		final String[] ignoredArgs = Frames.readStrings(this.in);
+		return new ParseResponse(
+				resolvedArgs, ignoredArgs, Frames.readString(this.in), null);
+	}
+
+	/**
+	 * Sends the given Arguments to the Server to complete the last of them
+	 * and returns the {@link cli.completion.Completion Completion}.
+	 * @param args the Arguments up to the Word at the Cursor
+	 * @return the Completion
+	 * @throws IOException if the Server can not be reached
+	 * or answers invalidly
+	 */
+	public Completion complete(final String...args) throws IOException {
+		Frames.writeLine(this.out, Frames.COMPLETE);
+		Frames.writeStrings(this.out, args);
+		this.out.flush();
+		final String status = Frames.readLine(this.in);
+		if (Frames.ERROR.equals(status)) {
+			throw new IOException(Frames.readString(this.in));
+		} else if (!Frames.OK.equals(status)) {
+			throw new IOException("Invalid response \"" + status + "\"");
+		}
+		final String options = Frames.read(this.in, '\n', false, Frames.MAX_LINE);
+		return Completion.of(
+				options, Arrays.asList(Frames.readStrings(this.in)));
+	}
+
+	/**
+	 * Closes the Connection.
+	 * @throws IOException if the Connection can not be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		this.socket.close();
+	}
+
+	/**
+	 * Sends the Arguments following the Port to the Server at that Port
+	 * and prints the Output of the Actions followed by the ignored Arguments,
+	 * one per Line.<br/>
+	 * Exits with <b>1</b> if the Arguments are invalid.
+	 * @param args the Port and the Arguments
+	 * @throws IOException if the Server can not be reached
+	 */
+	public static void main(final String...args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: ParseClient <port> [arguments...]");
+			System.exit(2);
+		}
+		final ParseResponse response;
+		try (ParseClient client = new ParseClient(Integer.parseInt(args[0]))) {
+			response = client.send(Arrays.copyOfRange(args, 1, args.length));
+		}
+		if (!response.isSuccess()) {
+			System.err.println(response.getError());
+			System.exit(1);
+		}
+		System.out.print(response.getOutput());
+		for (String arg : response.getIgnoredArgs()) {
+			System.out.println(arg);
+		}
+	}
+}
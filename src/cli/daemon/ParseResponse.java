@@ -0,0 +1,72 @@
+package cli.daemon;
+
+/**
+ * The Response of a {@link cli.daemon.ParseServer ParseServer}
+ * to a Vector of Arguments.
+ * @author Mario Schäper
+ */
+public class ParseResponse {
+	protected final String[] resolvedArgs;
+	protected final String[] ignoredArgs;
+	protected final String output;
+	protected final String error;
+
+	/**
+	 * @param resolvedArgs the Arguments after resolving the Parsers
+	 * @param ignoredArgs the Arguments, that could not be resolved
+	 * @param output the Output of the Actions
+	 * @param error the Message of the Error or <b>null</b>
+	 * if there was none
+	 */
+	public ParseResponse(
+			final String[] resolvedArgs,
+			final String[] ignoredArgs,
+			final String output,
+			final String error) {
+		this.resolvedArgs = resolvedArgs;
+		this.ignoredArgs = ignoredArgs;
+		this.output = output;
+		this.error = error;
+	}
+
+	/**
+	 * Returns the Arguments after resolving the Parsers.
+	 * @return the resolved Arguments
+	 */
+	public String[] getResolvedArgs() {
+		return this.resolvedArgs;
+	}
+
+	/**
+	 * Returns the Arguments, that could not be resolved.
+	 * @return the leftover Arguments
+	 */
+	public String[] getIgnoredArgs() {
+		return this.ignoredArgs;
+	}
+
+	/**
+	 * Returns the Output written by the Actions
+	 * through {@link cli.daemon.ParseServer#output() ParseServer.output()}.
+	 * @return the Output
+	 */
+	public String getOutput() {
+		return this.output;
+	}
+
+	/**
+	 * Returns the Message of the Error or <b>null</b> if there was none.
+	 * @return the Message or null
+	 */
+	public String getError() {
+		return this.error;
+	}
+
+	/**
+	 * Returns, whether the Arguments were handled without an Error.
+	 * @return whether there was no Error
+	 */
+	public boolean isSuccess() {
+		return this.error == null;
+	}
+}
@@ -0,0 +1,356 @@
+package cli.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import cli.CommandSet;
+import cli.completion.Completion;
+import cli.completion.CompletionIndex;
+
+/**
+ * A resident Server, that parses and handles Vectors of Arguments
+ * with a {@link cli.CommandSet CommandSet}, so Scripts do not have to
+ * start a new JVM for every Invocation.<br/>
+ * The Server only accepts Connections from the local Host,
+ * that start with the Line of its random Token. The Token is written
+ * to a File, that only the Owner of the Server can read
+ * (see {@link #getTokenFile(int)}), so other Users can neither run
+ * the Actions nor read their Output.
+ * Every Connection is served by its own Thread and may send any Amount
+ * of Requests, so concurrent Invocations do not wait for each other.<br/>
+ * A Request consists of the Line <em>HANDLE</em>, the Line of the Count
+ * of Arguments and the Arguments, each terminated by <em>'\0'</em>.
+ * The Response consists either of the Line <em>OK</em>,
+ * the resolved and the ignored Arguments, each preceded by the Line of their
+ * Count and terminated by <em>'\0'</em>, and the Output terminated by
+ * <em>'\0'</em>, or of the Line <em>ERROR</em> and the Message terminated by
+ * <em>'\0'</em>.<br/>
+ * A Request of the Type <em>COMPLETE</em> is formatted alike and
+ * completes the last Argument with a
+ * {@link cli.completion.CompletionIndex CompletionIndex}, that is built on
+ * the first such Request. Its Response consists of the Line <em>OK</em>,
+ * the Line of the {@link cli.completion.Completion#getOptions() Options}
+ * and the Candidates preceded by the Line of their Count and each
+ * terminated by <em>'\0'</em>. See {@link cli.daemon.Frames Frames}.<br/>
+ * The Actions of the Flags and Parsers are called concurrently
+ * and have to be thread-safe.
+ * @author Mario Schäper
+ */
+public class ParseServer implements Closeable {
+	protected static final ThreadLocal<PrintWriter> OUTPUT = new ThreadLocal<>();
+	/** The Milliseconds, a new Connection has to send the Token in. */
+	protected static final int TOKEN_TIMEOUT = 10000;
+	protected final CommandSet commands;
+	protected final ServerSocket socket;
+	protected final ExecutorService executor;
+	protected final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+	protected final byte[] token;
+	protected final Path tokenFile;
+	protected volatile CompletionIndex completionIndex;
+
+	/**
+	 * Writes the Token to the default File of the Port.
+	 * @param commands the Flags and Parsers
+	 * @param port the local Port or <b>0</b> for any free Port
+	 * @throws IOException if the Port can not be bound
+	 * or the Token can not be written
+	 * @see #getTokenFile(int)
+	 */
+	public ParseServer(final CommandSet commands, final int port)
+			throws IOException {
+		this(commands, port, null);
+	}
+
+	/**
+	 * @param commands the Flags and Parsers
+	 * @param port the local Port or <b>0</b> for any free Port
+	 * @param tokenFile the File of the Token or <b>null</b>
+	 * for the default File of the Port
+	 * @throws IOException if the Port can not be bound
+	 * or the Token can not be written
+	 */
+	public ParseServer(
+			final CommandSet commands,
+			final int port,
+			final Path tokenFile)
+			throws IOException {
+		if (commands == null) {
+			throw new IllegalArgumentException("Invalid commands");
+		}
+		this.commands = commands;
+		this.socket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		final byte[] random = new byte[32];
+		new SecureRandom().nextBytes(random);
+		final StringBuilder token = new StringBuilder(random.length * 2);
+		for (byte b : random) {
+			token.append(Character.forDigit((b >> 4) & 0xf, 16))
+					.append(Character.forDigit(b & 0xf, 16));
+		}
+		this.token = token.toString().getBytes(StandardCharsets.UTF_8);
+		this.tokenFile = tokenFile == null
+				? ParseServer.getTokenFile(this.socket.getLocalPort())
+				: tokenFile;
+		try {
+			ParseServer.writeToken(this.tokenFile, this.token);
+		} catch (final IOException e) {
+			this.socket.close();
+			throw e;
+		}
+		this.executor = Executors.newCachedThreadPool(runnable -> {
+			final Thread thread = new Thread(runnable, "cli-parse-server");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Returns the default File of the Token of the Server at the given Port,
+	 * <em>~/.cli/parse-server-&lt;port&gt;.token</em>.
+	 * @param port the Port
+	 * @return the File
+	 */
+	public static Path getTokenFile(final int port) {
+		return Paths.get(System.getProperty("user.home"),
+				".cli", "parse-server-" + port + ".token");
+	}
+
+	/**
+	 * Reads the Token of a Server from the given File.
+	 * @param tokenFile the File
+	 * @return the Token
+	 * @throws IOException if the File can not be read
+	 */
+	public static String readToken(final Path tokenFile) throws IOException {
+		return new String(Files.readAllBytes(tokenFile), StandardCharsets.UTF_8)
+				.trim();
+	}
+
+	/**
+	 * Returns the File of the Token of this Server.
+	 * @return the File
+	 */
+	public Path getTokenFile() {
+		return this.tokenFile;
+	}
+
+	/**
+	 * Returns the Writer for the Output of the Request,
+	 * that is handled by the current Thread.<br/>
+	 * The Output is sent back to the Client with the Response.
+	 * Outside of a Request the Standard Output is returned.
+	 * @return the Writer
+	 */
+	public static PrintWriter output() {
+		final PrintWriter output = ParseServer.OUTPUT.get();
+		return output == null ? new PrintWriter(System.out, true) : output;
+	}
+
+	/**
+	 * Returns the local Port of this Server.
+	 * @return the Port
+	 */
+	public int getPort() {
+		return this.socket.getLocalPort();
+	}
+
+	/**
+	 * Accepts Connections in a Background Thread, until this Server is closed.
+	 * @return this Server
+	 */
+	public ParseServer start() {
+		this.executor.execute(this::accept);
+		return this;
+	}
+
+	/**
+	 * Stops accepting Connections, closes open Connections
+	 * and deletes the File of the Token.
+	 * @throws IOException if the Socket can not be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		this.executor.shutdownNow();
+		this.socket.close();
+		for (Socket connection : this.connections) {
+			connection.close();
+		}
+		Files.deleteIfExists(this.tokenFile);
+	}
+
+	protected void accept() {
+		while (!this.socket.isClosed()) {
+			final Socket connection;
+			try {
+				connection = this.socket.accept();
+			} catch (final IOException e) {
+				if (this.socket.isClosed()) {
+					return;
+				}
+				continue;
+			}
+			this.connections.add(connection);
+			this.executor.execute(() -> this.serve(connection));
+		}
+	}
+
+	protected void serve(final Socket connection) {
+		try (Socket socket = connection;
+				InputStream in = new BufferedInputStream(socket.getInputStream());
+				OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+			if (!this.authenticate(socket, in, out)) {
+				return;
+			}
+			String type;
+			while ((type = Frames.readLine(in)) != null) {
+				this.respond(type, in, out);
+				out.flush();
+			}
+		} catch (final SocketException e) {
+			// the Connection was closed by the Client or the Server
+		} catch (final IOException e) {
+			// a malformed Request can not be answered
+		} finally {
+			this.connections.remove(connection);
+		}
+	}
+
+	/**
+	 * Reads the Token from the given Connection within
+	 * {@link #TOKEN_TIMEOUT} Milliseconds and answers with an Error,
+	 * if it does not match.
+	 * @param socket the Connection
+	 * @param in the Stream of the Connection
+	 * @param out the Stream of the Connection
+	 * @return whether the Token matches
+	 * @throws IOException if the Connection fails
+	 */
+	protected boolean authenticate(
+			final Socket socket,
+			final InputStream in,
+			final OutputStream out)
+			throws IOException {
+		socket.setSoTimeout(ParseServer.TOKEN_TIMEOUT);
+		final String token = Frames.readLine(in);
+		if (token == null || !MessageDigest.isEqual(
+				this.token, token.getBytes(StandardCharsets.UTF_8))) {
+			Frames.writeLine(out, Frames.ERROR);
+			Frames.writeString(out, "Invalid token");
+			out.flush();
+			return false;
+		}
+		socket.setSoTimeout(0);
+		return true;
+	}
+
+	/**
+	 * Writes the given Token to the given File, that only its Owner
+	 * can read, if the File System supports POSIX Permissions.
+	 * An existing File is replaced.
+	 * @param tokenFile the File
+	 * @param token the Token
+	 * @throws IOException if the File can not be written
+	 */
+	protected static void writeToken(final Path tokenFile, final byte[] token)
+			throws IOException {
+		final boolean posix = FileSystems.getDefault()
+				.supportedFileAttributeViews().contains("posix");
+		final Path directory = tokenFile.toAbsolutePath().getParent();
+		if (!Files.isDirectory(directory)) {
+			if (posix) {
+				Files.createDirectories(directory, PosixFilePermissions
+						.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+			} else {
+				Files.createDirectories(directory);
+			}
+		}
+		Files.deleteIfExists(tokenFile);
+		if (posix) {
+			Files.createFile(tokenFile, PosixFilePermissions
+					.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+		} else {
+			Files.createFile(tokenFile);
+		}
+		Files.write(tokenFile, token, StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * Returns the {@link cli.completion.CompletionIndex CompletionIndex}
+	 * of the Flags and Parsers, which is built on the first Request.<br/>
+	 * Building it twice is harmless, as it is immutable.
+	 * @return the CompletionIndex
+	 */
+	public CompletionIndex getCompletionIndex() {
+		CompletionIndex completionIndex = this.completionIndex;
+		if (completionIndex == null) {
+			completionIndex = CompletionIndex.of(this.commands);
+			this.completionIndex = completionIndex;
+		}
+		return completionIndex;
+	}
+
+	protected void respond(
+			final String type,
+			final InputStream in,
+			final OutputStream out)
+			throws IOException {
+		if (Frames.COMPLETE.equals(type)) {
+			final Completion completion =
+					this.getCompletionIndex().complete(Frames.readStrings(in));
+			final List<String> candidates = completion.getCandidates();
+			Frames.writeLine(out, Frames.OK);
+			Frames.writeLine(out, completion.getOptions());
+			Frames.writeStrings(
+					out, candidates.toArray(new String[candidates.size()]));
+			return;
+		}
+		if (!Frames.HANDLE.equals(type)) {
+			Frames.writeLine(out, Frames.ERROR);
+			Frames.writeString(out, "Invalid request \"" + type + "\"");
+			throw new IOException("Invalid request \"" + type + "\"");
+		}
+		final String[] args = Frames.readStrings(in);
+		final StringWriter output = new StringWriter();
+		final String[] resolvedArgs;
+		final String[] ignoredArgs;
+		ParseServer.OUTPUT.set(new PrintWriter(output));
+		try {
+			resolvedArgs = this.commands.parseArguments(args);
+			ignoredArgs = this.commands.handleArguments(resolvedArgs);
+		} catch (final RuntimeException e) {
+			Frames.writeLine(out, Frames.ERROR);
+			Frames.writeString(out, String.valueOf(e.getMessage()));
+			return;
+		} finally {
+			ParseServer.OUTPUT.get().flush();
+			ParseServer.OUTPUT.remove();
+		}
+		Frames.writeLine(out, Frames.OK);
+		Frames.writeStrings(out, resolvedArgs);
+		Frames.writeStrings(out, ignoredArgs);
+		Frames.writeString(out, output.toString());
+	}
+}
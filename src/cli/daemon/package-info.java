@@ -0,0 +1,6 @@
+/**
+ * A resident Server and its Client to parse and handle CLI-like Inputs
+ * without starting a new JVM for every Invocation.
+ * @author Mario Schäper
+ */
+package cli.daemon;
@@ -0,0 +1,592 @@
+package cli.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import cli.Flag;
+import cli.FlagIndex;
+import cli.Option;
+import cli.Options;
+
+/**
+ * Generates an {@link cli.ArgumentHandler ArgumentHandler} for each
+ * {@link cli.Options Options} Class.<br/>
+ * The generated Class finds the Option of an Argument by a
+ * <em>switch</em> on the whole Argument for Flags without inline Values
+ * and by nested <em>switches</em> on its Characters for Flags with inline
+ * Values. It converts the Values with {@link cli.Values Values}
+ * and assigns them directly to the Fields, so it needs neither
+ * {@link cli.Flag Flags}, Collections, Reflection nor Lambdas.<br/>
+ * The Options are validated like a {@link cli.FlagIndex FlagIndex}
+ * at Compile Time, so ambiguous Options are reported as Errors.
+ * @author Mario Schäper
+ */
+@SupportedAnnotationTypes({"cli.Options", "cli.Option"})
+public class OptionsProcessor extends AbstractProcessor {
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean process(
+			final Set<? extends TypeElement> annotations,
+			final RoundEnvironment environment) {
+		for (Element element
+				: environment.getElementsAnnotatedWith(Options.class)) {
+			if (element.getKind() != ElementKind.CLASS) {
+				this.error(element, "@Options can only annotate classes");
+				continue;
+			}
+			final TypeElement type = (TypeElement)element;
+			if (type.getModifiers().contains(Modifier.PRIVATE)
+					|| (type.getNestingKind() == NestingKind.MEMBER
+						&& !type.getModifiers().contains(Modifier.STATIC))
+					|| type.getNestingKind() == NestingKind.LOCAL
+					|| type.getNestingKind() == NestingKind.ANONYMOUS) {
+				this.error(type, "@Options classes must be accessible"
+						+ " top level or static member classes");
+				continue;
+			}
+			final List<OptionField> fields = this.collect(type);
+			if (fields == null) {
+				continue;
+			}
+			try {
+				this.generate(type, fields);
+			} catch (final IOException e) {
+				this.error(type, "Could not generate parser: " + e.getMessage());
+			}
+		}
+		return true;
+	}
+
+	protected List<OptionField> collect(final TypeElement type) {
+		final List<OptionField> fields = new ArrayList<>();
+		final List<Flag> flags = new ArrayList<>();
+		boolean valid = true;
+		for (VariableElement field
+				: ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			final Option option = field.getAnnotation(Option.class);
+			if (option == null) {
+				continue;
+			}
+			final OptionField optionField = this.toOptionField(field, option);
+			if (optionField == null) {
+				valid = false;
+				continue;
+			}
+			try {
+				flags.add(new Flag(
+						optionField.name,
+						values -> {},
+						optionField.valueSeparator,
+						optionField.values,
+						optionField.allowMultiple));
+			} catch (final IllegalArgumentException e) {
+				this.error(field, e.getMessage());
+				valid = false;
+				continue;
+			}
+			fields.add(optionField);
+		}
+		if (!valid) {
+			return null;
+		}
+		try {
+			new FlagIndex(flags);
+		} catch (final IllegalArgumentException e) {
+			this.error(type, e.getMessage());
+			return null;
+		}
+		return fields;
+	}
+
+	protected OptionField toOptionField(
+			final VariableElement field,
+			final Option option) {
+		final Set<Modifier> modifiers = field.getModifiers();
+		if (modifiers.contains(Modifier.PRIVATE)
+				|| modifiers.contains(Modifier.STATIC)
+				|| modifiers.contains(Modifier.FINAL)) {
+			this.error(field, "@Option fields must not be private, static or final");
+			return null;
+		}
+		TypeMirror type = field.asType();
+		final boolean array = type.getKind() == TypeKind.ARRAY;
+		if (array) {
+			type = ((ArrayType)type).getComponentType();
+		}
+		final String kind;
+		switch (type.getKind()) {
+			case BOOLEAN:
+				kind = array ? null : "Boolean";
+				break;
+			case INT:
+				kind = "Int";
+				break;
+			case LONG:
+				kind = "Long";
+				break;
+			case DOUBLE:
+				kind = "Double";
+				break;
+			default:
+				kind = type.toString().equals("java.lang.String") ? "String" : null;
+		}
+		if (kind == null) {
+			this.error(field, "Unsupported @Option type " + field.asType());
+			return null;
+		}
+		int values = option.values();
+		if (values == -1) {
+			if (array) {
+				this.error(field, "@Option arrays have to declare their values");
+				return null;
+			}
+			values = kind.equals("Boolean") ? 0 : 1;
+		} else if (array ? values < 1 : values != 1
+				&& !(values == 0 && kind.equals("Boolean"))) {
+			this.error(field, "Invalid amount of values \"" + values + "\"");
+			return null;
+		}
+		return new OptionField(
+				field.getSimpleName().toString(),
+				option.name(),
+				option.valueSeparator(),
+				values,
+				option.allowMultiple(),
+				kind,
+				array);
+	}
+
+	protected void generate(
+			final TypeElement type,
+			final List<OptionField> fields)
+			throws IOException {
+		final Options options = type.getAnnotation(Options.class);
+		final String className = options.className().isEmpty()
+				? type.getSimpleName() + "Parser"
+				: options.className();
+		final PackageElement packageElement =
+				this.processingEnv.getElementUtils().getPackageOf(type);
+		final String packageName = packageElement.isUnnamed()
+				? ""
+				: packageElement.getQualifiedName().toString();
+		final String typeName = type.getQualifiedName().toString();
+		final Source out = new Source();
+		if (!packageName.isEmpty()) {
+			out.line(0, "package " + packageName + ";");
+			out.line(0, "");
+		}
+		out.line(0, "import java.util.Arrays;");
+		out.line(0, "");
+		out.line(0, "import cli.ArgumentHandler;");
+		out.line(0, "import cli.ValueFormatException;");
+		out.line(0, "import cli.Values;");
+		out.line(0, "");
+		out.line(0, "/**");
+		out.line(0, " * Sets the Fields of {@link " + typeName + "}");
+		out.line(0, " * from the Arguments of a CLI Input.<br/>");
+		out.line(0, " * Generated by {@link cli.processor.OptionsProcessor}.");
+		out.line(0, " */");
+		out.line(0, "public class " + className + " implements ArgumentHandler {");
+		out.line(1, "protected final " + typeName + " options;");
+		out.line(0, "");
+		out.line(1, "/**");
+		out.line(1, " * @param options the Options, whose Fields are set");
+		out.line(1, " */");
+		out.line(1, "public " + className + "(final " + typeName + " options) {");
+		out.line(2, "if (options == null) {");
+		out.line(3, "throw new IllegalArgumentException(\"Invalid options\");");
+		out.line(2, "}");
+		out.line(2, "this.options = options;");
+		out.line(1, "}");
+		out.line(0, "");
+		out.line(1, "/**");
+		out.line(1, " * Returns the Options, whose Fields are set.");
+		out.line(1, " * @return the Options");
+		out.line(1, " */");
+		out.line(1, "public " + typeName + " getOptions() {");
+		out.line(2, "return this.options;");
+		out.line(1, "}");
+		out.line(0, "");
+		this.generateHandleArguments(out, className, fields);
+		out.line(0, "");
+		this.generateIndexOf(out, fields);
+		boolean split = false;
+		for (OptionField field : fields) {
+			split |= !field.isExact() && field.values > 1;
+		}
+		if (split) {
+			out.line(0, "");
+			this.generateSplit(out);
+		}
+		out.line(0, "}");
+		final String qualifiedName = packageName.isEmpty()
+				? className
+				: packageName + "." + className;
+		try (Writer writer = this.processingEnv.getFiler()
+				.createSourceFile(qualifiedName, type)
+				.openWriter()) {
+			writer.write(out.toString());
+		}
+	}
+
+	protected void generateHandleArguments(
+			final Source out,
+			final String className,
+			final List<OptionField> fields) {
+		out.line(1, "/**");
+		out.line(1, " * {@inheritDoc}");
+		out.line(1, " */");
+		out.line(1, "@Override");
+		out.line(1, "public String[] handleArguments(final String...args)");
+		out.line(3, "throws IllegalArgumentException {");
+		out.line(2, "final boolean[] used = new boolean[" + fields.size() + "];");
+		out.line(2, "final String[] ignoredArgs = new String[args.length];");
+		out.line(2, "int ignored = 0;");
+		out.line(2, "for (int i = 0; i < args.length; i++) {");
+		out.line(3, "final String arg = args[i];");
+		out.line(3, "final int option = " + className + ".indexOf(arg);");
+		out.line(3, "if (option == -1 || used[option]) {");
+		out.line(4, "ignoredArgs[ignored++] = arg;");
+		out.line(4, "continue;");
+		out.line(3, "}");
+		out.line(3, "switch (option) {");
+		for (int i = 0; i < fields.size(); i++) {
+			out.line(4, "case " + i + ": {");
+			this.generateCase(out, className, fields.get(i), i);
+			out.line(5, "break;");
+			out.line(4, "}");
+		}
+		out.line(4, "default:");
+		out.line(5, "break;");
+		out.line(3, "}");
+		out.line(2, "}");
+		out.line(2, "return Arrays.copyOf(ignoredArgs, ignored);");
+		out.line(1, "}");
+	}
+
+	protected void generateCase(
+			final Source out,
+			final String className,
+			final OptionField field,
+			final int position) {
+		final String target = "this.options." + field.field;
+		final String name = Source.literal(field.name);
+		if (!field.allowMultiple) {
+			out.line(5, "used[" + position + "] = true;");
+		}
+		if (field.values == 0) {
+			out.line(5, target + " = true;");
+			return;
+		}
+		if (field.isExact()) {
+			out.line(5, "if (i + " + field.values + " >= args.length) {");
+			out.line(6, "throw new IllegalArgumentException(" + Source.literal(
+					field.name + " expects " + field.values + " parameters") + ");");
+			out.line(5, "}");
+		} else if (field.values == 1) {
+			out.line(5, "if (arg.indexOf(" + Source.literal(field.valueSeparator)
+					+ ", " + field.prefixLength() + ") != -1) {");
+			out.line(6, "throw new IllegalArgumentException(" + Source.literal(
+					"Invalid amount of values supplied for the flag \""
+							+ field.name + "\"") + ");");
+			out.line(5, "}");
+		} else {
+			out.line(5, "final int[] bounds = " + className + ".split(arg, "
+					+ field.prefixLength() + ", "
+					+ Source.literal(field.valueSeparator) + ", "
+					+ field.values + ", " + name + ");");
+		}
+		final boolean converted = !field.kind.equals("String");
+		int indent = 5;
+		if (converted) {
+			out.line(indent++, "try {");
+		}
+		if (!field.array) {
+			out.line(indent, target + " = " + (field.isExact()
+					? field.convert("args[++i]", "0", "args[i].length()")
+					: field.convert("arg", Integer.toString(field.prefixLength()),
+							"arg.length()")) + ";");
+		} else {
+			final String component = field.kind.equals("String")
+					? "String"
+					: field.kind.toLowerCase();
+			out.line(indent, "final " + component + "[] values = new "
+					+ component + "[" + field.values + "];");
+			out.line(indent, "for (int j = 0; j < " + field.values + "; j++) {");
+			if (field.isExact()) {
+				out.line(indent + 1, "values[j] = "
+						+ field.convert("args[++i]", "0", "args[i].length()") + ";");
+			} else {
+				out.line(indent + 1, "values[j] = "
+						+ field.convert("arg", "bounds[j * 2]", "bounds[j * 2 + 1]")
+						+ ";");
+			}
+			out.line(indent, "}");
+			out.line(indent, target + " = values;");
+		}
+		if (converted) {
+			out.line(5, "} catch (final ValueFormatException e) {");
+			out.line(6, "throw e.forFlag(" + name + ");");
+			out.line(5, "}");
+		}
+	}
+
+	protected void generateIndexOf(
+			final Source out,
+			final List<OptionField> fields) {
+		out.line(1, "/**");
+		out.line(1, " * Returns the Position of the Option,");
+		out.line(1, " * that is represented by the given String");
+		out.line(1, " * or <b>-1</b> if there is none.");
+		out.line(1, " * @param arg the String");
+		out.line(1, " * @return the Position of the represented Option or -1");
+		out.line(1, " */");
+		out.line(1, "public static int indexOf(final String arg) {");
+		out.line(2, "if (arg == null) {");
+		out.line(3, "return -1;");
+		out.line(2, "}");
+		final Node root = new Node();
+		boolean exact = false;
+		for (int i = 0; i < fields.size(); i++) {
+			if (fields.get(i).isExact()) {
+				exact = true;
+			} else {
+				root.add(fields.get(i).name + fields.get(i).valueSeparator, 0, i);
+			}
+		}
+		if (exact) {
+			out.line(2, "switch (arg) {");
+			for (int i = 0; i < fields.size(); i++) {
+				if (fields.get(i).isExact()) {
+					out.line(3, "case " + Source.literal(fields.get(i).name) + ":");
+					out.line(4, "return " + i + ";");
+				}
+			}
+			out.line(3, "default:");
+			out.line(4, "break;");
+			out.line(2, "}");
+		}
+		this.generateNode(out, root, 0, 2);
+		out.line(1, "}");
+	}
+
+	protected void generateNode(
+			final Source out,
+			final Node node,
+			final int depth,
+			final int indent) {
+		if (node.option != -1) {
+			out.line(indent, "return " + node.option + ";");
+			return;
+		}
+		if (node.children.size() == 1) {
+			final StringBuilder chain = new StringBuilder();
+			Node next = node;
+			while (next.option == -1 && next.children.size() == 1) {
+				final Map.Entry<Character, Node> entry =
+						next.children.entrySet().iterator().next();
+				chain.append(entry.getKey().charValue());
+				next = entry.getValue();
+			}
+			out.line(indent, "if (arg.startsWith("
+					+ Source.literal(chain.toString()) + ", " + depth + ")) {");
+			this.generateNode(out, next, depth + chain.length(), indent + 1);
+			out.line(indent, "}");
+		} else if (!node.children.isEmpty()) {
+			out.line(indent, "if (arg.length() > " + depth + ") {");
+			out.line(indent + 1, "switch (arg.charAt(" + depth + ")) {");
+			for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+				out.line(indent + 2, "case " + Source.literal(entry.getKey()) + ":");
+				this.generateNode(out, entry.getValue(), depth + 1, indent + 3);
+			}
+			out.line(indent + 2, "default:");
+			out.line(indent + 3, "break;");
+			out.line(indent + 1, "}");
+			out.line(indent, "}");
+		}
+		out.line(indent, "return -1;");
+	}
+
+	protected void generateSplit(final Source out) {
+		out.line(1, "protected static int[] split(");
+		out.line(3, "final String arg,");
+		out.line(3, "final int offset,");
+		out.line(3, "final String separator,");
+		out.line(3, "final int values,");
+		out.line(3, "final String name)");
+		out.line(3, "throws IllegalArgumentException {");
+		out.line(2, "final int[] bounds = new int[values * 2];");
+		out.line(2, "int start = offset;");
+		out.line(2, "for (int j = 0; j < values; j++) {");
+		out.line(3, "if (start > arg.length()) {");
+		out.line(4, "throw new IllegalArgumentException(");
+		out.line(6, "name + \" expects \" + values + \" parameters\");");
+		out.line(3, "}");
+		out.line(3, "int end = arg.indexOf(separator, start);");
+		out.line(3, "if (end == -1) {");
+		out.line(4, "end = arg.length();");
+		out.line(3, "} else if (j + 1 == values) {");
+		out.line(4, "throw new IllegalArgumentException(");
+		out.line(6, "\"Invalid amount of values supplied for the flag \\\"\"");
+		out.line(8, "+ name + \"\\\"\");");
+		out.line(3, "}");
+		out.line(3, "bounds[j * 2] = start;");
+		out.line(3, "bounds[j * 2 + 1] = end;");
+		out.line(3, "start = end + separator.length();");
+		out.line(2, "}");
+		out.line(2, "return bounds;");
+		out.line(1, "}");
+	}
+
+	protected void error(final Element element, final String message) {
+		this.processingEnv.getMessager().printMessage(
+				Diagnostic.Kind.ERROR, message, element);
+	}
+
+	/**
+	 * A Field annotated with {@link cli.Option Option}.
+	 */
+	protected static class OptionField {
+		protected final String field;
+		protected final String name;
+		protected final String valueSeparator;
+		protected final int values;
+		protected final boolean allowMultiple;
+		protected final String kind;
+		protected final boolean array;
+
+		protected OptionField(
+				final String field,
+				final String name,
+				final String valueSeparator,
+				final int values,
+				final boolean allowMultiple,
+				final String kind,
+				final boolean array) {
+			this.field = field;
+			this.name = name;
+			this.valueSeparator = valueSeparator;
+			this.values = values;
+			this.allowMultiple = allowMultiple;
+			this.kind = kind;
+			this.array = array;
+		}
+
+		protected boolean isExact() {
+			return this.valueSeparator.equals(" ") || this.values == 0;
+		}
+
+		protected int prefixLength() {
+			return this.name.length() + this.valueSeparator.length();
+		}
+
+		protected String convert(
+				final String source,
+				final String start,
+				final String end) {
+			return this.kind.equals("String")
+					? source + ".substring(" + start + ", " + end + ")"
+					: "Values.parse" + this.kind
+							+ "(" + source + ", " + start + ", " + end + ")";
+		}
+	}
+
+	/**
+	 * A Node of the Prefix Trie of the Options with inline Values.
+	 */
+	protected static class Node {
+		protected final Map<Character, Node> children = new TreeMap<>();
+		protected int option = -1;
+
+		protected void add(final String key, final int depth, final int option) {
+			if (depth == key.length()) {
+				this.option = option;
+				return;
+			}
+			this.children.computeIfAbsent(key.charAt(depth), c -> new Node())
+					.add(key, depth + 1, option);
+		}
+	}
+
+	/**
+	 * The Source Code of a generated Class.
+	 */
+	protected static class Source {
+		protected final StringBuilder code = new StringBuilder();
+
+		protected void line(final int indent, final String line) {
+			if (!line.isEmpty()) {
+				for (int i = 0; i < indent; i++) {
+					this.code.append('\t');
+				}
+				this.code.append(line);
+			}
+			this.code.append('\n');
+		}
+
+		protected static String literal(final String str) {
+			final StringBuilder literal = new StringBuilder("\"");
+			for (int i = 0; i < str.length(); i++) {
+				Source.escape(literal, str.charAt(i), '"');
+			}
+			return literal.append('"').toString();
+		}
+
+		protected static String literal(final char c) {
+			return Source.escape(new StringBuilder("'"), c, '\'')
+					.append('\'').toString();
+		}
+
+		protected static StringBuilder escape(
+				final StringBuilder out,
+				final char c,
+				final char quote) {
+			if (c == quote || c == '\\') {
+				return out.append('\\').append(c);
+			} else if (c < 0x20 || c == 0x7f) {
+				return out.append(String.format("\\%03o", (int)c));
+			} else if (c > 0x7e) {
+				return out.append(String.format("\\u%04x", (int)c));
+			}
+			return out.append(c);
+		}
+
+		@Override
+		public String toString() {
+			return this.code.toString();
+		}
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * The Annotation Processor, that generates
+ * {@link cli.ArgumentHandler ArgumentHandlers}
+ * from {@link cli.Options Options} Classes.
+ * @author Mario Schäper
+ */
+package cli.processor;
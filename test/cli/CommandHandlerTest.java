@@ -0,0 +1,252 @@
+package cli;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests, that the {@link cli.CommandHandler CommandHandler} gives the same
+ * Results as its original Algorithms in the
+ * {@link cli.ReferenceHandler ReferenceHandler}, including the Order
+ * of the Actions and the Messages of the Exceptions.
+ * @author Mario Schäper
+ */
+public class CommandHandlerTest {
+	protected final StringBuilder log = new StringBuilder();
+	protected final List<Flag> flags = Arrays.asList(
+			new Flag("-f", v -> this.log.append("f" + Arrays.toString(v)), " ", 1),
+			new Flag("-p", v -> this.log.append("p" + Arrays.toString(v)), " ", 2),
+			new Flag("-v", v -> this.log.append("v"), " ", 0),
+			new Flag("--o", v -> this.log.append("o" + Arrays.toString(v)), "=", 2),
+			new Flag("-m", v -> this.log.append("m"), " ", 0, true));
+	protected final List<Parser> parsers = Arrays.asList(
+			new Parser("[", v -> this.log("A", v), 1, "]"),
+			new Parser("<", v -> this.log("B", v), 1, ">"),
+			new Parser("(", v -> this.log("C", v), 2, null),
+			new Parser("{", v -> this.log("D", v), 0, null),
+			new Parser("~", v -> this.log("E", v).substring(0, 0) + "]", 0, null));
+
+	@After
+	public void resetDefaults() {
+		CommandHandler.setFlags(Collections.<Flag>emptyList());
+		CommandHandler.setParsers(Collections.<Parser>emptyList());
+	}
+
+	@Test
+	public void handlesSpaceSeparatedValues() {
+		this.assertHandled("[a, b] f[1]p[2, 3]v",
+				"a", "-f", "1", "b", "-p", "2", "3", "-v");
+	}
+
+	@Test
+	public void handlesInlineValues() {
+		this.assertHandled("[a] o[1, 2]", "--o=1=2", "a");
+		this.assertHandled("[] o[, ]", "--o==");
+	}
+
+	@Test
+	public void handlesFlagsOnlyOnceUnlessMultipleAreAllowed() {
+		this.assertHandled("[-v, -f, 2] vmf[1]mm",
+				"-v", "-m", "-f", "1", "-v", "-m", "-f", "2", "-m");
+	}
+
+	@Test
+	public void handlesValuesLookingLikeFlags() {
+		this.assertHandled("[] f[-v]p[--o=1=2, -f]", "-f", "-v", "-p", "--o=1=2", "-f");
+	}
+
+	@Test
+	public void rejectsMissingSpaceSeparatedValues() {
+		this.assertHandled("IllegalArgumentException: -p expects 2 parameters",
+				"-p", "1");
+	}
+
+	@Test
+	public void rejectsMissingInlineValues() {
+		this.assertHandled("IllegalArgumentException: --o expects 2 parameters",
+				"--o=1");
+	}
+
+	@Test
+	public void rejectsExcessInlineValues() {
+		this.assertHandled("IllegalArgumentException: "
+				+ "Invalid amount of values supplied for the flag \"--o\"",
+				"--o=1=2=3");
+	}
+
+	@Test
+	public void handlesDefaultFlags() {
+		CommandHandler.setFlags(this.flags);
+		assertArrayEquals(new String[] {"a"},
+				CommandHandler.handleArguments("-f", "1", "a"));
+		assertArrayEquals(new String[] {"a"},
+				CommandHandler.handleArguments(
+						this.flags.toArray(new Flag[0]), "-f", "2", "a"));
+		assertEquals("f[1]f[2]", this.log.toString());
+	}
+
+	@Test
+	public void handlesIndexedFlagsWithTheSameCommandSet() {
+		final FlagIndex index = new FlagIndex(this.flags);
+		assertSame(CommandSet.of(index), CommandSet.of(index));
+		assertArrayEquals(new String[] {"a"},
+				CommandHandler.handleArguments(index, "-f", "1", "a"));
+		assertEquals("f[1]", this.log.toString());
+	}
+
+	@Test
+	public void resolvesNestedParsers() {
+		this.assertParsed("[A[a, A[b, c], B[d]], e] BAA",
+				"[", "a", "[", "b", "c", "]", "<", "d", ">", "]", "e");
+	}
+
+	@Test
+	public void resolvesParsersNextToEachOtherFromRightToLeft() {
+		this.assertParsed("[A[x], B[y], A[z]] ABA",
+				"[", "x", "]", "<", "y", ">", "[", "z", "]");
+	}
+
+	@Test
+	public void resolvesParsersWithoutSuffix() {
+		this.assertParsed("[C[a, b], c, D[]] DC", "(", "a", "b", "c", "{");
+		this.assertParsed("[C[-f, ), a, -v, b]] C", "(", "-f", ")", "a", "-v", "b");
+	}
+
+	@Test
+	public void skipsSuffixesInValuesOfFlags() {
+		this.assertParsed("[A[-f, ], x]] A", "[", "-f", "]", "x", "]");
+		this.assertParsed("[A[--o=]]] A", "[", "--o=]", "]");
+	}
+
+	@Test
+	public void closesParsersWithResultsEqualToTheirSuffix() {
+		this.assertParsed("[A[a], b, ]] EA", "[", "a", "~", "b", "]");
+	}
+
+	@Test
+	public void discardsParsersMissingTheirSuffix() {
+		this.assertParsed("[a] BA", "a", "[", "b", "<", "c");
+	}
+
+	@Test
+	public void rejectsMissingValuesOfFlagsInParsers() {
+		this.assertParsed("IllegalArgumentException: Invalid formatting",
+				"[", "a", "-p", "b");
+	}
+
+	@Test
+	public void resolvesDefaultParsers() {
+		CommandHandler.setFlags(this.flags);
+		CommandHandler.setParsers(this.parsers);
+		assertArrayEquals(new String[] {"A[x]", "B[y]"},
+				CommandHandler.parseArguments("[", "x", "]", "<", "y", ">"));
+		assertArrayEquals(new String[] {"A[x]"},
+				CommandHandler.parseArguments(
+						this.parsers.toArray(new Parser[0]),
+						this.flags.toArray(new Flag[0]),
+						"[", "x", "]"));
+		assertEquals("BAA", this.log.toString());
+	}
+
+	@Test
+	public void handlesRandomArgumentsLikeTheReference() {
+		final String[] tokens = {"-f", "-p", "-v", "-m", "--o", "--o=1",
+				"--o=1=2", "--o=1=2=3", "--o=", "--ox", "a", "b", "-"};
+		final Random random = new Random(3);
+		for (int n = 0; n < 20000; n++) {
+			final String[] args = CommandHandlerTest.randomArgs(random, tokens, 10);
+			assertEquals(Arrays.toString(args),
+					this.handleReference(args), this.handle(args));
+		}
+	}
+
+	@Test
+	public void parsesRandomArgumentsLikeTheReference() {
+		final String[] tokens = {"[", "]", "<", ">", "(", ")", "{", "~",
+				"-f", "-p", "-v", "--o=1=2", "--o=]", "a", "b"};
+		final Random random = new Random(5);
+		for (int n = 0; n < 20000; n++) {
+			final String[] args = CommandHandlerTest.randomArgs(random, tokens, 14);
+			assertEquals(Arrays.toString(args),
+					this.parseReference(args), this.parse(args));
+		}
+	}
+
+	protected String log(final String parser, final String[] values) {
+		this.log.append(parser);
+		return parser + Arrays.toString(values);
+	}
+
+	protected void assertHandled(final String expected, final String...args) {
+		assertEquals(expected, this.handleReference(args));
+		assertEquals(expected, this.handle(args));
+	}
+
+	protected void assertParsed(final String expected, final String...args) {
+		assertEquals(expected, this.parseReference(args));
+		assertEquals(expected, this.parse(args));
+	}
+
+	protected String handle(final String...args) {
+		this.log.setLength(0);
+		try {
+			return Arrays.toString(CommandHandler.handleArguments(this.flags, args))
+					+ " " + this.log;
+		} catch (final IllegalArgumentException e) {
+			return CommandHandlerTest.describe(e);
+		}
+	}
+
+	protected String handleReference(final String...args) {
+		this.log.setLength(0);
+		try {
+			return Arrays.toString(ReferenceHandler.handleArguments(this.flags, args))
+					+ " " + this.log;
+		} catch (final IllegalArgumentException e) {
+			return CommandHandlerTest.describe(e);
+		}
+	}
+
+	protected String parse(final String...args) {
+		this.log.setLength(0);
+		try {
+			return Arrays.toString(CommandHandler.parseArguments(
+					this.parsers, this.flags, args)) + " " + this.log;
+		} catch (final IllegalArgumentException e) {
+			return CommandHandlerTest.describe(e);
+		}
+	}
+
+	protected String parseReference(final String...args) {
+		this.log.setLength(0);
+		try {
+			return Arrays.toString(ReferenceHandler.parseArguments(
+					this.parsers, this.flags, args)) + " " + this.log;
+		} catch (final IllegalArgumentException e) {
+			return CommandHandlerTest.describe(e);
+		}
+	}
+
+	protected static String describe(final Exception e) {
+		return e.getClass().getSimpleName() + ": " + e.getMessage();
+	}
+
+	protected static String[] randomArgs(
+			final Random random,
+			final String[] tokens,
+			final int maxLength) {
+		final String[] args = new String[random.nextInt(maxLength + 1)];
+		for (int i = 0; i < args.length; i++) {
+			args[i] = tokens[random.nextInt(tokens.length)];
+		}
+		return args;
+	}
+}
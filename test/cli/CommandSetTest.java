@@ -0,0 +1,92 @@
+package cli;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests, that the Overloads of a {@link cli.CommandSet CommandSet} taking
+ * a {@link cli.ParseContext ParseContext} or an Iterator give the same
+ * Results as those taking an Array of Arguments.
+ * @author Mario Schäper
+ */
+public class CommandSetTest {
+	protected final StringBuilder log = new StringBuilder();
+	protected final CommandSet commands = CommandSet.builder()
+			.addFlag(new Flag("-f", v -> this.log.append("f" + Arrays.toString(v)), " ", 1))
+			.addFlag(new Flag("-v", v -> this.log.append("v"), " ", 0))
+			.addFlag(new Flag("--o", v -> this.log.append("o" + Arrays.toString(v)), "=", 2))
+			.addParser(new Parser("[", v -> "A" + Arrays.toString(v), 1, "]"))
+			.addParser(new Parser("(", v -> "C" + Arrays.toString(v), 2, null))
+			.build();
+	protected final String[] tokens = {"[", "]", "(", ")", "-f", "-v",
+			"--o=1=2", "--o=]", "--o", "a", "b"};
+
+	@Test
+	public void handlesContextsAndIteratorsLikeArrays() {
+		final ParseContext context = new ParseContext();
+		final Random random = new Random(11);
+		for (int n = 0; n < 10000; n++) {
+			final String[] args = CommandHandlerTest.randomArgs(random, this.tokens, 10);
+			final String expected = this.handle(args, 0, context);
+			assertEquals(Arrays.toString(args), expected, this.handle(args, 1, context));
+			assertEquals(Arrays.toString(args), expected, this.handle(args, 2, context));
+		}
+	}
+
+	@Test
+	public void parsesContextsAndIteratorsLikeArrays() {
+		final ParseContext context = new ParseContext();
+		final Random random = new Random(13);
+		for (int n = 0; n < 10000; n++) {
+			final String[] args = CommandHandlerTest.randomArgs(random, this.tokens, 12);
+			final String expected = this.parse(args, 0, context);
+			assertEquals(Arrays.toString(args), expected, this.parse(args, 1, context));
+			assertEquals(Arrays.toString(args), expected, this.parse(args, 2, context));
+		}
+	}
+
+	protected String handle(
+			final String[] args,
+			final int overload,
+			final ParseContext context) {
+		this.log.setLength(0);
+		try {
+			final List<String> ignored;
+			if (overload == 0) {
+				ignored = Arrays.asList(this.commands.handleArguments(args));
+			} else if (overload == 1) {
+				ignored = this.commands.handleArguments(context, args);
+			} else {
+				ignored = new ArrayList<>();
+				this.commands.handleArguments(Arrays.asList(args).iterator(), ignored::add);
+			}
+			return ignored + " " + this.log;
+		} catch (final IllegalArgumentException e) {
+			return CommandHandlerTest.describe(e);
+		}
+	}
+
+	protected String parse(
+			final String[] args,
+			final int overload,
+			final ParseContext context) {
+		try {
+			if (overload == 0) {
+				return Arrays.toString(this.commands.parseArguments(args));
+			} else if (overload == 1) {
+				return this.commands.parseArguments(context, args).toString();
+			}
+			final List<String> parsed = new ArrayList<>();
+			this.commands.parseArguments(Arrays.asList(args).iterator(), parsed::add);
+			return parsed.toString();
+		} catch (final IllegalArgumentException e) {
+			return CommandHandlerTest.describe(e);
+		}
+	}
+}
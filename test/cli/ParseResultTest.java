@@ -0,0 +1,101 @@
+package cli;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+/**
+ * Tests, that a {@link cli.ParseResult ParseResult} finds the Occurences
+ * of each {@link cli.Flag Flag} in their Order and caches their Values.
+ * @author Mario Schäper
+ */
+public class ParseResultTest {
+	protected final List<Flag> flags = new ArrayList<>();
+	protected final CommandSet commands;
+
+	public ParseResultTest() {
+		for (int i = 0; i < 20; i++) {
+			this.flags.add(new Flag("-f" + i, v -> { }, " ", 1, true));
+		}
+		this.flags.add(new Flag("--o", v -> { }, "=", 2, true));
+		this.commands = CommandSet.builder().addFlags(this.flags).build();
+	}
+
+	@Test
+	public void findsOccurrencesInTheirOrder() {
+		final ParseResult result = this.commands.resolveArguments(
+				"-f3", "a", "x", "--o=1=2", "-f1", "b", "-f3", "c", "--o=3=4");
+		assertArrayEquals(new String[] {"x"}, result.getIgnoredArgs());
+		assertEquals(2, result.count(this.flags.get(3)));
+		assertEquals(0, result.count(this.flags.get(2)));
+		assertArrayEquals(new String[] {"a"}, result.getValues("-f3"));
+		assertArrayEquals(new String[] {"c"}, result.getValues(this.flags.get(3), 1));
+		assertNull(result.getValues(this.flags.get(3), 2));
+		assertNull(result.getValues(this.flags.get(3), -1));
+		assertArrayEquals(new String[] {"3", "4"},
+				result.getValues(this.flags.get(20), 1));
+		assertTrue(result.has("-f1"));
+		assertFalse(result.has("-f2"));
+		assertFalse(result.has("--unknown"));
+		assertEquals(0, result.count(new Flag("-f1", v -> { }, " ", 1)));
+	}
+
+	@Test
+	public void findsRandomOccurrencesLikeAScan() {
+		final Random random = new Random(17);
+		for (int n = 0; n < 2000; n++) {
+			final List<String> args = new ArrayList<>();
+			final List<Integer> occurrences = new ArrayList<>();
+			for (int i = random.nextInt(40); i > 0; i--) {
+				final int flag = random.nextInt(this.flags.size() - 1);
+				args.add("-f" + flag);
+				args.add("v" + i);
+				occurrences.add(flag);
+			}
+			final ParseResult result = this.commands.resolveArguments(
+					args.toArray(new String[args.size()]));
+			for (int flag = 0; flag < this.flags.size() - 1; flag++) {
+				int count = 0;
+				for (int i = 0; i < occurrences.size(); i++) {
+					if (occurrences.get(i) == flag) {
+						assertArrayEquals(new String[] {args.get(i * 2 + 1)},
+								result.getValues(this.flags.get(flag), count++));
+					}
+				}
+				assertEquals(count, result.count(this.flags.get(flag)));
+				assertNull(result.getValues(this.flags.get(flag), count));
+			}
+		}
+	}
+
+	@Test
+	public void cachesValuesAndTheLastConversion() {
+		final ParseResult result = this.commands.resolveArguments("--o=1=2");
+		final Flag flag = this.flags.get(20);
+		final int[] conversions = new int[1];
+		final Function<String[], Integer> sum = values -> {
+			conversions[0]++;
+			return Integer.valueOf(values[0]) + Integer.valueOf(values[1]);
+		};
+		final String[] values = result.getValues(flag);
+		assertEquals(Integer.valueOf(3), result.convert(flag, sum));
+		assertEquals(Integer.valueOf(3), result.convert(flag, sum));
+		assertSame(values, result.getValues(flag));
+		assertEquals(1, conversions[0]);
+		assertEquals("1", result.convert(flag, v -> v[0]));
+		assertSame(values, result.getValues(flag));
+		assertArrayEquals(new String[] {"1", "2"}, values);
+		assertEquals(Arrays.asList("1", "2"), result.convert(flag, Arrays::asList));
+	}
+}
@@ -0,0 +1,41 @@
+package cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests, that each Segment of a {@link cli.ParserCache ParserCache} keeps
+ * enough Entries, so a small Cache still evicts its least recently used ones.
+ * @author Mario Schäper
+ */
+public class ParserCacheTest {
+	@Test
+	public void keepsSmallCachesInASingleSegment() {
+		assertEquals(1, new ParserCache(1).segments.length);
+		assertEquals(1, new ParserCache(31).segments.length);
+		assertEquals(1, new ParserCache(1000, 20).segments.length);
+	}
+
+	@Test
+	public void keepsAtLeastSixteenEntriesInEachSegment() {
+		for (int maxEntries = 1; maxEntries < 2048; maxEntries++) {
+			final ParserCache cache = new ParserCache(maxEntries);
+			assertTrue(cache.segments.length == 1 || maxEntries
+					/ cache.segments.length >= ParserCache.MIN_SEGMENT_ENTRIES);
+		}
+	}
+
+	@Test
+	public void evictsTheLeastRecentlyUsedEntriesOfASmallCache() {
+		final ParserCache cache = new ParserCache(4);
+		for (int i = 0; i < 5; i++) {
+			cache.get(new String[] {"v" + i}, v -> v[0]);
+		}
+		cache.get(new String[] {"v1"}, v -> v[0]);
+		assertEquals(4, cache.size());
+		assertEquals(1, cache.getEvictions());
+		assertEquals(1, cache.getHits());
+	}
+}
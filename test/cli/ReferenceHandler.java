@@ -0,0 +1,165 @@
+package cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The original Algorithms of the {@link cli.CommandHandler CommandHandler},
+ * that resolved the Arguments with Lists and Copies of the Array.<br/>
+ * They serve as Reference for the Tests, as the current Implementations
+ * have to give the same Results and call the Actions in the same Order.
+ * @author Mario Schäper
+ */
+public class ReferenceHandler {
+
+	protected ReferenceHandler() {
+	}
+
+	/**
+	 * Resolves all {@link cli.Flag Flags} and their Values
+	 * in the given Arguments like the original
+	 * {@link cli.CommandHandler#handleArguments(List, String...)}.<br/>
+	 * Returns the leftover Arguments.
+	 * @param flags the Flags
+	 * @param args the Arguments
+	 * @return the Arguments, that could not be resolved
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	public static String[] handleArguments(
+			final List<Flag> flags,
+			final String...args)
+			throws IllegalArgumentException {
+		final ArrayList<String> ignoredArgs = new ArrayList<>();
+		final ArrayList<Flag> unusedFlags = new ArrayList<>();
+		unusedFlags.addAll(flags);
+		for (int i = 0;i < args.length; i++) {
+			String arg = args[i];
+			final Flag flag = ReferenceHandler.getFlagByString(arg, unusedFlags);
+			if (flag != null) {
+				final String separator = flag.getValueSeparator();
+				final String[] values = new String[flag.getValues()];
+				for (int j = 0; j < flag.getValues(); j++) {
+					if (separator.equals(" ")) {
+						if (args.length > ++i) {
+							values[j] = args[i];
+						} else {
+							throw new IllegalArgumentException(
+									flag.getName() + " expects " + flag.getValues() + " parameters");
+						}
+					} else {
+						if (!arg.contains(separator)) {
+							throw new IllegalArgumentException(
+									flag.getName() + " expects " + flag.getValues() + " parameters");
+						}
+						arg = arg.substring(1 + (j == 0
+								? flag.getName().length()
+								: arg.indexOf(separator)));
+						final int index = arg.indexOf(separator);
+						if (index == -1) {
+							values[j] = arg;
+						} else {
+							values[j] = arg.substring(0, index);
+							if (j + 1 == flag.getValues()) {
+								throw new IllegalArgumentException(
+										"Invalid amount of values supplied for the flag \""
+												+ flag.getName() + "\"");
+							}
+						}
+					}
+				}
+				if (!flag.allowMultiple()) {
+					unusedFlags.remove(flag);
+				}
+				flag.getAction().accept(values);
+			} else {
+				ignoredArgs.add(arg);
+			}
+		}
+		return ignoredArgs.toArray(new String[ignoredArgs.size()]);
+	}
+
+	/**
+	 * Resolves all {@link cli.Parser Parsers} in the given Arguments
+	 * from right to left like the original
+	 * {@link cli.CommandHandler#parseArguments(List, List, String...)}.<br/>
+	 * Returns the resulting Arguments.
+	 * @param parsers the Parsers
+	 * @param flags the Flags
+	 * @param args the Arguments
+	 * @return the resulting Arguments
+	 * @throws IllegalArgumentException if the Formatting
+	 * of the Arguments is invalid
+	 */
+	public static String[] parseArguments(
+			final List<Parser> parsers,
+			final List<Flag> flags,
+			final String...args)
+			throws IllegalArgumentException {
+		String[] newArgs = Arrays.copyOf(args, args.length);
+		for (int i = newArgs.length - 1; i >= 0; i--) {
+			final Parser parser = ReferenceHandler.getParserByString(
+					newArgs[i], parsers);
+			if (parser == null) {
+				continue;
+			}
+			final ArrayList<String> toParse = new ArrayList<>();
+			int parsValues = 0;
+			for (int j = i + 1;j < newArgs.length;j++) {
+				if (newArgs[j].equals(parser.getSuffix())
+						|| (parser.getSuffix() == null
+							&& parsValues == parser.getValues())) {
+					break;
+				}
+				toParse.add(newArgs[j]);
+				final Flag flag = ReferenceHandler.getFlagByString(newArgs[j], flags);
+				if (flag != null) {
+					if (flag.getValueSeparator().equals(" ")) {
+						int values = flag.getValues();
+						if (j + values >= newArgs.length) {
+							throw new IllegalArgumentException(
+									"Invalid formatting");
+						}
+						while(--values >= 0) {
+							toParse.add(newArgs[++j]);
+						}
+					}
+				} else {
+					parsValues++;
+				}
+			}
+			newArgs[i] = parser.getAction().apply(
+					toParse.toArray(new String[toParse.size()]));
+			final int offset = toParse.size()
+					+ (parser.getSuffix() == null ? 0 : 1);
+			for (int j = i + offset + 1;j < newArgs.length; j++) {
+				newArgs[j - offset] = newArgs[j];
+			}
+			newArgs = Arrays.copyOf(newArgs, newArgs.length - offset);
+		}
+		return newArgs;
+	}
+
+	protected static Flag getFlagByString(
+			final String str,
+			final List<Flag> flags) {
+		for (Flag flag : flags) {
+			if (flag.isThis(str)) {
+				return flag;
+			}
+		}
+		return null;
+	}
+
+	protected static Parser getParserByString(
+			final String str,
+			final List<Parser> parsers) {
+		for (Parser parser : parsers) {
+			if (parser.isThis(str)) {
+				return parser;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,108 @@
+package cli;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the Expansion of Response Files by the
+ * {@link cli.ResponseFileReader ResponseFileReader}, when it is enabled
+ * for a {@link cli.CommandSet CommandSet}
+ * or the {@link cli.CommandHandler CommandHandler}.
+ * @author Mario Schäper
+ */
+public class ResponseFileReaderTest {
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	protected final StringBuilder log = new StringBuilder();
+	protected final List<Flag> flags = Arrays.asList(
+			new Flag("-f", v -> this.log.append("f" + Arrays.toString(v)), " ", 1, true),
+			new Flag("--o", v -> this.log.append("o" + Arrays.toString(v)), "=", 1, true));
+
+	@After
+	public void resetDefaults() {
+		CommandHandler.setResponseFiles(-1);
+		CommandHandler.setFlags(Collections.<Flag>emptyList());
+	}
+
+	@Test
+	public void expandsResponseFilesInAllArguments() throws IOException {
+		final String file = this.file("-f 'a b' \"--o=c d\"\n-f e\\ f\ng");
+		final CommandSet commands = CommandSet.builder()
+				.addFlags(this.flags)
+				.addParser(new Parser("[", v -> "A" + Arrays.toString(v), 1, "]"))
+				.setResponseFiles(1)
+				.build();
+		assertArrayEquals(new String[] {"x", "g", "y"},
+				commands.handleArguments("x", file, "y"));
+		assertEquals("f[a b]o[c d]f[e f]", this.log.toString());
+		assertArrayEquals(new String[] {"A[g]"},
+				commands.parseArguments("[", this.file("g ]")));
+	}
+
+	@Test
+	public void expandsNestedResponseFilesUpToTheirDepth() throws IOException {
+		final String nested = this.file("a");
+		final String file = this.file("-f " + nested);
+		final CommandSet commands = CommandSet.builder()
+				.addFlags(this.flags)
+				.setResponseFiles(2)
+				.build();
+		assertArrayEquals(new String[0], commands.handleArguments(file));
+		assertEquals("f[a]", this.log.toString());
+		try {
+			CommandSet.builder()
+					.addFlags(this.flags)
+					.setResponseFiles(1)
+					.build()
+					.handleArguments(file);
+			fail("Expected an IllegalArgumentException");
+		} catch (final IllegalArgumentException e) {
+			assertEquals("Response files nested deeper than 1 at \""
+					+ nested.substring(1) + "\"", e.getMessage());
+		}
+	}
+
+	@Test
+	public void keepsResponseFilesUnlessEnabled() throws IOException {
+		final String file = this.file("-f a");
+		final CommandSet commands = CommandSet.builder()
+				.addFlags(this.flags)
+				.build();
+		assertEquals(-1, commands.getResponseFiles());
+		assertArrayEquals(new String[] {file}, commands.handleArguments(file));
+		assertArrayEquals(new String[] {file},
+				CommandHandler.handleArguments(this.flags, file));
+	}
+
+	@Test
+	public void expandsResponseFilesInTheCommandHandler() throws IOException {
+		final String file = this.file("-f a b");
+		CommandHandler.setFlags(this.flags);
+		CommandHandler.setResponseFiles(1);
+		assertArrayEquals(new String[] {"b"},
+				CommandHandler.handleArguments(file));
+		assertArrayEquals(new String[] {"b"},
+				CommandHandler.handleArguments(this.flags, file));
+		assertEquals("f[a]f[a]", this.log.toString());
+	}
+
+	protected String file(final String content) throws IOException {
+		final File file = this.folder.newFile();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return "@" + file.getPath();
+	}
+}